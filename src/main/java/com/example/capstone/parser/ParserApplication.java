@@ -1,13 +1,27 @@
 package com.example.capstone.parser;
 
+import com.example.capstone.parser.backfill.BackfillRunner;
+import com.example.capstone.parser.config.ParserRuntimeHints;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.Arrays;
+import java.util.Map;
 
 @SpringBootApplication
+@ImportRuntimeHints(ParserRuntimeHints.class)
 public class ParserApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ParserApplication.class, args);
+		SpringApplication app = new SpringApplication(ParserApplication.class);
+		// --backfill=<dir>: offline replay, no web server and no Kafka listener (see BackfillRunner)
+		if (Arrays.stream(args).anyMatch(a -> a.startsWith("--" + BackfillRunner.OPTION))) {
+			app.setWebApplicationType(WebApplicationType.NONE);
+			app.setDefaultProperties(Map.of("parser.kafka.auto-startup", "false"));
+		}
+		app.run(args);
 	}
 
 }
@@ -0,0 +1,184 @@
+package com.example.capstone.parser.backfill;
+
+import com.example.capstone.parser.concurrent.ParserThreads;
+import com.example.capstone.parser.model.FileParseResult;
+import com.example.capstone.parser.model.TenantEntity;
+import com.example.capstone.parser.repository.TenantRepository;
+import com.example.capstone.parser.service.BulkLoadSession;
+import com.example.capstone.parser.service.ElasticsearchClientService;
+import com.example.capstone.parser.service.ParserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline replay of archived alert exports, started with {@code --backfill=<dir>[,<dir>...]}.
+ * Every *.json / *.sarif file below the given directories is re-ingested straight through
+ * {@link ParserService} without Kafka: the tenant is looked up by the owner/repo in the file's
+ * path and the tool is deduced from the path, unless {@code --tenant=} / {@code --tool=} override them.
+ * Each repo's exports are replayed oldest first, one at a time, so the newest state of an alert
+ * wins; only different repos run in parallel (up to {@code workers}).
+ * Acks, NEW_SCAN events and checkpoints are skipped; each tenant runs inside one bulk-load session.
+ * The process exits with a throughput report when done (exit code 1 if any file failed).
+ */
+@Component
+public class BackfillRunner implements ApplicationRunner {
+
+    public static final String OPTION = "backfill";
+
+    @Value("${parser.backfill.workers:8}")
+    private int workers;
+
+    @Value("${parser.backfill.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${parser.bulk-load.enabled:true}")
+    private boolean bulkLoadEnabled;
+
+    private final ParserService parserService;
+    private final ElasticsearchClientService esService;
+    private final TenantRepository tenantRepository;
+    private final ConfigurableApplicationContext context;
+
+    public BackfillRunner(ParserService parserService, ElasticsearchClientService esService,
+                          TenantRepository tenantRepository, ConfigurableApplicationContext context) {
+        this.parserService = parserService;
+        this.esService = esService;
+        this.tenantRepository = tenantRepository;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        List<String> roots = new ArrayList<>();
+        for (String value : args.getOptionValues(OPTION)) {
+            roots.addAll(Arrays.asList(value.split(",")));
+        }
+        Long tenantOverride = args.containsOption("tenant") ? Long.valueOf(args.getOptionValues("tenant").get(0)) : null;
+        String toolOverride = args.containsOption("tool") ? args.getOptionValues("tool").get(0) : null;
+        if (args.containsOption("workers")) {
+            workers = Integer.parseInt(args.getOptionValues("workers").get(0));
+        }
+        if (args.containsOption("batch-size")) {
+            batchSize = Integer.parseInt(args.getOptionValues("batch-size").get(0));
+        }
+
+        int exitCode = backfill(roots, tenantOverride, toolOverride);
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private int backfill(List<String> roots, Long tenantOverride, String toolOverride) throws Exception {
+        long startNanos = System.nanoTime();
+        List<String> files = parserService.expandFiles(roots);
+        System.out.println("[Backfill] " + files.size() + " files under " + roots
+                + ", workers=" + workers + ", batch-size=" + batchSize);
+
+        // tenant -> tool -> files
+        Map<Long, Map<String, List<String>>> plan = new TreeMap<>();
+        Map<String, Long> tenantByRepo = new HashMap<>();
+        List<String> skipped = new ArrayList<>();
+        long totalBytes = 0;
+        for (String file : files) {
+            Long tenantId = tenantOverride != null ? tenantOverride : inferTenant(file, tenantByRepo);
+            if (tenantId == null) {
+                skipped.add(file);
+                continue;
+            }
+            String tool = toolOverride != null ? toolOverride : parserService.deduceToolType(file);
+            plan.computeIfAbsent(tenantId, t -> new TreeMap<>())
+                    .computeIfAbsent(tool, t -> new ArrayList<>())
+                    .add(file);
+            totalBytes += new File(file).length();
+        }
+        for (String file : skipped) {
+            System.out.println("[Backfill] Skipping " + file + ": no tenant for its owner/repo");
+        }
+
+        ExecutorService pool = ParserThreads.executor("backfill-", false, workers);
+        List<FileParseResult> results = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, Map<String, List<String>>> tenant : plan.entrySet()) {
+                Long tenantId = tenant.getKey();
+                BulkLoadSession bulkLoad = null;
+                try {
+                    if (bulkLoadEnabled) {
+                        bulkLoad = esService.openBulkLoadSession(tenantId);
+                    }
+                    for (Map.Entry<String, List<String>> tool : tenant.getValue().entrySet()) {
+                        System.out.println("[Backfill] Tenant " + tenantId + ", tool " + tool.getKey()
+                                + ": " + tool.getValue().size() + " files");
+                        results.addAll(parserService.replayFiles(tenantId, tool.getKey(), tool.getValue(), pool, batchSize));
+                    }
+                } catch (Exception e) {
+                    System.out.println("[Backfill] Tenant " + tenantId + " aborted: " + e.getMessage());
+                    e.printStackTrace();
+                } finally {
+                    if (bulkLoad != null) {
+                        bulkLoad.close();
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsedMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        int plannedFiles = files.size() - skipped.size();
+        report(results, plannedFiles, skipped.size(), totalBytes, elapsedMs);
+        boolean allOk = results.size() == plannedFiles && results.stream().allMatch(FileParseResult::isSuccess);
+        return allOk ? 0 : 1;
+    }
+
+    private Long inferTenant(String file, Map<String, Long> tenantByRepo) {
+        String[] ownerRepo;
+        try {
+            ownerRepo = parserService.parseOwnerRepoFromPath(file);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        String key = ownerRepo[0] + "/" + ownerRepo[1];
+        if (tenantByRepo.containsKey(key)) {
+            return tenantByRepo.get(key);
+        }
+        List<TenantEntity> tenants = tenantRepository.findByOwnerAndRepo(ownerRepo[0], ownerRepo[1]);
+        Long tenantId = tenants.isEmpty() ? null : tenants.get(0).getId();
+        if (tenants.size() > 1) {
+            System.out.println("[Backfill] " + tenants.size() + " tenants for " + key + ", using " + tenantId);
+        }
+        tenantByRepo.put(key, tenantId);
+        return tenantId;
+    }
+
+    private void report(List<FileParseResult> results, int plannedFiles, int skippedFiles, long totalBytes, long elapsedMs) {
+        long newFindings = 0, updated = 0, unchanged = 0;
+        int failed = plannedFiles - results.size();
+        for (FileParseResult r : results) {
+            newFindings += r.getNewFindings();
+            updated += r.getUpdatedFindings();
+            unchanged += r.getUnchangedFindings();
+            if (!r.isSuccess()) {
+                failed++;
+                System.out.println("[Backfill] FAILED " + r.getFilePath() + ": " + r.getError());
+            }
+        }
+        long alerts = newFindings + updated + unchanged;
+        double seconds = elapsedMs / 1000.0;
+        System.out.println("[Backfill] ===== Report =====");
+        System.out.println("[Backfill] files:    " + plannedFiles + " processed, " + failed + " failed, " + skippedFiles + " skipped");
+        System.out.println("[Backfill] alerts:   " + alerts + " (" + newFindings + " new, " + updated + " updated, " + unchanged + " unchanged)");
+        System.out.println("[Backfill] elapsed:  " + String.format("%.1f s", seconds));
+        System.out.println("[Backfill] rate:     " + String.format("%.1f files/s, %.0f alerts/s, %.2f MB/s",
+                plannedFiles / seconds, alerts / seconds, totalBytes / 1048576.0 / seconds));
+    }
+}
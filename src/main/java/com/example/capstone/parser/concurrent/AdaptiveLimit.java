@@ -0,0 +1,138 @@
+package com.example.capstone.parser.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the back end's capacity (AIMD with a latency gradient):
+ * the limit grows by one after a limit's worth of fast completions and is cut to
+ * {@code limit * backoffRatio} when a request is rejected or takes longer than
+ * {@code latencyTolerance} times the baseline latency. At most one cut per baseline interval,
+ * so a burst of slow responses to requests sent at the same time counts as one signal.
+ *
+ * The baseline is a moving average that follows fast samples quickly and slow ones slowly,
+ * so a lasting change in the back end's normal latency is eventually accepted.
+ */
+public class AdaptiveLimit {
+
+    private static final double FAST_SAMPLE_WEIGHT = 0.05;
+    private static final double SLOW_SAMPLE_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final boolean adaptive;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private int fastSinceIncrease;
+    private double baselineMs = -1;
+    private long lastDecreaseNanos;
+    private long increases;
+    private long decreases;
+
+    /**
+     * @param adaptive false keeps the limit at {@code initialLimit} (a plain bulkhead)
+     */
+    public AdaptiveLimit(int minLimit, int maxLimit, int initialLimit, double backoffRatio,
+                         double latencyTolerance, boolean adaptive) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.adaptive = adaptive;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    slotFreed.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the slot back and feeds the request's outcome into the limit.
+     *
+     * @param overloaded the back end rejected (part of) the request or failed to answer
+     * @return whether the request counted as a congestion signal (overloaded or slow)
+     */
+    public boolean release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signalAll();
+            double ms = latencyNanos / 1_000_000.0;
+            boolean slow = baselineMs > 0 && ms > baselineMs * latencyTolerance;
+            if (!overloaded) {
+                double weight = slow ? SLOW_SAMPLE_WEIGHT : FAST_SAMPLE_WEIGHT;
+                baselineMs = baselineMs < 0 ? ms : baselineMs + (ms - baselineMs) * weight;
+            }
+            if (!adaptive) {
+                return overloaded || slow;
+            }
+            if (overloaded || slow) {
+                long now = System.nanoTime();
+                long interval = (long) (Math.max(1.0, baselineMs) * 1_000_000L);
+                if (now - lastDecreaseNanos >= interval) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                    fastSinceIncrease = 0;
+                    decreases++;
+                }
+                return true;
+            }
+            if (++fastSinceIncrease >= (int) limit && limit < maxLimit) {
+                limit = Math.min(maxLimit, limit + 1);
+                fastSinceIncrease = 0;
+                increases++;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        lock.lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("limit", (int) limit);
+            out.put("minLimit", minLimit);
+            out.put("maxLimit", maxLimit);
+            out.put("inFlight", inFlight);
+            out.put("waiting", waiting);
+            out.put("baselineLatencyMs", Math.round(Math.max(0, baselineMs) * 10) / 10.0);
+            out.put("increases", increases);
+            out.put("decreases", decreases);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
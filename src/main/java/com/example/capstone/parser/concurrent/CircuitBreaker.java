@@ -0,0 +1,236 @@
+package com.example.capstone.parser.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Classic three-state breaker. {@code failureThreshold} consecutive failures open it; after
+ * {@code openMillis} a timer moves it to HALF_OPEN, where a single probe request is let through:
+ * success closes it, failure opens it again. Listeners hear every state change (on the calling
+ * or timer thread), which is how the Kafka listener is paused while a back end is down.
+ *
+ * Every caller let through holds a {@link Permit} and reports its outcome with it. Only the
+ * probe's outcome moves a HALF_OPEN breaker; a request let through while the breaker was closed
+ * that completes after it opened no longer counts, so a late failure cannot re-open the breaker
+ * over the probe and a late success cannot close it.
+ */
+public class CircuitBreaker implements AutoCloseable {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService timer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+    private long closedEpoch; // bumped each time the breaker closes; permits of older epochs are late
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean probeInFlight;
+    private long opens;
+    private long rejectedCalls;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(ParserThreads.factory(name + "-breaker-", false));
+    }
+
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Lets a request go out now, or returns null. In HALF_OPEN only the first caller gets through,
+     * as the probe, and it must report back with {@link #onSuccess} or {@link #onFailure}.
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return new Permit(false, closedEpoch);
+                case HALF_OPEN:
+                    if (!probeInFlight) {
+                        probeInFlight = true;
+                        return new Permit(true, closedEpoch);
+                    }
+                    rejectedCalls++;
+                    return null;
+                default:
+                    rejectedCalls++;
+                    return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(Permit permit) {
+        State changed = null;
+        lock.lock();
+        try {
+            if (isProbe(permit)) {
+                probeInFlight = false;
+                consecutiveFailures = 0;
+                state = State.CLOSED;
+                closedEpoch++;
+                changed = state;
+            } else if (isCurrent(permit)) {
+                consecutiveFailures = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(changed);
+    }
+
+    /**
+     * For a caller that was let through but never sent its request: frees the half-open probe
+     * slot without counting a success or a failure.
+     */
+    public void abandon(Permit permit) {
+        lock.lock();
+        try {
+            if (isProbe(permit)) {
+                probeInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure(Permit permit) {
+        State changed = null;
+        lock.lock();
+        try {
+            boolean current = isCurrent(permit);
+            if (current) {
+                consecutiveFailures++;
+            }
+            if (isProbe(permit) || (current && consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAtMillis = System.currentTimeMillis();
+                probeInFlight = false;
+                opens++;
+                changed = state;
+                timer.schedule(this::halfOpen, openMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(changed);
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Milliseconds until an OPEN breaker lets a probe through; 0 when it is not open.
+     */
+    public long remainingOpenMillis() {
+        lock.lock();
+        try {
+            if (state != State.OPEN) {
+                return 0L;
+            }
+            return Math.max(0L, openedAtMillis + openMillis - System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The outstanding half-open probe; caller holds the lock. */
+    private boolean isProbe(Permit permit) {
+        return permit.probe && state == State.HALF_OPEN && probeInFlight;
+    }
+
+    /** A closed-state request of the current closed period; caller holds the lock. */
+    private boolean isCurrent(Permit permit) {
+        return !permit.probe && state == State.CLOSED && permit.epoch == closedEpoch;
+    }
+
+    private void halfOpen() {
+        State changed = null;
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                state = State.HALF_OPEN;
+                changed = state;
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(changed);
+    }
+
+    private void notifyListeners(State changed) {
+        if (changed == null) {
+            return;
+        }
+        System.out.println("[CircuitBreaker] " + name + " => " + changed);
+        for (Consumer<State> listener : listeners) {
+            try {
+                listener.accept(changed);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        lock.lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("state", state);
+            out.put("consecutiveFailures", consecutiveFailures);
+            out.put("failureThreshold", failureThreshold);
+            out.put("openMillis", openMillis);
+            out.put("opens", opens);
+            out.put("rejectedCalls", rejectedCalls);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Handed to a caller let through by {@link #tryAcquire}; identifies the half-open probe and
+     * the closed period the request was sent in.
+     */
+    public static final class Permit {
+        private final boolean probe;
+        private final long epoch;
+
+        private Permit(boolean probe, long epoch) {
+            this.probe = probe;
+            this.epoch = epoch;
+        }
+
+        public boolean isProbe() {
+            return probe;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.capstone.parser.concurrent;
+
+import com.example.capstone.parser.tracing.ParserTracing;
+import com.example.capstone.parser.tracing.SpanScope;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Bulkheads for the blocking back ends. Parse jobs on virtual threads are not bounded by a
+ * pool size, so these semaphores are what caps concurrent Elasticsearch requests and MySQL
+ * (JPA) queries; waiting for a permit parks the virtual thread and is interruptible, so a
+ * cancelled job gives up its place in the queue.
+ */
+@Component
+public class IoPermits {
+
+    @Value("${parser.io-permits.elasticsearch:32}")
+    private int elasticsearchPermits;
+
+    @Value("${parser.io-permits.jpa:8}")
+    private int jpaPermits;
+
+    private Semaphore elasticsearch;
+    private Semaphore jpa;
+
+    private final ParserTracing tracing;
+
+    public IoPermits(ParserTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @FunctionalInterface
+    public interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        elasticsearch = new Semaphore(elasticsearchPermits, true);
+        jpa = new Semaphore(jpaPermits, true);
+    }
+
+    public int getElasticsearchPermits() {
+        return elasticsearchPermits;
+    }
+
+    public <T> T elasticsearch(IoCall<T> call) throws IOException {
+        try {
+            elasticsearch.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an Elasticsearch permit");
+        }
+        try {
+            return call.call();
+        } finally {
+            elasticsearch.release();
+        }
+    }
+
+    /**
+     * Runs a repository call under a JPA permit, traced as a span named {@code jpa <operation>}
+     * (Elasticsearch calls are traced by the ES client itself).
+     */
+    public <T> T jpa(String operation, Supplier<T> call) {
+        try (SpanScope span = tracing.span("jpa " + operation).attribute("db.system", "mysql")) {
+            try {
+                jpa.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                span.fail(e);
+                throw new IllegalStateException("Interrupted waiting for a JPA permit", e);
+            }
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                span.fail(e);
+                throw e;
+            } finally {
+                jpa.release();
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("elasticsearch", Map.of(
+                "permits", elasticsearchPermits,
+                "inUse", elasticsearchPermits - elasticsearch.availablePermits(),
+                "waiting", elasticsearch.getQueueLength()));
+        out.put("jpa", Map.of(
+                "permits", jpaPermits,
+                "inUse", jpaPermits - jpa.availablePermits(),
+                "waiting", jpa.getQueueLength()));
+        return out;
+    }
+}
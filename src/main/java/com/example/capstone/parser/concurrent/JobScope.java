@@ -0,0 +1,235 @@
+package com.example.capstone.parser.concurrent;
+
+import io.opentelemetry.context.Context;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Structured concurrency for the subtasks of one parse job, in the shape of
+ * {@code StructuredTaskScope.ShutdownOnFailure} (a preview API in Java 21, so not used directly).
+ * Subtasks are forked onto the given executor; {@link #join()} waits until all of them finished
+ * or one failed, and the first failure cancels (interrupts) the others. {@link #close()} cancels
+ * whatever is still running and waits for it, so no subtask outlives the job.
+ * Subtasks run in the forking thread's trace context, so their spans nest under the job's.
+ *
+ * <pre>
+ * try (JobScope scope = new JobScope(executor)) {
+ *     Subtask&lt;A&gt; a = scope.fork(...);
+ *     Subtask&lt;B&gt; b = scope.fork(...);
+ *     scope.join().throwIfFailed();
+ *     use(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public final class JobScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int pending;
+    private Throwable failure;
+
+    public JobScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        Subtask<T> subtask = new Subtask<>();
+        lock.lock();
+        try {
+            if (failure != null) {
+                subtask.state = Subtask.State.CANCELLED;
+                return subtask;
+            }
+            pending++;
+            subtasks.add(subtask);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            Callable<T> traced = Context.current().wrap(task);
+            subtask.future = executor.submit(() -> run(subtask, traced));
+        } catch (RejectedExecutionException e) {
+            if (subtask.started.compareAndSet(false, true)) {
+                subtask.exception = e;
+                subtask.state = Subtask.State.FAILED;
+                failed(e);
+                finished();
+            }
+        }
+        return subtask;
+    }
+
+    private <T> void run(Subtask<T> subtask, Callable<T> task) {
+        if (!subtask.started.compareAndSet(false, true)) {
+            return; // cancelled before it started; the canceller already counted it
+        }
+        try {
+            subtask.result = task.call();
+            subtask.state = Subtask.State.SUCCESS;
+        } catch (Throwable t) {
+            subtask.exception = t;
+            if (isShutdown() && (t instanceof InterruptedException || t instanceof InterruptedIOException
+                    || Thread.currentThread().isInterrupted())) {
+                subtask.state = Subtask.State.CANCELLED; // stopped by another subtask's failure
+            } else {
+                subtask.state = Subtask.State.FAILED;
+                failed(t);
+            }
+        } finally {
+            finished();
+        }
+    }
+
+    private boolean isShutdown() {
+        lock.lock();
+        try {
+            return failure != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every subtask finished, or until the first failure has cancelled the rest
+     * and they have stopped.
+     */
+    public JobScope join() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending > 0 && failure == null) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (failure != null) {
+            cancelAll();
+            awaitAll();
+        }
+        return this;
+    }
+
+    public void throwIfFailed() throws ExecutionException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                awaitAll();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void failed(Throwable t) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = t;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        cancelAll();
+    }
+
+    private void finished() {
+        lock.lock();
+        try {
+            pending--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancelAll() {
+        List<Subtask<?>> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(subtasks);
+        } finally {
+            lock.unlock();
+        }
+        for (Subtask<?> subtask : snapshot) {
+            if (subtask.started.compareAndSet(false, true)) {
+                subtask.state = Subtask.State.CANCELLED;
+                finished();
+            } else if (subtask.state == Subtask.State.RUNNING && subtask.future != null) {
+                subtask.future.cancel(true);
+            }
+        }
+    }
+
+    private void awaitAll() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending > 0) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Handle to one forked task.
+     */
+    public static final class Subtask<T> {
+
+        public enum State { RUNNING, SUCCESS, FAILED, CANCELLED }
+
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile Future<?> future;
+        private volatile State state = State.RUNNING;
+        private volatile T result;
+        private volatile Throwable exception;
+
+        public State state() {
+            return state;
+        }
+
+        /**
+         * The task's result; only valid once it completed successfully.
+         */
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask " + state);
+            }
+            return result;
+        }
+
+        public Throwable exception() {
+            return exception;
+        }
+    }
+}
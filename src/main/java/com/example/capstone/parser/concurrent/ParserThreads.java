@@ -0,0 +1,49 @@
+package com.example.capstone.parser.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories and executors for the parser's pools, either daemon platform threads or,
+ * with {@code parser.virtual-threads.enabled}, virtual threads.
+ */
+public final class ParserThreads {
+
+    private ParserThreads() {
+    }
+
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * A pool of {@code platformThreads} platform threads, or one new virtual thread per task
+     * (unbounded; callers bound the I/O behind it with {@link IoPermits}).
+     */
+    public static ExecutorService executor(String prefix, boolean virtual, int platformThreads) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(factory(prefix, true));
+        }
+        return Executors.newFixedThreadPool(platformThreads, factory(prefix, false));
+    }
+
+    /**
+     * One thread per concurrently running task: virtual threads, or cached daemon platform threads.
+     */
+    public static ExecutorService unboundedExecutor(String prefix, boolean virtual) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(factory(prefix, true));
+        }
+        return Executors.newCachedThreadPool(factory(prefix, false));
+    }
+}
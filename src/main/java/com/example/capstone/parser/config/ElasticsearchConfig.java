@@ -2,7 +2,9 @@ package com.example.capstone.parser.config;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.instrumentation.OpenTelemetryForElasticsearch;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.example.capstone.parser.tracing.ParserTracing;
 import org.apache.http.HttpHost;
 import org.elasticsearch.client.RestClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,9 +20,19 @@ public class ElasticsearchConfig {
     @Value("${elasticsearch.port}")
     private int esPort;
 
+    // one connection per Elasticsearch permit, so permit holders never queue for a connection
+    @Value("${parser.io-permits.elasticsearch:32}")
+    private int maxConnections;
+
+    // every ES request becomes a span (child of the job's current span) via the client's OpenTelemetry instrumentation
     @Bean
-    public ElasticsearchClient elasticsearchClient() {
-        RestClient restClient = RestClient.builder(new HttpHost(esHost, esPort, "http")).build();
-        return new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+    public ElasticsearchClient elasticsearchClient(ParserTracing tracing) {
+        RestClient restClient = RestClient.builder(new HttpHost(esHost, esPort, "http"))
+                .setHttpClientConfigCallback(http -> http
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections))
+                .build();
+        return new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper(), null,
+                new OpenTelemetryForElasticsearch(tracing.openTelemetry(), false)));
     }
 }
@@ -0,0 +1,50 @@
+package com.example.capstone.parser.config;
+
+import com.example.capstone.parser.dto.NewScanRunbookEvent;
+import com.example.capstone.parser.dto.ParseAcknowledgement;
+import com.example.capstone.parser.dto.ParserMessageEvent;
+import com.example.capstone.parser.dto.UpdateFindingEvent;
+import com.example.capstone.parser.model.AcknowledgementEvent;
+import com.example.capstone.parser.model.FileParseResult;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.FindingsSummary;
+import com.example.capstone.parser.model.NewScanRunbookPayload;
+import com.example.capstone.parser.model.ParseCheckpoint;
+import com.example.capstone.parser.model.ParserMessage;
+import com.example.capstone.parser.model.QuarantinedRecord;
+import com.example.capstone.parser.model.RuleMetadata;
+import com.example.capstone.parser.model.UpdateFindingPayload;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the types Jackson (and the ES client's JacksonJsonpMapper) binds at
+ * runtime, so AOT-processed builds ({@code -Pfast-startup}) know about them up front instead of
+ * discovering them reflectively. Nested types (payloads, enums, lists) are followed automatically.
+ * Add new Kafka/ES document types here.
+ */
+public class ParserRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                // Kafka in/out
+                ParserMessageEvent.class,
+                ParserMessage.class,
+                NewScanRunbookEvent.class,
+                NewScanRunbookPayload.class,
+                UpdateFindingEvent.class,
+                UpdateFindingPayload.class,
+                ParseAcknowledgement.class,
+                AcknowledgementEvent.class,
+                FileParseResult.class,
+                QuarantinedRecord.class,
+                // Elasticsearch documents
+                Findings.class,
+                FindingsSummary.class,
+                RuleMetadata.class,
+                // local state
+                ParseCheckpoint.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.capstone.parser.consumer;
+
+import com.example.capstone.parser.concurrent.CircuitBreaker;
+import com.example.capstone.parser.scheduler.ParseJobScheduler;
+import com.example.capstone.parser.service.ElasticsearchWriteLimiter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pauses the parser listener container while the worker pool is saturated and resumes it
+ * once enough jobs have drained. A paused container keeps polling (and so keeps its group
+ * membership) but receives no records, so long parses never push a consumer past
+ * {@code max.poll.interval.ms}.
+ *
+ * The container also stays paused while the Elasticsearch circuit breaker is open: new jobs
+ * would only queue up behind writes that cannot succeed. It resumes when the breaker lets a
+ * probe through (HALF_OPEN), so a job can find out whether ES is back.
+ */
+@Component
+public class ConsumerFlowControl {
+
+    public static final String LISTENER_ID = "parser-listener";
+
+    // pause once this many jobs are queued or running; resume at or below the lower mark
+    @Value("${parser.consumer.pause-at-in-flight:16}")
+    private int pauseAtInFlight;
+
+    @Value("${parser.consumer.resume-at-in-flight:8}")
+    private int resumeAtInFlight;
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ParseJobScheduler jobScheduler;
+    private final ElasticsearchWriteLimiter esWriteLimiter;
+
+    private volatile boolean backendDown;
+
+    public ConsumerFlowControl(KafkaListenerEndpointRegistry registry, ParseJobScheduler jobScheduler,
+                               ElasticsearchWriteLimiter esWriteLimiter) {
+        this.registry = registry;
+        this.jobScheduler = jobScheduler;
+        this.esWriteLimiter = esWriteLimiter;
+    }
+
+    @PostConstruct
+    public void init() {
+        esWriteLimiter.addBreakerListener(this::elasticsearchBreakerChanged);
+    }
+
+    /**
+     * Called on the listener thread after a job was handed to the scheduler.
+     */
+    public void jobSubmitted() {
+        if (jobScheduler.getInFlightJobs() >= pauseAtInFlight) {
+            MessageListenerContainer container = container();
+            if (container != null && !container.isPauseRequested()) {
+                container.pause();
+                System.out.println("[ConsumerFlowControl] Paused " + LISTENER_ID + " at "
+                        + jobScheduler.getInFlightJobs() + " in-flight jobs");
+                // the workers may have drained everything before the pause took effect
+                jobCompleted();
+            }
+        }
+    }
+
+    /**
+     * Called on a worker thread after a job's ack was sent and its offset acknowledged.
+     */
+    public void jobCompleted() {
+        if (!backendDown && jobScheduler.getInFlightJobs() <= resumeAtInFlight) {
+            MessageListenerContainer container = container();
+            if (container != null && container.isPauseRequested()) {
+                container.resume();
+                System.out.println("[ConsumerFlowControl] Resumed " + LISTENER_ID + " at "
+                        + jobScheduler.getInFlightJobs() + " in-flight jobs");
+            }
+        }
+    }
+
+    private void elasticsearchBreakerChanged(CircuitBreaker.State state) {
+        MessageListenerContainer container = container();
+        if (state == CircuitBreaker.State.OPEN) {
+            backendDown = true;
+            if (container != null && !container.isPauseRequested()) {
+                container.pause();
+                System.out.println("[ConsumerFlowControl] Paused " + LISTENER_ID + " while Elasticsearch is unavailable");
+            }
+        } else {
+            backendDown = false;
+            jobCompleted();
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return registry.getListenerContainer(LISTENER_ID);
+    }
+}
@@ -2,45 +2,190 @@ package com.example.capstone.parser.consumer;
 
 import com.example.capstone.parser.dto.ParserMessageEvent;
 import com.example.capstone.parser.model.ParserMessage;
+import com.example.capstone.parser.producer.AcknowledgementProducer;
+import com.example.capstone.parser.scheduler.ParseJob;
+import com.example.capstone.parser.scheduler.ParseJobScheduler;
+import com.example.capstone.parser.service.CompletedJobCache;
 import com.example.capstone.parser.service.ParserService;
+import com.example.capstone.parser.tracing.ParserTracing;
+import com.example.capstone.parser.tracing.SpanScope;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class ParserConsumer {
 
+    // inline mode: wait this long before a job whose ack could not be sent is redelivered
+    @Value("${parser.ack-retry-backoff-ms:5000}")
+    private long ackRetryBackoffMs;
+
     private final ParserService parserService;
     private final ObjectMapper objectMapper;
+    private final ParseJobScheduler jobScheduler;
+    private final CompletedJobCache completedJobCache;
+    private final AcknowledgementProducer acknowledgementProducer;
+    private final ConsumerFlowControl flowControl;
+    private final ParserTracing tracing;
 
-    public ParserConsumer(ParserService parserService, ObjectMapper objectMapper) {
+    public ParserConsumer(ParserService parserService, ObjectMapper objectMapper, ParseJobScheduler jobScheduler,
+                          CompletedJobCache completedJobCache, AcknowledgementProducer acknowledgementProducer,
+                          ConsumerFlowControl flowControl, ParserTracing tracing) {
         this.parserService = parserService;
         this.objectMapper = objectMapper;
+        this.jobScheduler = jobScheduler;
+        this.completedJobCache = completedJobCache;
+        this.acknowledgementProducer = acknowledgementProducer;
+        this.flowControl = flowControl;
+        this.tracing = tracing;
     }
 
-    @KafkaListener(topics = "${kafka.topics.jfc-parser-topic}")
-    public void onMessage(String message) {
-        try {
-            ParserMessageEvent event = objectMapper.readValue(message, ParserMessageEvent.class);
+    /**
+     * Offsets are committed manually. Inline jobs acknowledge once parsing (and its ack) is done;
+     * scheduled jobs acknowledge from the worker thread when they finish, and the container
+     * commits those out-of-order acks as contiguous offsets (see KafkaConsumerConfig).
+     * The record's trace context (W3C headers) is continued by the consume span and, through
+     * it, by the job.
+     *
+     * A job whose ack the broker did not confirm is not committed (see {@link #redeliver}).
+     */
+    @KafkaListener(id = ConsumerFlowControl.LISTENER_ID, idIsGroup = false, topics = "${kafka.topics.jfc-parser-topic}",
+            autoStartup = "${parser.kafka.auto-startup:true}")
+    public void onMessage(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        boolean handedOff = false;
+        try (SpanScope span = tracing.consume(record)) {
+            try {
+                ParserMessageEvent event = objectMapper.readValue(record.value(), ParserMessageEvent.class);
 
-            String eventId = event.getEventId();
+                String eventId = event.getEventId();
+                span.attribute("parser.event_id", eventId);
 
-            // 2) Extract the ParserMessage payload
-            ParserMessage pm = event.getPayload();
+                // 1) Redelivery of a job we already finished => replay its ack, skip the work
+                String storedAck = completedJobCache.getAcknowledgement(eventId);
+                if (storedAck != null) {
+                    System.out.println("ParserConsumer => eventId=" + eventId + " already completed, re-sending ack");
+                    if (!acknowledgementProducer.resendAcknowledgement(storedAck)) {
+                        handedOff = redeliver(acknowledgment, eventId);
+                    }
+                    return;
+                }
 
-            Long tenantId  = pm.getTenantId();
-            String filePath = pm.getFilePath();
-            String toolType = pm.getToolType();
+                // 2) Extract the ParserMessage payload
+                ParserMessage pm = event.getPayload();
 
-            System.out.println("ParserConsumer received => eventType=" + event.getType() +
-                    ", tenantId=" + tenantId + ", filePath=" + filePath + ", toolType= " + toolType);
+                Long tenantId  = pm.getTenantId();
+                String filePath = pm.getFilePath();
+                String toolType = pm.getToolType();
 
-            // 3) Pass both tenantId & filePath to the parserService
-            parserService.parseFileAndIndex(tenantId, filePath, toolType, eventId);
+                // A manifest and/or directory turns the message into one multi-file job; a filePath
+                // sent alongside them is part of that job too
+                List<String> filePaths = null;
+                if (pm.isMultiFile()) {
+                    filePaths = new ArrayList<>();
+                    if (filePath != null && !filePath.isBlank()) {
+                        filePaths.add(filePath);
+                    }
+                    if (pm.getFilePaths() != null) {
+                        for (String f : pm.getFilePaths()) {
+                            if (!filePaths.contains(f)) {
+                                filePaths.add(f);
+                            }
+                        }
+                    }
+                    if (pm.getDirectory() != null && !pm.getDirectory().isBlank()) {
+                        filePaths.add(pm.getDirectory());
+                    }
+                }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+                System.out.println("ParserConsumer received => eventType=" + event.getType() +
+                        ", tenantId=" + tenantId + ", filePath=" + (filePaths != null ? filePaths : filePath)
+                        + ", toolType= " + toolType);
+
+                // 3) Hand the job to the tenant-fair scheduler, or parse inline when it is disabled
+                if (jobScheduler.isEnabled()) {
+                    long sizeBytes = jobSizeBytes(eventId, filePath, filePaths);
+                    ParseJob job = (filePaths != null)
+                            ? new ParseJob(eventId, tenantId, filePaths, toolType, sizeBytes)
+                            : new ParseJob(eventId, tenantId, filePath, toolType, sizeBytes);
+                    job.setOnComplete(acknowledged -> {
+                        if (acknowledged) {
+                            acknowledgment.acknowledge();
+                        } else {
+                            redeliver(acknowledgment, eventId);
+                        }
+                        flowControl.jobCompleted();
+                    });
+                    jobScheduler.submit(job);
+                    handedOff = true;
+                    flowControl.jobSubmitted();
+                } else {
+                    boolean acknowledged = (filePaths != null)
+                            ? parserService.parseFilesAndIndex(tenantId, filePaths, toolType, eventId)
+                            : parserService.parseFileAndIndex(tenantId, filePath, toolType, eventId);
+                    if (!acknowledged) {
+                        handedOff = redeliver(acknowledgment, eventId);
+                    }
+                }
+
+            } catch (Exception e) {
+                e.printStackTrace();
+                span.fail(e);
+            } finally {
+                if (!handedOff) {
+                    acknowledgment.acknowledge();
+                }
+            }
         }
     }
 
+    /**
+     * Bytes of the job's files, its cost for the scheduler. A missing path or a directory that
+     * cannot be listed counts as empty rather than failing here, where the record would be
+     * committed without an ack: the job then fails on its worker, which sends the FAILURE ack.
+     */
+    private long jobSizeBytes(String eventId, String filePath, List<String> filePaths) {
+        try {
+            if (filePaths == null) {
+                return filePath == null ? 0L : new File(filePath).length();
+            }
+            long sizeBytes = 0;
+            for (String f : parserService.expandFiles(filePaths)) {
+                sizeBytes += new File(f).length();
+            }
+            return sizeBytes;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("ParserConsumer => cannot size the files of eventId=" + eventId + ": " + e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Leaves the record uncommitted because its ack was not sent; the job is then not in the
+     * completed cache, so the redelivery parses (or resumes) it and sends the ack again.
+     * Inline, the record is nacked and redelivered after {@code parser.ack-retry-backoff-ms}. With
+     * the scheduler, out-of-order commits rule out nack: the gap holds back later commits and the
+     * record is redelivered after the next rebalance or restart.
+     *
+     * @return true, the record must not be acknowledged by the caller
+     */
+    private boolean redeliver(Acknowledgment acknowledgment, String eventId) {
+        if (jobScheduler.isEnabled()) {
+            System.out.println("ParserConsumer => ack for eventId=" + eventId
+                    + " not sent, offset left uncommitted until the next rebalance or restart");
+        } else {
+            System.out.println("ParserConsumer => ack for eventId=" + eventId + " not sent, redelivering in "
+                    + ackRetryBackoffMs + " ms");
+            acknowledgment.nack(Duration.ofMillis(ackRetryBackoffMs));
+        }
+        return true;
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.capstone.parser.controller;
+
+import com.example.capstone.parser.model.FindingsSummary;
+import com.example.capstone.parser.service.FindingsSummaryService;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves the parser-maintained finding counts, so dashboards don't need to aggregate the tenant indices.
+ */
+@RestController
+@RequestMapping("/tenants/{tenantId}/findings-summary")
+public class FindingsSummaryController {
+
+    private final FindingsSummaryService summaryService;
+
+    public FindingsSummaryController(FindingsSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    /**
+     * Per-repo summaries of the tenant plus totals by severity, state, toolType and full key.
+     */
+    @GetMapping
+    public Map<String, Object> getSummary(@PathVariable Long tenantId,
+                                          @RequestParam(required = false) String owner,
+                                          @RequestParam(required = false) String repo) throws IOException {
+        List<FindingsSummary> repos = summaryService.findSummaries(tenantId, owner, repo);
+        if (repos.isEmpty() && summaryService.isEnabled() && isBlank(owner) && isBlank(repo)) {
+            // no summary yet (e.g. findings indexed before summaries were enabled): count them once
+            repos = summaryService.rebuild(tenantId);
+        }
+
+        Map<String, Long> byKey = new TreeMap<>();
+        Map<String, Long> byToolType = new TreeMap<>();
+        Map<String, Long> bySeverity = new TreeMap<>();
+        Map<String, Long> byState = new TreeMap<>();
+        for (FindingsSummary s : repos) {
+            s.getCounts().forEach((key, count) -> {
+                byKey.merge(key, count, Long::sum);
+                String[] parts = key.split("\\|", -1);
+                if (parts.length == 3) {
+                    byToolType.merge(parts[0], count, Long::sum);
+                    bySeverity.merge(parts[1], count, Long::sum);
+                    byState.merge(parts[2], count, Long::sum);
+                }
+            });
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("byToolType", byToolType);
+        totals.put("bySeverity", bySeverity);
+        totals.put("byState", byState);
+        totals.put("byKey", byKey);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tenantId", tenantId);
+        body.put("repos", repos);
+        body.put("totals", totals);
+        return body;
+    }
+
+    /**
+     * Recomputes the tenant's summaries from its findings, e.g. after deltas were lost.
+     */
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild(@PathVariable Long tenantId) throws IOException {
+        List<FindingsSummary> repos = summaryService.rebuild(tenantId);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tenantId", tenantId);
+        body.put("repos", repos.size());
+        body.put("findings", repos.stream().mapToLong(s -> s.getCounts().values().stream().mapToLong(Long::longValue).sum()).sum());
+        return body;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.capstone.parser.controller;
+
+import com.example.capstone.parser.jfr.ParserFlightRecorder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Java Flight Recorder status and on-demand dumps, for correlating GC and allocation with parser stages on a live pod.
+ */
+@RestController
+@RequestMapping("/parser/jfr")
+public class FlightRecorderController {
+
+    private final ParserFlightRecorder flightRecorder;
+
+    public FlightRecorderController(ParserFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        return flightRecorder.status();
+    }
+
+    /**
+     * Dumps the recording to a file on the pod and returns its path and size.
+     */
+    @PostMapping("/dump")
+    public Map<String, Object> dump() throws IOException {
+        try {
+            return flightRecorder.dump();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.capstone.parser.controller;
+
+import com.example.capstone.parser.concurrent.IoPermits;
+import com.example.capstone.parser.pipeline.IngestPipeline;
+import com.example.capstone.parser.scheduler.ParseJobScheduler;
+import com.example.capstone.parser.scheduler.TenantSchedulingStats;
+import com.example.capstone.parser.service.DedupLocks;
+import com.example.capstone.parser.service.ElasticsearchWriteLimiter;
+import com.example.capstone.parser.service.MemoryBudget;
+import com.example.capstone.parser.service.RuleMetadataStore;
+import com.example.capstone.parser.service.StringPoolMetrics;
+import com.example.capstone.parser.tracing.ParserTracing;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of the parser's internal metrics, served on the existing web port.
+ */
+@RestController
+@RequestMapping("/parser/metrics")
+public class ParserMetricsController {
+
+    private final ParseJobScheduler jobScheduler;
+    private final StringPoolMetrics stringPoolMetrics;
+    private final IoPermits ioPermits;
+    private final IngestPipeline ingestPipeline;
+    private final DedupLocks dedupLocks;
+    private final ElasticsearchWriteLimiter esWriteLimiter;
+    private final MemoryBudget memoryBudget;
+    private final ParserTracing tracing;
+    private final RuleMetadataStore ruleStore;
+
+    public ParserMetricsController(ParseJobScheduler jobScheduler, StringPoolMetrics stringPoolMetrics,
+                                   IoPermits ioPermits, IngestPipeline ingestPipeline, DedupLocks dedupLocks,
+                                   ElasticsearchWriteLimiter esWriteLimiter, MemoryBudget memoryBudget,
+                                   ParserTracing tracing, RuleMetadataStore ruleStore) {
+        this.jobScheduler = jobScheduler;
+        this.stringPoolMetrics = stringPoolMetrics;
+        this.ioPermits = ioPermits;
+        this.ingestPipeline = ingestPipeline;
+        this.dedupLocks = dedupLocks;
+        this.esWriteLimiter = esWriteLimiter;
+        this.memoryBudget = memoryBudget;
+        this.tracing = tracing;
+        this.ruleStore = ruleStore;
+    }
+
+    /**
+     * Queue depth plus per-tenant queue-wait and service-time percentiles (milliseconds).
+     */
+    @GetMapping("/scheduler")
+    public Map<String, Object> scheduler() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", jobScheduler.isEnabled());
+        body.put("queuedJobs", jobScheduler.getQueuedJobs());
+        Map<Long, TenantSchedulingStats.Snapshot> tenants = jobScheduler.snapshotStats();
+        body.put("tenants", tenants);
+        return body;
+    }
+
+    /**
+     * Aggregate hit rate of the per-job string canonicalization pools.
+     */
+    @GetMapping("/string-pool")
+    public Map<String, Object> stringPool() {
+        return stringPoolMetrics.snapshot();
+    }
+
+    /**
+     * Elasticsearch / JPA permits in use and callers waiting for one.
+     */
+    @GetMapping("/io-permits")
+    public Map<String, Object> ioPermits() {
+        return ioPermits.snapshot();
+    }
+
+    /**
+     * Ring-buffer occupancy of the staged ingest pipeline: running pipelines and totals per ring.
+     */
+    @GetMapping("/pipeline")
+    public Map<String, Object> pipeline() {
+        return ingestPipeline.snapshot();
+    }
+
+    /**
+     * Per-(tenant, toolType) dedup lock stripes: how often jobs had to wait for one and for how long.
+     */
+    @GetMapping("/dedup-locks")
+    public Map<String, Object> dedupLocks() {
+        return dedupLocks.snapshot();
+    }
+
+    /**
+     * Adaptive limit on concurrent bulk writes, current bulk size, retries and breaker state.
+     */
+    @GetMapping("/es-writes")
+    public Map<String, Object> esWrites() {
+        return esWriteLimiter.snapshot();
+    }
+
+    /**
+     * Heap budget for parse jobs: bytes admitted, utilization, jobs waiting and admission wait times.
+     */
+    @GetMapping("/memory-budget")
+    public Map<String, Object> memoryBudget() {
+        return memoryBudget.snapshot();
+    }
+
+    /**
+     * Rule versions written to the rules indices and rule descriptions no longer copied into findings.
+     */
+    @GetMapping("/rules")
+    public Map<String, Object> rules() {
+        return ruleStore.snapshot();
+    }
+
+    /**
+     * Most recent finished spans, newest first; {@code traceId} narrows them to one job's trace.
+     */
+    @GetMapping("/traces")
+    public List<Map<String, Object>> traces(@RequestParam(required = false) String traceId,
+                                            @RequestParam(defaultValue = "200") int limit) {
+        return tracing.recentSpans(traceId, limit);
+    }
+}
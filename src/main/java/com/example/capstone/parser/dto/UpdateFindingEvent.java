@@ -0,0 +1,56 @@
+package com.example.capstone.parser.dto;
+
+import com.example.capstone.parser.model.Event;
+import com.example.capstone.parser.model.EventTypes;
+import com.example.capstone.parser.model.UpdateFindingPayload;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.UUID;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpdateFindingEvent implements Event<UpdateFindingPayload> {
+
+    private String eventId;
+    private UpdateFindingPayload payload;
+    private String destinationTopic;  // where we want JFC to forward it
+
+    public UpdateFindingEvent() {
+    }
+
+    public UpdateFindingEvent(UpdateFindingPayload payload, String destinationTopic) {
+        this.eventId = UUID.randomUUID().toString();
+        this.payload = payload;
+        this.destinationTopic = destinationTopic;
+    }
+
+    @Override
+    public EventTypes getType() {
+        return EventTypes.UPDATE_FINDING;
+    }
+
+    @Override
+    public UpdateFindingPayload getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getDestinationTopic() {
+        return destinationTopic;
+    }
+
+    public void setDestinationTopic(String destinationTopic) {
+        this.destinationTopic = destinationTopic;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public void setPayload(UpdateFindingPayload payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.capstone.parser.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One write batch of a file. The event spans the bulk write and checkpoint; the time the
+ * batch's alerts spent in conversion and deduplication (spread over the preceding reads,
+ * and over several threads when the ingest pipeline is on) is carried in its fields.
+ */
+@Name("com.example.capstone.parser.Batch")
+@Label("Parse Batch")
+@Category({"Parser", "Jobs"})
+@StackTrace(false)
+public class BatchEvent extends Event {
+
+    @Label("Tenant Id")
+    public long tenantId;
+
+    @Label("Tool Type")
+    public String toolType;
+
+    @Label("Alerts")
+    public int alerts;
+
+    @Label("Documents Written")
+    public int docs;
+
+    @Label("New Findings")
+    public int newFindings;
+
+    @Label("Updated Findings")
+    public int updatedFindings;
+
+    @Label("Quarantined Alerts")
+    public int quarantined;
+
+    @Label("Conversion Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long convertTime;
+
+    @Label("Dedup Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dedupTime;
+}
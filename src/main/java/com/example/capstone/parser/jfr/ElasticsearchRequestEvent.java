@@ -0,0 +1,33 @@
+package com.example.capstone.parser.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One Elasticsearch request made for a parse job; every bulk attempt is its own event.
+ */
+@Name("com.example.capstone.parser.ElasticsearchRequest")
+@Label("Elasticsearch Request")
+@Category({"Parser", "Elasticsearch"})
+@StackTrace(false)
+public class ElasticsearchRequestEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Index")
+    public String index;
+
+    @Label("Documents")
+    public int docs;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Rejected Items")
+    @Description("Bulk items rejected as overloaded and retried")
+    public int rejectedItems;
+
+    @Label("Outcome")
+    @Description("ok, retry or the failure's exception type")
+    public String outcome;
+}
@@ -0,0 +1,47 @@
+package com.example.capstone.parser.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One parse job from start to acknowledgement, with what it found.
+ */
+@Name("com.example.capstone.parser.Job")
+@Label("Parse Job")
+@Category({"Parser", "Jobs"})
+@StackTrace(false)
+public class JobEvent extends Event {
+
+    @Label("Event Id")
+    public String eventId;
+
+    @Label("Tenant Id")
+    public long tenantId;
+
+    @Label("Tool Type")
+    public String toolType;
+
+    @Label("Files")
+    public int files;
+
+    @Label("File Size")
+    @DataAmount
+    public long fileBytes;
+
+    @Label("Alerts")
+    public int alerts;
+
+    @Label("New Findings")
+    public int newFindings;
+
+    @Label("Updated Findings")
+    public int updatedFindings;
+
+    @Label("Unchanged Findings")
+    public int unchangedFindings;
+
+    @Label("Quarantined Alerts")
+    public int quarantined;
+
+    @Label("Success")
+    public boolean success;
+}
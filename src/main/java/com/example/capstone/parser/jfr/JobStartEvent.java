@@ -0,0 +1,30 @@
+package com.example.capstone.parser.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A parse job left the queue and started running. Lets a recording show jobs that were still
+ * running when it was dumped, which {@link JobEvent} only covers once they end.
+ */
+@Name("com.example.capstone.parser.JobStart")
+@Label("Parse Job Start")
+@Category({"Parser", "Jobs"})
+@StackTrace(false)
+public class JobStartEvent extends Event {
+
+    @Label("Event Id")
+    public String eventId;
+
+    @Label("Tenant Id")
+    public long tenantId;
+
+    @Label("Tool Type")
+    public String toolType;
+
+    @Label("Files")
+    public int files;
+
+    @Label("File Size")
+    @DataAmount
+    public long fileBytes;
+}
@@ -0,0 +1,149 @@
+package com.example.capstone.parser.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Continuous Java Flight Recorder recording of the parser's own events (jobs, batches, ES requests,
+ * tenant-cache misses) alongside GC, allocation and thread events, using the shipped
+ * {@code jfr/parser.jfc} settings. Only the last {@code max-age-minutes} / {@code max-size-mb}
+ * are kept; {@link #dump()} writes them to a file on demand.
+ *
+ * With {@code parser.jfr.enabled} off, the events still reach any recording started with
+ * {@code -XX:StartFlightRecording}, and a dump snapshots that recording instead.
+ */
+@Component
+public class ParserFlightRecorder {
+
+    private static final DateTimeFormatter DUMP_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${parser.jfr.enabled:false}")
+    private boolean enabled;
+
+    // classpath resource, or a file path
+    @Value("${parser.jfr.settings:jfr/parser.jfc}")
+    private String settings;
+
+    @Value("${parser.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${parser.jfr.max-size-mb:256}")
+    private long maxSizeMb;
+
+    @Value("${parser.jfr.dump-dir:${java.io.tmpdir}/parser-jfr}")
+    private String dumpDir;
+
+    private final ReentrantLock dumpLock = new ReentrantLock();
+    private Recording recording;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recording = new Recording(loadSettings());
+            recording.setName("parser");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            recording.start();
+            System.out.println("[ParserFlightRecorder] Recording with " + settings + ", keeping "
+                    + maxAgeMinutes + " min / " + maxSizeMb + " MB");
+        } catch (IOException | ParseException e) {
+            // profiling is optional: a bad settings file must not keep the parser from starting
+            e.printStackTrace();
+            recording = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Writes what the recording currently holds to a new {@code .jfr} file under {@code dump-dir}.
+     *
+     * @throws IllegalStateException if no flight recording is running in this JVM
+     */
+    public Map<String, Object> dump() throws IOException {
+        dumpLock.lock();
+        try {
+            Path dir = Paths.get(dumpDir);
+            Files.createDirectories(dir);
+            Path file = dir.resolve("parser-" + LocalDateTime.now().format(DUMP_NAME) + ".jfr");
+            if (recording != null) {
+                recording.dump(file);
+            } else {
+                try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                    if (snapshot.getSize() == 0) {
+                        throw new IllegalStateException("No flight recording is running; enable parser.jfr.enabled"
+                                + " or start the JVM with -XX:StartFlightRecording");
+                    }
+                    snapshot.dump(file);
+                }
+            }
+            System.out.println("[ParserFlightRecorder] Dumped recording to " + file);
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("file", file.toAbsolutePath().toString());
+            out.put("bytes", Files.size(file));
+            out.put("source", recording != null ? "parser" : "snapshot");
+            return out;
+        } finally {
+            dumpLock.unlock();
+        }
+    }
+
+    /**
+     * Whether the parser's recording is running, its limits and every recording in the JVM.
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("settings", settings);
+        out.put("maxAgeMinutes", maxAgeMinutes);
+        out.put("maxSizeMb", maxSizeMb);
+        out.put("dumpDir", dumpDir);
+        Map<String, Object> recordings = new LinkedHashMap<>();
+        if (FlightRecorder.isAvailable()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                recordings.put(r.getId() + ":" + r.getName(), r.getState().name());
+            }
+        }
+        out.put("recordings", recordings);
+        return out;
+    }
+
+    private Configuration loadSettings() throws IOException, ParseException {
+        InputStream in = getClass().getClassLoader().getResourceAsStream(settings);
+        if (in == null) {
+            return Configuration.create(Paths.get(settings));
+        }
+        try (InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.capstone.parser.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A tenant index lookup that missed the cache and went to MySQL.
+ */
+@Name("com.example.capstone.parser.TenantCacheMiss")
+@Label("Tenant Cache Miss")
+@Category({"Parser", "Elasticsearch"})
+@StackTrace(false)
+public class TenantCacheMissEvent extends Event {
+
+    @Label("Tenant Id")
+    public long tenantId;
+
+    @Label("Expired")
+    @Description("An entry existed but had outlived parser.tenant-cache.ttl-seconds")
+    public boolean expired;
+
+    @Label("Index")
+    public String index;
+}
@@ -0,0 +1,78 @@
+package com.example.capstone.parser.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of millisecond latencies.
+ * Each power of two is split into 8 sub-buckets, so reported percentiles
+ * are within ~12% of the true value, which is plenty for spotting tail growth.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAGNITUDES = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long total = count.sum();
+        if (total == 0) {
+            return new Snapshot(0, 0, 0, 0, 0);
+        }
+        return new Snapshot(total,
+                (double) sum.sum() / total,
+                percentile(total, 0.50),
+                percentile(total, 0.99),
+                max.get());
+    }
+
+    private long percentile(long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int sub = (int) (value >>> (magnitude - 1)) & (SUB_BUCKETS - 1);
+        return Math.min(magnitude * SUB_BUCKETS + sub, MAGNITUDES * SUB_BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (magnitude - 1)) - 1;
+    }
+
+    /**
+     * Point-in-time view of the histogram, serialized as-is by the metrics endpoints.
+     */
+    public record Snapshot(long count, double meanMs, long p50Ms, long p99Ms, long maxMs) {
+    }
+}
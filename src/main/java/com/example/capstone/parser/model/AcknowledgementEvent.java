@@ -1,10 +1,32 @@
 package com.example.capstone.parser.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 public class AcknowledgementEvent {
 
     private AcknowledgementStatus status = AcknowledgementStatus.SUCCESS;
     private String jobId;
 
+    // only set for multi-file jobs; single-file acks keep their original shape
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<FileParseResult> fileResults;
+
+    // alerts ingested and alerts quarantined over all files of the job
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer succeededRecords;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer quarantinedRecords;
+
+    // set when the job was skipped because a newer export of the same repo and tool was queued behind it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean superseded;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String supersededBy;
+
     public AcknowledgementEvent() {}
     public AcknowledgementEvent(String jobId) {
         this.jobId = jobId;
@@ -21,4 +43,42 @@ public class AcknowledgementEvent {
     public void setJobId(String jobId) {
         this.jobId = jobId;
     }
+    public Integer getSucceededRecords() {
+        return succeededRecords;
+    }
+
+    public void setSucceededRecords(Integer succeededRecords) {
+        this.succeededRecords = succeededRecords;
+    }
+
+    public Integer getQuarantinedRecords() {
+        return quarantinedRecords;
+    }
+
+    public void setQuarantinedRecords(Integer quarantinedRecords) {
+        this.quarantinedRecords = quarantinedRecords;
+    }
+
+    public Boolean getSuperseded() {
+        return superseded;
+    }
+
+    public void setSuperseded(Boolean superseded) {
+        this.superseded = superseded;
+    }
+
+    public String getSupersededBy() {
+        return supersededBy;
+    }
+
+    public void setSupersededBy(String supersededBy) {
+        this.supersededBy = supersededBy;
+    }
+
+    public List<FileParseResult> getFileResults() {
+        return fileResults;
+    }
+    public void setFileResults(List<FileParseResult> fileResults) {
+        this.fileResults = fileResults;
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.capstone.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of parsing one file; multi-file jobs report one of these per file in their ack.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileParseResult {
+
+    private String filePath;
+    private String toolType;
+    private AcknowledgementStatus status = AcknowledgementStatus.FAILURE;
+    private int newFindings;
+    private int updatedFindings;
+    private int unchangedFindings;
+    private int succeededRecords;   // alerts of the file written or deduplicated, over all runs of the job
+    private int quarantinedRecords; // malformed alerts set aside instead of failing the file
+    private String error;
+
+    @JsonIgnore
+    private List<String> newlyIndexedIds = new ArrayList<>();
+
+    public FileParseResult() {}
+
+    public FileParseResult(String filePath, String toolType) {
+        this.filePath = filePath;
+        this.toolType = toolType;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    public void setToolType(String toolType) {
+        this.toolType = toolType;
+    }
+
+    public AcknowledgementStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AcknowledgementStatus status) {
+        this.status = status;
+    }
+
+    public int getNewFindings() {
+        return newFindings;
+    }
+
+    public void setNewFindings(int newFindings) {
+        this.newFindings = newFindings;
+    }
+
+    public int getUpdatedFindings() {
+        return updatedFindings;
+    }
+
+    public void setUpdatedFindings(int updatedFindings) {
+        this.updatedFindings = updatedFindings;
+    }
+
+    public int getUnchangedFindings() {
+        return unchangedFindings;
+    }
+
+    public void setUnchangedFindings(int unchangedFindings) {
+        this.unchangedFindings = unchangedFindings;
+    }
+
+    public int getSucceededRecords() {
+        return succeededRecords;
+    }
+
+    public void setSucceededRecords(int succeededRecords) {
+        this.succeededRecords = succeededRecords;
+    }
+
+    public int getQuarantinedRecords() {
+        return quarantinedRecords;
+    }
+
+    public void setQuarantinedRecords(int quarantinedRecords) {
+        this.quarantinedRecords = quarantinedRecords;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<String> getNewlyIndexedIds() {
+        return newlyIndexedIds;
+    }
+
+    public void setNewlyIndexedIds(List<String> newlyIndexedIds) {
+        this.newlyIndexedIds = newlyIndexedIds;
+    }
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status == AcknowledgementStatus.SUCCESS;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.capstone.parser.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What a re-ingested alert changed on an existing finding: only the fields that differ,
+ * each as old -> new, e.g. {@code {"severity": {"from": "HIGH", "to": "CRITICAL"}}}.
+ */
+public class FindingChange {
+
+    private String findingId;     // ES document id of the updated finding
+    private String alertNumber;
+    private Map<String, ValueChange> changes = new LinkedHashMap<>();
+
+    public FindingChange() { }
+
+    public FindingChange(String findingId, String alertNumber) {
+        this.findingId = findingId;
+        this.alertNumber = alertNumber;
+    }
+
+    /**
+     * Field-level diff of the updatable fields (severity, state, updatedAt) from the stored
+     * finding to the incoming one; a field set on one side only is reported with null on the
+     * other. Empty when the alert is an exact duplicate.
+     */
+    public static FindingChange between(Findings stored, Findings incoming) {
+        FindingChange change = new FindingChange(stored.getId(), incoming.getAlertNumber());
+        if (stored.getSeverity() != incoming.getSeverity()) {
+            change.addChange("severity", Objects.toString(stored.getSeverity(), null), Objects.toString(incoming.getSeverity(), null));
+        }
+        if (stored.getState() != incoming.getState()) {
+            change.addChange("state", Objects.toString(stored.getState(), null), Objects.toString(incoming.getState(), null));
+        }
+        if (!Objects.equals(stored.getUpdatedAt(), incoming.getUpdatedAt())) {
+            change.addChange("updatedAt", stored.getUpdatedAt(), incoming.getUpdatedAt());
+        }
+        return change;
+    }
+
+    public void addChange(String field, String from, String to) {
+        changes.put(field, new ValueChange(from, to));
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public String getFindingId() {
+        return findingId;
+    }
+
+    public void setFindingId(String findingId) {
+        this.findingId = findingId;
+    }
+
+    public String getAlertNumber() {
+        return alertNumber;
+    }
+
+    public void setAlertNumber(String alertNumber) {
+        this.alertNumber = alertNumber;
+    }
+
+    public Map<String, ValueChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(Map<String, ValueChange> changes) {
+        this.changes = changes;
+    }
+
+    public static class ValueChange {
+
+        private String from;
+        private String to;
+
+        public ValueChange() { }
+
+        public ValueChange(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public void setTo(String to) {
+            this.to = to;
+        }
+    }
+}
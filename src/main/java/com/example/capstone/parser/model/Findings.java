@@ -1,10 +1,13 @@
 package com.example.capstone.parser.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Map;
 
 public class Findings {
 
     private String id;            // internal unique ID (UUID)
+    private Long tenantId;        // owning tenant; the routing key and filter in shared storage mode
     private String title;         // short title
     private String description;   // description text
     private String toolType;      // CODE_SCANNING, DEPENDABOT, SECRET_SCANNING
@@ -18,6 +21,12 @@ public class Findings {
     private String cvss;          // optional
     private String location;
     private String ticketId;
+    private String ruleId;        // scanner rule that raised the alert (code scanning, SARIF)
+    private String ruleVersion;   // rules-index version holding the rule's descriptions, when normalized
+
+    // rule metadata read at conversion; written to the rules index, never with the finding
+    @JsonIgnore
+    private RuleMetadata rule;
 
     public String getAlertNumber() {
         return alertNumber;
@@ -39,6 +48,14 @@ public class Findings {
         this.id = id;
     }
 
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -150,4 +167,30 @@ public class Findings {
     public void setTicketId(String ticketId) {
         this.ticketId = ticketId;
     }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(String ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getRuleVersion() {
+        return ruleVersion;
+    }
+
+    public void setRuleVersion(String ruleVersion) {
+        this.ruleVersion = ruleVersion;
+    }
+
+    @JsonIgnore
+    public RuleMetadata getRule() {
+        return rule;
+    }
+
+    @JsonIgnore
+    public void setRule(RuleMetadata rule) {
+        this.rule = rule;
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.capstone.parser.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Materialized finding counts for one tenant + repo, kept up to date by the parser.
+ * Keys of {@code counts} are {@code toolType|severity|state}.
+ */
+public class FindingsSummary {
+
+    private Long tenantId;
+    private String owner;
+    private String repo;
+    private Map<String, Long> counts = new HashMap<>();
+    private long updatedAt;
+
+    public FindingsSummary() {}
+
+    public FindingsSummary(Long tenantId, String owner, String repo) {
+        this.tenantId = tenantId;
+        this.owner = owner;
+        this.repo = repo;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    public void setRepo(String repo) {
+        this.repo = repo;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.capstone.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress marker written after every flushed batch of a parse job,
+ * so a redelivered job for the same eventId can pick up where it stopped.
+ */
+public class ParseCheckpoint {
+
+    private String eventId;
+    private String filePath;
+    private long fileSize;        // guards against resuming over a different file
+    private long fileLastModified;
+    private int alertIndex;       // next alert to process (everything before it is committed)
+    private int committedBatches;
+    // needed for the NEW_SCAN event on completion; stored in the checkpoint's .ids file, and only
+    // read from the JSON for checkpoints written before that file existed
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private List<String> newlyIndexedIds = new ArrayList<>();
+    private int succeededRecords;   // committed alerts, so a resumed job still acks the file's totals
+    private int quarantinedRecords;
+    private long updatedAt;
+
+    public ParseCheckpoint() {}
+
+    public ParseCheckpoint(String eventId, String filePath, long fileSize, long fileLastModified) {
+        this.eventId = eventId;
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.fileLastModified = fileLastModified;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public long getFileLastModified() {
+        return fileLastModified;
+    }
+
+    public void setFileLastModified(long fileLastModified) {
+        this.fileLastModified = fileLastModified;
+    }
+
+    public int getAlertIndex() {
+        return alertIndex;
+    }
+
+    public void setAlertIndex(int alertIndex) {
+        this.alertIndex = alertIndex;
+    }
+
+    public int getCommittedBatches() {
+        return committedBatches;
+    }
+
+    public void setCommittedBatches(int committedBatches) {
+        this.committedBatches = committedBatches;
+    }
+
+    public List<String> getNewlyIndexedIds() {
+        return newlyIndexedIds;
+    }
+
+    public void setNewlyIndexedIds(List<String> newlyIndexedIds) {
+        this.newlyIndexedIds = newlyIndexedIds;
+    }
+
+    public int getSucceededRecords() {
+        return succeededRecords;
+    }
+
+    public void setSucceededRecords(int succeededRecords) {
+        this.succeededRecords = succeededRecords;
+    }
+
+    public int getQuarantinedRecords() {
+        return quarantinedRecords;
+    }
+
+    public void setQuarantinedRecords(int quarantinedRecords) {
+        this.quarantinedRecords = quarantinedRecords;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.capstone.parser.model;
 
+import java.util.List;
+
 public class ParserMessage {
 
     public Long tenantId;
     public String filePath;
-    public String toolType;
+    public String toolType;       // null or "AUTO" => deduced per file from its path
+    public List<String> filePaths; // optional manifest of files (or directories) parsed as one job
+    public String directory;       // optional directory whose alert files are parsed as one job
 
     public ParserMessage() {}
     public ParserMessage(Long tenantId, String filePath, String toolType) {
@@ -36,4 +40,28 @@ public class ParserMessage {
     public void setFilePath(String filePath) {
         this.filePath = filePath;
     }
+
+    public List<String> getFilePaths() {
+        return filePaths;
+    }
+
+    public void setFilePaths(List<String> filePaths) {
+        this.filePaths = filePaths;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * True when the job names a manifest or a directory rather than a single filePath. A filePath
+     * given as well is then parsed as one more file of the same job.
+     */
+    public boolean isMultiFile() {
+        return (filePaths != null && !filePaths.isEmpty()) || (directory != null && !directory.isBlank());
+    }
 }
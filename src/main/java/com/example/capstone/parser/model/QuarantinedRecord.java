@@ -0,0 +1,95 @@
+package com.example.capstone.parser.model;
+
+/**
+ * An alert record that could not be converted, as written to the quarantine file / dead-letter topic.
+ * The raw record is kept verbatim so it can be fixed and replayed on its own.
+ */
+public class QuarantinedRecord {
+
+    private String eventId;       // the job's eventId (#fileIndex for files of multi-file jobs), null for backfill
+    private Long tenantId;
+    private String toolType;
+    private String filePath;
+    private int alertIndex;       // position in the file, as counted by the tool parser
+    private String error;
+    private long quarantinedAt;
+    private Object record;
+
+    public QuarantinedRecord() {}
+
+    public QuarantinedRecord(String eventId, Long tenantId, String toolType, String filePath,
+                             int alertIndex, String error, Object record) {
+        this.eventId = eventId;
+        this.tenantId = tenantId;
+        this.toolType = toolType;
+        this.filePath = filePath;
+        this.alertIndex = alertIndex;
+        this.error = error;
+        this.record = record;
+        this.quarantinedAt = System.currentTimeMillis();
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    public void setToolType(String toolType) {
+        this.toolType = toolType;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public int getAlertIndex() {
+        return alertIndex;
+    }
+
+    public void setAlertIndex(int alertIndex) {
+        this.alertIndex = alertIndex;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getQuarantinedAt() {
+        return quarantinedAt;
+    }
+
+    public void setQuarantinedAt(long quarantinedAt) {
+        this.quarantinedAt = quarantinedAt;
+    }
+
+    public Object getRecord() {
+        return record;
+    }
+
+    public void setRecord(Object record) {
+        this.record = record;
+    }
+}
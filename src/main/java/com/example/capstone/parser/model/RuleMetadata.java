@@ -0,0 +1,119 @@
+package com.example.capstone.parser.model;
+
+import java.util.List;
+
+/**
+ * Metadata of the scanner rule behind a finding, stored once per rule version in the tenant's
+ * rules index instead of being copied into every finding the rule raised.
+ */
+public class RuleMetadata {
+
+    private Long tenantId;
+    private String toolType;
+    private String ruleId;
+    private String version;           // content hash; a changed description or severity is a new version
+    private String name;              // short description, also the finding's title
+    private String fullDescription;
+    private List<String> tags;
+    private String cwe;
+    private String severity;          // rule severity as the tool reports it
+    private String securitySeverity;
+    private String helpUri;
+    private String firstSeenAt;
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    public void setToolType(String toolType) {
+        this.toolType = toolType;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(String ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getFullDescription() {
+        return fullDescription;
+    }
+
+    public void setFullDescription(String fullDescription) {
+        this.fullDescription = fullDescription;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getCwe() {
+        return cwe;
+    }
+
+    public void setCwe(String cwe) {
+        this.cwe = cwe;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public String getSecuritySeverity() {
+        return securitySeverity;
+    }
+
+    public void setSecuritySeverity(String securitySeverity) {
+        this.securitySeverity = securitySeverity;
+    }
+
+    public String getHelpUri() {
+        return helpUri;
+    }
+
+    public void setHelpUri(String helpUri) {
+        this.helpUri = helpUri;
+    }
+
+    public String getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(String firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.capstone.parser.model;
+
+import java.util.List;
+
+public class UpdateFindingPayload {
+
+    private Long tenantId;
+    private String toolType;
+    private List<FindingChange> changes;  // one entry per updated finding, changed fields only
+
+    public UpdateFindingPayload() { }
+
+    public UpdateFindingPayload(Long tenantId, String toolType, List<FindingChange> changes) {
+        this.tenantId = tenantId;
+        this.toolType = toolType;
+        this.changes = changes;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    public void setToolType(String toolType) {
+        this.toolType = toolType;
+    }
+
+    public List<FindingChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<FindingChange> changes) {
+        this.changes = changes;
+    }
+}
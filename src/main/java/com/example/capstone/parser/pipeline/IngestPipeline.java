@@ -0,0 +1,261 @@
+package com.example.capstone.parser.pipeline;
+
+import com.example.capstone.parser.concurrent.JobScope;
+import com.example.capstone.parser.concurrent.ParserThreads;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.service.WriteBatch;
+import com.example.capstone.parser.tool.AlertHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs one file's ingest as four overlapping stages connected by {@link RingBuffer}s:
+ *
+ * <pre>
+ * read (1) -> convert (convert-workers) -> dedup (1, in alert order) -> write (1)
+ * </pre>
+ *
+ * The reader streams raw alerts, converters build {@link Findings} in parallel, the dedup stage
+ * restores file order and fills write batches, and the writer performs the bulk write and the
+ * checkpoint for each batch, so checkpoints still only cover alerts that are fully written.
+ * The dedup -> write ring holds only {@code write-queue-batches} batches, so a slow Elasticsearch
+ * stalls dedup, then conversion, then reading. The first failing stage cancels the others.
+ *
+ * Used for files of at least {@code parser.pipeline.min-file-bytes} when {@code parser.pipeline.enabled}.
+ */
+@Component
+public class IngestPipeline {
+
+    @Value("${parser.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${parser.pipeline.min-file-bytes:1048576}")
+    private long minFileBytes;
+
+    @Value("${parser.pipeline.convert-workers:2}")
+    private int convertWorkers;
+
+    @Value("${parser.pipeline.queue-capacity:4096}")
+    private int queueCapacity;
+
+    @Value("${parser.pipeline.handoff-batch:64}")
+    private int handoffBatch;
+
+    @Value("${parser.pipeline.write-queue-batches:2}")
+    private int writeQueueBatches;
+
+    @Value("${parser.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService stageExecutor;
+    private final Set<RingBuffer<?>> activeRings = ConcurrentHashMap.newKeySet();
+    private final Map<String, RingTotals> totals = new ConcurrentHashMap<>();
+    private final AtomicLong runs = new AtomicLong();
+
+    /**
+     * The per-alert work of a file, called from the stage threads.
+     */
+    public interface Stages {
+
+        /** Streams the file into {@code sink}; returns the total alert count. Runs on the reader thread. */
+        int read(AlertHandler sink) throws Exception;
+
+        /** Converts one raw alert, or returns null if it was quarantined; called concurrently by the convert workers. */
+        Findings convert(int index, Object alert) throws Exception;
+
+        /** Deduplicates one finding into the batch; single-threaded and in file order. */
+        void dedup(Findings finding, WriteBatch batch);
+
+        /** Writes a batch and checkpoints {@code nextAlertIndex}; single-threaded and in file order. */
+        void write(WriteBatch batch, int nextAlertIndex) throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        stageExecutor = ParserThreads.unboundedExecutor("pipeline-", virtualThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stageExecutor.shutdownNow();
+    }
+
+    public boolean isEnabledFor(long fileBytes) {
+        return enabled && fileBytes >= minFileBytes;
+    }
+
+    /**
+     * Runs the stages over one file starting at alert {@code fromIndex}.
+     *
+     * @return the number of alerts in the file
+     */
+    public int run(int fromIndex, int flushSize, Stages stages) throws Exception {
+        RingBuffer<RawAlert> readRing = new RingBuffer<>("read->convert", queueCapacity);
+        RingBuffer<ConvertedAlert> convertRing = new RingBuffer<>("convert->dedup", queueCapacity);
+        RingBuffer<PendingWrite> writeRing = new RingBuffer<>("dedup->write", writeQueueBatches);
+        List<RingBuffer<?>> rings = List.of(readRing, convertRing, writeRing);
+        activeRings.addAll(rings);
+        AtomicInteger alertCount = new AtomicInteger(-1);
+        AtomicInteger convertersLeft = new AtomicInteger(convertWorkers);
+        try (JobScope scope = new JobScope(stageExecutor)) {
+            scope.fork(() -> {
+                List<RawAlert> out = new ArrayList<>(handoffBatch);
+                int count = stages.read((index, alert) -> {
+                    out.add(new RawAlert(index, alert));
+                    if (out.size() >= handoffBatch) {
+                        readRing.putAll(out);
+                        out.clear();
+                    }
+                });
+                readRing.putAll(out);
+                alertCount.set(count);
+                readRing.close();
+                return null;
+            });
+            for (int w = 0; w < convertWorkers; w++) {
+                scope.fork(() -> {
+                    List<RawAlert> in = new ArrayList<>(handoffBatch);
+                    List<ConvertedAlert> out = new ArrayList<>(handoffBatch);
+                    while (readRing.drainTo(in, handoffBatch) > 0) {
+                        for (RawAlert raw : in) {
+                            long start = System.nanoTime();
+                            Findings finding = stages.convert(raw.index(), raw.alert());
+                            out.add(new ConvertedAlert(raw.index(), finding, System.nanoTime() - start));
+                        }
+                        convertRing.putAll(out);
+                        in.clear();
+                        out.clear();
+                    }
+                    // only a clean finish ends the stream; a failure cancels the scope instead
+                    if (convertersLeft.decrementAndGet() == 0) {
+                        convertRing.close();
+                    }
+                    return null;
+                });
+            }
+            scope.fork(() -> {
+                PriorityQueue<ConvertedAlert> reorder = new PriorityQueue<>(Comparator.comparingInt(ConvertedAlert::index));
+                List<ConvertedAlert> in = new ArrayList<>(handoffBatch);
+                WriteBatch batch = new WriteBatch();
+                int next = fromIndex;
+                while (convertRing.drainTo(in, handoffBatch) > 0) {
+                    reorder.addAll(in);
+                    in.clear();
+                    while (!reorder.isEmpty() && reorder.peek().index() == next) {
+                        ConvertedAlert converted = reorder.poll();
+                        if (converted.finding() == null) {
+                            batch.recordQuarantined(converted.convertNanos());
+                        } else {
+                            long start = System.nanoTime();
+                            stages.dedup(converted.finding(), batch);
+                            batch.recordAlert(converted.convertNanos(), System.nanoTime() - start);
+                        }
+                        next++;
+                        if (batch.size() >= flushSize) {
+                            writeRing.put(new PendingWrite(batch, next));
+                            batch = new WriteBatch();
+                        }
+                    }
+                }
+                if (!reorder.isEmpty() || next != alertCount.get()) {
+                    throw new IllegalStateException("Pipeline stopped at alert " + next + " of " + alertCount.get());
+                }
+                writeRing.put(new PendingWrite(batch, next));
+                writeRing.close();
+                return null;
+            });
+            scope.fork(() -> {
+                List<PendingWrite> in = new ArrayList<>(1);
+                while (writeRing.drainTo(in, 1) > 0) {
+                    PendingWrite pending = in.remove(0);
+                    stages.write(pending.batch(), pending.nextAlertIndex());
+                }
+                return null;
+            });
+            scope.join().throwIfFailed();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw new IOException(cause);
+        } finally {
+            activeRings.removeAll(rings);
+            runs.incrementAndGet();
+            for (RingBuffer<?> ring : rings) {
+                totals.computeIfAbsent(ring.getName(), n -> new RingTotals()).add(ring.stats());
+            }
+        }
+        return alertCount.get();
+    }
+
+    /**
+     * Configuration, rings of pipelines running now, and per-ring totals over finished runs.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("convertWorkers", convertWorkers);
+        out.put("runs", runs.get());
+        List<RingBuffer.Stats> active = new ArrayList<>();
+        for (RingBuffer<?> ring : activeRings) {
+            active.add(ring.stats());
+        }
+        out.put("active", active);
+        Map<String, Object> finished = new TreeMap<>();
+        totals.forEach((name, t) -> finished.put(name, t.snapshot()));
+        out.put("totals", finished);
+        return out;
+    }
+
+    private record RawAlert(int index, Object alert) {
+    }
+
+    private record ConvertedAlert(int index, Findings finding, long convertNanos) {
+    }
+
+    private record PendingWrite(WriteBatch batch, int nextAlertIndex) {
+    }
+
+    private static final class RingTotals {
+        private long runs;
+        private long items;
+        private long highWater;
+        private double occupancyWeighted;
+        private long producerWaitMs;
+        private long consumerWaitMs;
+        private int capacity;
+
+        synchronized void add(RingBuffer.Stats stats) {
+            runs++;
+            items += stats.items();
+            highWater = Math.max(highWater, stats.highWater());
+            occupancyWeighted += stats.meanOccupancy() * stats.items();
+            producerWaitMs += stats.producerWaitMs();
+            consumerWaitMs += stats.consumerWaitMs();
+            capacity = stats.capacity();
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("capacity", capacity);
+            out.put("runs", runs);
+            out.put("items", items);
+            out.put("highWater", highWater);
+            out.put("meanOccupancy", items == 0 ? 0.0 : occupancyWeighted / items);
+            out.put("producerWaitMs", producerWaitMs);
+            out.put("consumerWaitMs", consumerWaitMs);
+            return out;
+        }
+    }
+}
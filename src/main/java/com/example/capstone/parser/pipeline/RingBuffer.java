@@ -0,0 +1,174 @@
+package com.example.capstone.parser.pipeline;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded hand-off queue between two pipeline stages, backed by a slot array allocated once up
+ * front (capacity rounded up to a power of two). Producers and consumers move items in batches
+ * under a single lock acquisition; a full ring blocks the producer, which is how back-pressure
+ * travels from the write stage back to the reader. All waits are interruptible, so a cancelled
+ * job unblocks every stage.
+ *
+ * The producer side calls {@link #close()} at end of stream; consumers then drain what is left
+ * and see {@link #drainTo} return 0.
+ */
+public class RingBuffer<T> {
+
+    private final String name;
+    private final Object[] slots;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long head; // next slot to read
+    private long tail; // next slot to write
+    private boolean closed;
+
+    // occupancy metrics, guarded by lock
+    private long highWater;
+    private long occupancySum;
+    private long occupancySamples;
+    private long producerWaitNanos;
+    private long consumerWaitNanos;
+
+    public RingBuffer(String name, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.name = name;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public void put(T item) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            awaitSpace();
+            slots[(int) (tail++ & mask)] = item;
+            recordOccupancy();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds every item, blocking whenever the ring is full; items are published as space frees up.
+     */
+    public void putAll(List<T> items) throws InterruptedException {
+        int i = 0;
+        while (i < items.size()) {
+            lock.lockInterruptibly();
+            try {
+                awaitSpace();
+                while (i < items.size() && tail - head < slots.length) {
+                    slots[(int) (tail++ & mask)] = items.get(i++);
+                }
+                recordOccupancy();
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} items into {@code out}, waiting until at least one is available.
+     *
+     * @return the number of items moved; 0 only once the ring is closed and empty
+     */
+    public int drainTo(List<T> out, int max) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (head == tail && !closed) {
+                long start = System.nanoTime();
+                while (head == tail && !closed) {
+                    notEmpty.await();
+                }
+                consumerWaitNanos += System.nanoTime() - start;
+            }
+            int n = 0;
+            while (n < max && head != tail) {
+                int slot = (int) (head++ & mask);
+                @SuppressWarnings("unchecked")
+                T item = (T) slots[slot];
+                slots[slot] = null;
+                out.add(item);
+                n++;
+            }
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks end of stream; consumers drain the remaining items and then see 0.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(name, slots.length, (int) (tail - head), highWater,
+                    occupancySamples == 0 ? 0.0 : (double) occupancySum / occupancySamples,
+                    tail, TimeUnit.NANOSECONDS.toMillis(producerWaitNanos),
+                    TimeUnit.NANOSECONDS.toMillis(consumerWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitSpace() throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Ring " + name + " is closed");
+        }
+        if (tail - head < slots.length) {
+            return;
+        }
+        long start = System.nanoTime();
+        while (tail - head >= slots.length && !closed) {
+            notFull.await();
+        }
+        producerWaitNanos += System.nanoTime() - start;
+        if (closed) {
+            throw new IllegalStateException("Ring " + name + " is closed");
+        }
+    }
+
+    private void recordOccupancy() {
+        long size = tail - head;
+        highWater = Math.max(highWater, size);
+        occupancySum += size;
+        occupancySamples++;
+    }
+
+    /**
+     * Occupancy of one ring: current and peak fill, mean fill seen by producers, items moved,
+     * and how long producers were blocked on a full ring / consumers on an empty one.
+     */
+    public record Stats(String name, int capacity, int size, long highWater, double meanOccupancy,
+                        long items, long producerWaitMs, long consumerWaitMs) {
+    }
+}
@@ -2,42 +2,82 @@ package com.example.capstone.parser.producer;
 
 import com.example.capstone.parser.dto.ParseAcknowledgement;
 import com.example.capstone.parser.model.AcknowledgementEvent;
-import com.example.capstone.parser.model.AcknowledgementStatus;
+import com.example.capstone.parser.tracing.ParserTracing;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Service
 public class AcknowledgementProducer {
 
     @Value("${kafka.topics.job-acknowledgement-topic}")
     private String jobAckTopic;
 
+    // how long a job waits for the broker to confirm its ack before treating it as not sent
+    @Value("${parser.ack-send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final ParserTracing tracing;
 
-    public AcknowledgementProducer(KafkaTemplate<String, String> kafkaTemplate) {
+    public AcknowledgementProducer(KafkaTemplate<String, String> kafkaTemplate, ParserTracing tracing) {
         this.kafkaTemplate = kafkaTemplate;
+        this.tracing = tracing;
         this.objectMapper = new ObjectMapper();
     }
 
     /**
-     * Sends a ParseAcknowledgement to the job-acknowledgement-topic.
+     * Sends a fully populated acknowledgement (e.g. with per-file results for multi-file jobs)
+     * and waits up to {@code parser.ack-send-timeout-ms} for the broker to confirm it.
      *
-     * @param jobId   the ID (eventId) of the job as received from JFC
-     * @param success true if the parser completed its job successfully, false otherwise
+     * @return the JSON that was sent, or null if it was not confirmed; the caller must then neither
+     * commit the job's offset nor record it as completed, so the job (and its ack) is redelivered
      */
-    public void sendParseAcknowledgement(String jobId, boolean success) {
+    public String sendParseAcknowledgement(AcknowledgementEvent ackEvent) {
         try {
-            AcknowledgementEvent ackEvent = new AcknowledgementEvent(jobId);
-            ackEvent.setStatus(success ? AcknowledgementStatus.SUCCESS : AcknowledgementStatus.FAILURE);
             ParseAcknowledgement ack = new ParseAcknowledgement(null, ackEvent);
             String json = objectMapper.writeValueAsString(ack);
-            kafkaTemplate.send(jobAckTopic, json);
+            if (!sendAndWait(json)) {
+                return null;
+            }
             System.out.println("Parser sent ParseAcknowledgement: " + json);
+            return json;
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Re-sends a previously sent ParseAcknowledgement verbatim (same acknowledgementId),
+     * used when a finished job is redelivered.
+     *
+     * @return false if the broker did not confirm it
+     */
+    public boolean resendAcknowledgement(String ackJson) {
+        if (!sendAndWait(ackJson)) {
+            return false;
+        }
+        System.out.println("Parser re-sent stored ParseAcknowledgement: " + ackJson);
+        return true;
+    }
+
+    private boolean sendAndWait(String json) {
+        try {
+            tracing.send(kafkaTemplate, jobAckTopic, json).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Interrupted while sending ParseAcknowledgement: " + json);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            System.out.println("Failed to send ParseAcknowledgement (" + e + "): " + json);
         }
+        return false;
     }
 }
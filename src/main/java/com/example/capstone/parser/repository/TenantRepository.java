@@ -3,5 +3,9 @@ package com.example.capstone.parser.repository;
 import com.example.capstone.parser.model.TenantEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface TenantRepository extends JpaRepository<TenantEntity, Long> {
+
+    List<TenantEntity> findByOwnerAndRepo(String owner, String repo);
 }
@@ -0,0 +1,135 @@
+package com.example.capstone.parser.scheduler;
+
+import com.example.capstone.parser.service.DedupLocks;
+import io.opentelemetry.context.Context;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A parse request waiting in (or dispatched from) the {@link ParseJobScheduler}.
+ * The cost used for fair sharing is the size of the alerts file(s) in bytes.
+ */
+public class ParseJob {
+
+    private final String eventId;
+    private final Long tenantId;
+    private final String filePath;
+    private final List<String> filePaths; // set for multi-file jobs, null otherwise
+    private final String toolType;
+    private final long sizeBytes;
+    private final long enqueuedAtNanos;
+    private final Context traceContext; // the consume span, parent of the job's spans on the worker
+    private long sequence;
+    private String coalesceKey; // (tenant, owner/repo, toolType) when the job may be superseded, null otherwise
+    private Collection<String> dedupToolTypes; // partitions taken at dispatch; null => the job takes them itself
+    private DedupLocks.Lease dedupLease;       // set once dispatched with its partitions
+    private Consumer<Boolean> onComplete = acknowledged -> {};
+
+    public ParseJob(String eventId, Long tenantId, String filePath, String toolType, long sizeBytes) {
+        this(eventId, tenantId, filePath, null, toolType, sizeBytes);
+    }
+
+    public ParseJob(String eventId, Long tenantId, List<String> filePaths, String toolType, long sizeBytes) {
+        this(eventId, tenantId, null, filePaths, toolType, sizeBytes);
+    }
+
+    private ParseJob(String eventId, Long tenantId, String filePath, List<String> filePaths, String toolType, long sizeBytes) {
+        this.eventId = eventId;
+        this.tenantId = tenantId;
+        this.filePath = filePath;
+        this.filePaths = filePaths;
+        this.toolType = toolType;
+        this.sizeBytes = sizeBytes;
+        this.enqueuedAtNanos = System.nanoTime();
+        this.traceContext = Context.current();
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public List<String> getFilePaths() {
+        return filePaths;
+    }
+
+    public boolean isMultiFile() {
+        return filePaths != null;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    public Context getTraceContext() {
+        return traceContext;
+    }
+
+    public Consumer<Boolean> getOnComplete() {
+        return onComplete;
+    }
+
+    /**
+     * Callback run on the worker thread after the job finished (successfully or not), told whether
+     * its acknowledgement was sent, e.g. to commit the Kafka offset only if it was.
+     */
+    public void setOnComplete(Consumer<Boolean> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    String getCoalesceKey() {
+        return coalesceKey;
+    }
+
+    void setCoalesceKey(String coalesceKey) {
+        this.coalesceKey = coalesceKey;
+    }
+
+    Collection<String> getDedupToolTypes() {
+        return dedupToolTypes;
+    }
+
+    void setDedupToolTypes(Collection<String> dedupToolTypes) {
+        this.dedupToolTypes = dedupToolTypes;
+    }
+
+    DedupLocks.Lease getDedupLease() {
+        return dedupLease;
+    }
+
+    void setDedupLease(DedupLocks.Lease dedupLease) {
+        this.dedupLease = dedupLease;
+    }
+
+    /**
+     * Deficit charged when this job is dispatched; never zero so empty files still take a turn.
+     */
+    long cost() {
+        return Math.max(1L, sizeBytes);
+    }
+}
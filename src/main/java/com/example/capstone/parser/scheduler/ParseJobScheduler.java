@@ -0,0 +1,445 @@
+package com.example.capstone.parser.scheduler;
+
+import com.example.capstone.parser.concurrent.ParserThreads;
+import com.example.capstone.parser.service.DedupLocks;
+import com.example.capstone.parser.service.ParserService;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sits between the Kafka listener and {@link ParserService} and shares the worker pool
+ * between tenants using deficit round-robin, with file size in bytes as the job cost.
+ * A tenant's quantum is {@code quantum-bytes * weight}, so a tenant with a 500 MB export
+ * only gets a proportional share of dispatches while small tenants keep flowing.
+ *
+ * When {@code shortest-job-first} is on, each tenant's own queue is ordered by
+ * power-of-two size class before arrival order, so small files in the same tenant
+ * overtake big ones without starving jobs of similar size.
+ *
+ * With {@code coalesce-window-ms} set, a queued single-file job is superseded by a job for the
+ * same (tenant, owner/repo, toolType) submitted within that window after it: the older one leaves
+ * the queue unparsed and is acknowledged as a superseded success, since only the newest export of
+ * a repo matters. Coalescing only applies to jobs that are queued together, i.e. while the workers
+ * are behind: jobs are not held back to wait for a newer export, and one already running is never
+ * superseded. A redelivery of the same eventId does not supersede its earlier copy.
+ *
+ * A job is dispatched only once it owns its {@link DedupLocks} partitions, which the scheduler
+ * tries to take without waiting. While a running job holds them, the tenant's next job that can
+ * run is dispatched instead and the blocked one keeps its place in the queue, so workers are not
+ * parked behind a job on the same (tenant, toolType).
+ */
+@Service
+public class ParseJobScheduler {
+
+    @Value("${parser.scheduler.enabled:false}")
+    private boolean enabled;
+
+    @Value("${parser.scheduler.workers:4}")
+    private int workers;
+
+    @Value("${parser.scheduler.quantum-bytes:8388608}")
+    private long quantumBytes;
+
+    @Value("${parser.scheduler.shortest-job-first:false}")
+    private boolean shortestJobFirst;
+
+    @Value("${parser.scheduler.default-weight:1}")
+    private int defaultWeight;
+
+    // e.g. "1=4,7=2" => tenant 1 gets weight 4, tenant 7 weight 2, everyone else default-weight
+    @Value("${parser.scheduler.tenant-weights:}")
+    private String tenantWeightsSpec;
+
+    @Value("${parser.scheduler.max-queued-jobs:1000}")
+    private int maxQueuedJobs;
+
+    // 0 disables coalescing
+    @Value("${parser.scheduler.coalesce-window-ms:0}")
+    private long coalesceWindowMs;
+
+    // virtual-thread mode: jobs run on virtual threads, up to max-concurrent-jobs at once
+    @Value("${parser.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${parser.virtual-threads.max-concurrent-jobs:256}")
+    private int maxConcurrentJobs;
+
+    // longest a worker waits before re-checking jobs blocked on partitions held outside the scheduler
+    private static final long BLOCKED_RECHECK_MS = 50;
+
+    private final ParserService parserService;
+    private final DedupLocks dedupLocks;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<Long, TenantQueue> queues = new HashMap<>();
+    private final ArrayDeque<TenantQueue> activeTenants = new ArrayDeque<>();
+    private final Map<Long, TenantSchedulingStats> stats = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> tenantWeights = new HashMap<>();
+    private final Map<String, ParseJob> queuedByKey = new HashMap<>();
+    private int queuedJobs;
+    private long nextSequence;
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    public ParseJobScheduler(ParserService parserService, DedupLocks dedupLocks) {
+        this.parserService = parserService;
+        this.dedupLocks = dedupLocks;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            if (virtualThreads) {
+                System.out.println("[ParseJobScheduler] Virtual threads enabled without the scheduler:"
+                        + " jobs run on the (virtual) listener thread one at a time");
+            }
+            return;
+        }
+        tenantWeights.putAll(parseWeights(tenantWeightsSpec));
+        running = true;
+        int workerCount = virtualThreads ? maxConcurrentJobs : workers;
+        workerPool = ParserThreads.executor("parse-worker-", virtualThreads, workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workerPool.submit(this::workerLoop);
+        }
+        System.out.println("[ParseJobScheduler] Started " + workerCount + (virtualThreads ? " virtual" : "")
+                + " workers, quantum=" + quantumBytes + " bytes, shortestJobFirst=" + shortestJobFirst
+                + ", weights=" + tenantWeights
+                + (coalesceWindowMs > 0 ? ", coalesceWindowMs=" + coalesceWindowMs : ""));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+            try {
+                workerPool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a job for its tenant, blocking while the scheduler already holds
+     * {@code max-queued-jobs} jobs so the listener cannot buffer unbounded work.
+     * A queued job this one supersedes is acknowledged and completed on the calling thread.
+     */
+    public void submit(ParseJob job) throws InterruptedException {
+        job.setCoalesceKey(coalesceKeyOf(job));
+        job.setDedupToolTypes(dedupToolTypesOf(job));
+        ParseJob superseded = null;
+        lock.lockInterruptibly();
+        try {
+            while (queuedJobs >= maxQueuedJobs) {
+                notFull.await();
+            }
+            job.setSequence(nextSequence++);
+            TenantQueue tq = queues.computeIfAbsent(job.getTenantId(), this::newTenantQueue);
+            if (tq.jobs.isEmpty()) {
+                activeTenants.addLast(tq);
+            }
+            tq.jobs.add(job);
+            queuedJobs++;
+            statsFor(job.getTenantId()).jobQueued();
+            if (job.getCoalesceKey() != null) {
+                ParseJob previous = queuedByKey.put(job.getCoalesceKey(), job);
+                if (previous != null && !Objects.equals(previous.getEventId(), job.getEventId())
+                        && job.getEnqueuedAtNanos() - previous.getEnqueuedAtNanos()
+                        <= TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs)) {
+                    // same key => same tenant queue, which still holds the new job
+                    tq.jobs.remove(previous);
+                    queuedJobs--;
+                    statsFor(previous.getTenantId()).jobSuperseded();
+                    superseded = previous;
+                }
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (superseded != null) {
+            completeSuperseded(superseded, job);
+        }
+    }
+
+    public int getQueuedJobs() {
+        lock.lock();
+        try {
+            return queuedJobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRunningJobs() {
+        return runningJobs.get();
+    }
+
+    /**
+     * Jobs accepted but not yet finished: queued plus currently running.
+     */
+    public int getInFlightJobs() {
+        return getQueuedJobs() + runningJobs.get();
+    }
+
+    public Map<Long, TenantSchedulingStats.Snapshot> snapshotStats() {
+        Map<Long, TenantSchedulingStats.Snapshot> out = new TreeMap<>();
+        stats.forEach((tenantId, s) -> out.put(tenantId, s.snapshot()));
+        return out;
+    }
+
+    // ----------------------------------------------------------------------
+    // Dispatch
+    // ----------------------------------------------------------------------
+
+    /**
+     * Deficit round-robin: the tenant at the head of the active ring is served while its
+     * deficit covers the cost of its next job; otherwise it is credited one quantum and
+     * rotated to the back. Tenants whose queue drains leave the ring and forfeit their deficit.
+     *
+     * A tenant whose affordable jobs are all blocked on dedup partitions is rotated to the back
+     * without credit; once every active tenant is blocked, the worker waits for a job to finish.
+     */
+    ParseJob nextJob() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            int blockedTenants = 0;
+            while (true) {
+                while (activeTenants.isEmpty()) {
+                    notEmpty.await();
+                }
+                TenantQueue tq = activeTenants.peekFirst();
+                ParseJob head = tq.jobs.peek();
+                if (activeTenants.size() == 1 || head.cost() <= tq.deficit) {
+                    ParseJob job = claimRunnable(tq, activeTenants.size() == 1);
+                    if (job != null) {
+                        tq.jobs.remove(job);
+                        if (job.getCoalesceKey() != null) {
+                            queuedByKey.remove(job.getCoalesceKey(), job);
+                        }
+                        tq.deficit = Math.max(0L, tq.deficit - job.cost());
+                        if (tq.jobs.isEmpty()) {
+                            tq.deficit = 0L;
+                            activeTenants.pollFirst();
+                        }
+                        queuedJobs--;
+                        notFull.signal();
+                        return job;
+                    }
+                    activeTenants.pollFirst();
+                    activeTenants.addLast(tq);
+                    if (++blockedTenants >= activeTenants.size()) {
+                        blockedTenants = 0;
+                        notEmpty.await(BLOCKED_RECHECK_MS, TimeUnit.MILLISECONDS);
+                    }
+                    continue;
+                }
+                blockedTenants = 0;
+                activeTenants.pollFirst();
+                tq.deficit += quantumBytes * tq.weight;
+                activeTenants.addLast(tq);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The tenant's first job, in queue order, that its deficit covers (any job when
+     * {@code ignoreDeficit}) and whose dedup partitions could be taken; null if there is none.
+     */
+    private ParseJob claimRunnable(TenantQueue tq, boolean ignoreDeficit) {
+        ParseJob head = tq.jobs.peek();
+        if (tryLease(head)) {
+            return head;
+        }
+        List<ParseJob> ordered = new ArrayList<>(tq.jobs);
+        ordered.sort(tq.jobs.comparator());
+        for (ParseJob job : ordered) {
+            if (job != head && (ignoreDeficit || job.cost() <= tq.deficit) && tryLease(job)) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private boolean tryLease(ParseJob job) {
+        if (job.getDedupToolTypes() == null) {
+            return true;
+        }
+        DedupLocks.Lease lease = dedupLocks.tryAcquire(job.getTenantId(), job.getDedupToolTypes());
+        job.setDedupLease(lease);
+        return lease != null;
+    }
+
+    private void workerLoop() {
+        while (running) {
+            ParseJob job;
+            try {
+                job = nextJob();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            runJob(job);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void runJob(ParseJob job) {
+        TenantSchedulingStats tenantStats = statsFor(job.getTenantId());
+        long startNanos = System.nanoTime();
+        tenantStats.jobDispatched(TimeUnit.NANOSECONDS.toMillis(startNanos - job.getEnqueuedAtNanos()));
+        runningJobs.incrementAndGet();
+        boolean acknowledged = false;
+        try (Scope ignored = job.getTraceContext().makeCurrent()) {
+            if (job.isMultiFile()) {
+                acknowledged = parserService.parseFilesAndIndex(job.getTenantId(), job.getFilePaths(), job.getToolType(),
+                        job.getEventId(), job.getDedupLease());
+            } else {
+                acknowledged = parserService.parseFileAndIndex(job.getTenantId(), job.getFilePath(), job.getToolType(),
+                        job.getEventId(), job.getDedupLease());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            tenantStats.jobFinished(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            runningJobs.decrementAndGet();
+            if (job.getDedupLease() != null) {
+                // normally released by the job already; wake workers waiting on its partitions
+                job.getDedupLease().close();
+                lock.lock();
+                try {
+                    notEmpty.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            try {
+                job.getOnComplete().accept(acknowledged);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void completeSuperseded(ParseJob superseded, ParseJob by) {
+        boolean acknowledged = false;
+        try (Scope ignored = superseded.getTraceContext().makeCurrent()) {
+            acknowledged = parserService.acknowledgeSuperseded(superseded.getEventId(), by.getEventId());
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                superseded.getOnComplete().accept(acknowledged);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Helpers
+    // ----------------------------------------------------------------------
+
+    /**
+     * (tenant, owner/repo, toolType) of a single-file job, or null when the job must not be
+     * coalesced: coalescing is off, it spans several files, or its path names no repo.
+     */
+    private String coalesceKeyOf(ParseJob job) {
+        if (coalesceWindowMs <= 0 || job.isMultiFile() || job.getFilePath() == null) {
+            return null;
+        }
+        String[] ownerRepo;
+        try {
+            ownerRepo = parserService.parseOwnerRepoFromPath(job.getFilePath());
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if ("unknownOwner".equals(ownerRepo[0])) {
+            return null;
+        }
+        String toolType = job.getToolType();
+        if (toolType == null || toolType.isBlank() || "AUTO".equalsIgnoreCase(toolType)) {
+            toolType = parserService.deduceToolType(job.getFilePath());
+        }
+        return job.getTenantId() + "|" + ownerRepo[0] + "/" + ownerRepo[1] + "|" + toolType;
+    }
+
+    /**
+     * Partitions the job deduplicates against, or null to let it take them itself (its files
+     * cannot be listed yet, so it will fail on its own).
+     */
+    private Collection<String> dedupToolTypesOf(ParseJob job) {
+        try {
+            return parserService.dedupToolTypes(job.getToolType(), job.getFilePath(), job.getFilePaths());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private TenantQueue newTenantQueue(Long tenantId) {
+        Comparator<ParseJob> order = Comparator.comparingLong(ParseJob::getSequence);
+        if (shortestJobFirst) {
+            order = Comparator.comparingInt((ParseJob j) -> sizeClass(j.getSizeBytes())).thenComparing(order);
+        }
+        return new TenantQueue(new PriorityQueue<>(order), tenantWeights.getOrDefault(tenantId, defaultWeight));
+    }
+
+    private TenantSchedulingStats statsFor(Long tenantId) {
+        return stats.computeIfAbsent(tenantId, id -> new TenantSchedulingStats());
+    }
+
+    private static int sizeClass(long sizeBytes) {
+        return 64 - Long.numberOfLeadingZeros(Math.max(1L, sizeBytes));
+    }
+
+    private static Map<Long, Integer> parseWeights(String spec) {
+        Map<Long, Integer> weights = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return weights;
+        }
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid tenant weight entry: '" + entry + "'");
+            }
+            weights.put(Long.parseLong(kv[0].trim()), Math.max(1, Integer.parseInt(kv[1].trim())));
+        }
+        return weights;
+    }
+
+    private static final class TenantQueue {
+        private final PriorityQueue<ParseJob> jobs;
+        private final int weight;
+        private long deficit;
+
+        private TenantQueue(PriorityQueue<ParseJob> jobs, int weight) {
+            this.jobs = jobs;
+            this.weight = weight;
+        }
+    }
+}
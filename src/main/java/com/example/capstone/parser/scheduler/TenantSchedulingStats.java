@@ -0,0 +1,48 @@
+package com.example.capstone.parser.scheduler;
+
+import com.example.capstone.parser.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant queue-wait and service-time distributions kept by the scheduler.
+ */
+public class TenantSchedulingStats {
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicInteger queuedJobs = new AtomicInteger();
+    private final AtomicLong supersededJobs = new AtomicLong();
+
+    void jobQueued() {
+        queuedJobs.incrementAndGet();
+    }
+
+    void jobDispatched(long waitMillis) {
+        queuedJobs.decrementAndGet();
+        queueWait.record(waitMillis);
+    }
+
+    /**
+     * A queued job dropped in favour of a newer export of the same repo and tool.
+     */
+    void jobSuperseded() {
+        queuedJobs.decrementAndGet();
+        supersededJobs.incrementAndGet();
+    }
+
+    void jobFinished(long serviceMillis) {
+        serviceTime.record(serviceMillis);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(queuedJobs.get(), supersededJobs.get(), queueWait.snapshot(), serviceTime.snapshot());
+    }
+
+    public record Snapshot(int queuedJobs,
+                           long supersededJobs,
+                           LatencyHistogram.Snapshot queueWait,
+                           LatencyHistogram.Snapshot serviceTime) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.capstone.parser.service;
+
+/**
+ * Handle for a bulk-load window on one index, see {@link ElasticsearchClientService#openBulkLoadSession}.
+ * Closing it (normally in a finally block) restores the index settings once the last
+ * concurrent session on that index is closed.
+ */
+public class BulkLoadSession implements AutoCloseable {
+
+    private final ElasticsearchClientService esService;
+    private final String esIndex;
+    private boolean closed;
+
+    BulkLoadSession(ElasticsearchClientService esService, String esIndex) {
+        this.esService = esService;
+        this.esIndex = esIndex;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        esService.endBulkLoad(esIndex);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.capstone.parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, time-expiring record of eventIds that were parsed successfully, together with
+ * the exact ParseAcknowledgement JSON that was sent for them. Kafka redeliveries of a
+ * finished job are answered from here instead of re-reading the file and re-hitting ES.
+ *
+ * When {@code persist-path} is set, entries are also appended to an NDJSON journal that is
+ * replayed (and compacted) on startup, so the cache survives restarts and redeploys.
+ */
+@Service
+public class CompletedJobCache {
+
+    @Value("${parser.completed-jobs.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${parser.completed-jobs.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${parser.completed-jobs.persist-path:}")
+    private String persistPath;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LinkedHashMap<String, CompletedJob> entries = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletedJob> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private BufferedWriter journal;
+    private int journalLines;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (persistPath == null || persistPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(persistPath);
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        CompletedJob job = mapper.readValue(line, CompletedJob.class);
+                        if (!isExpired(job)) {
+                            entries.put(job.eventId(), job);
+                        }
+                    } catch (IOException e) {
+                        // a torn last line after a crash is expected; skip it
+                        System.out.println("[CompletedJobCache] Skipping unreadable journal line");
+                    }
+                }
+            }
+        }
+        compactJournal();
+        System.out.println("[CompletedJobCache] Loaded " + entries.size() + " completed jobs from " + persistPath);
+    }
+
+    /**
+     * Returns the acknowledgement JSON sent for this eventId, or null if the job is unknown or expired.
+     */
+    public synchronized String getAcknowledgement(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+        CompletedJob job = entries.get(eventId);
+        if (job == null) {
+            return null;
+        }
+        if (isExpired(job)) {
+            entries.remove(eventId);
+            return null;
+        }
+        return job.acknowledgement();
+    }
+
+    public synchronized void record(String eventId, String acknowledgementJson) {
+        if (eventId == null || acknowledgementJson == null) {
+            return;
+        }
+        CompletedJob job = new CompletedJob(eventId, acknowledgementJson, System.currentTimeMillis());
+        entries.put(eventId, job);
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(mapper.writeValueAsString(job));
+            journal.newLine();
+            journal.flush();
+            if (++journalLines > 2 * maxEntries) {
+                compactJournal();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isExpired(CompletedJob job) {
+        return System.currentTimeMillis() - job.completedAt() > ttlMinutes * 60_000L;
+    }
+
+    /**
+     * Rewrites the journal with only the live entries and reopens it for appending.
+     */
+    private synchronized void compactJournal() throws IOException {
+        Path path = Paths.get(persistPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            Iterator<CompletedJob> it = entries.values().iterator();
+            while (it.hasNext()) {
+                CompletedJob job = it.next();
+                if (isExpired(job)) {
+                    it.remove();
+                    continue;
+                }
+                out.write(mapper.writeValueAsString(job));
+                out.newLine();
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        journalLines = entries.size();
+    }
+
+    public record CompletedJob(String eventId, String acknowledgement, long completedAt) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.FindingChange;
+import com.example.capstone.parser.model.Findings;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-memory view of a tenant's existing findings for one tool, keyed by composite key hash.
+ * Loaded from ES once per job (instead of once per alert) and kept current as the job
+ * indexes new findings, so several files of the same job can share it concurrently and
+ * duplicates between them are caught even before ES refreshes.
+ */
+public class DedupIndex {
+
+    private final Long tenantId;
+    private final String toolType;
+    private final Map<String, Findings> byCompositeKey = new ConcurrentHashMap<>();
+
+    public DedupIndex(Long tenantId, String toolType, List<Findings> existingDocs, Function<Findings, String> keyFn) {
+        this.tenantId = tenantId;
+        this.toolType = toolType;
+        for (Findings doc : existingDocs) {
+            byCompositeKey.put(keyFn.apply(doc), doc);
+        }
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public String getToolType() {
+        return toolType;
+    }
+
+    /**
+     * Decides what {@code doc} is against whatever is stored under its key and stores the result,
+     * as one atomic step per key: files of the same job racing on one alert see each other's
+     * outcome, so exactly one of them indexes it as new and none compares against a stale doc.
+     * An update keeps the stored finding's id.
+     *
+     * @param diffFn changes from the stored finding to {@code doc}; empty for an exact duplicate
+     */
+    public Decision decide(String compositeKey, Findings doc, BiFunction<Findings, Findings, FindingChange> diffFn) {
+        Decision[] out = new Decision[1];
+        byCompositeKey.compute(compositeKey, (key, stored) -> {
+            if (stored == null) {
+                out[0] = new Decision(DedupOutcome.NEW, null, null);
+                return doc;
+            }
+            FindingChange change = diffFn.apply(stored, doc);
+            if (change.isEmpty()) {
+                out[0] = new Decision(DedupOutcome.UNCHANGED, stored, change);
+                return stored;
+            }
+            doc.setId(stored.getId());
+            out[0] = new Decision(DedupOutcome.UPDATED, stored, change);
+            return doc;
+        });
+        return out[0];
+    }
+
+    /**
+     * Outcome of {@link #decide}; {@code previous} is the finding that was stored, null for NEW.
+     */
+    public record Decision(DedupOutcome outcome, Findings previous, FindingChange change) {
+    }
+
+    public int size() {
+        return byCompositeKey.size();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.capstone.parser.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serializes jobs that deduplicate against the same (tenant, toolType) partition. A job holds
+ * the partition from loading its dedup index until its last batch is written and visible, so a
+ * concurrent job for the same tenant and tool cannot miss those documents and index them again.
+ * Jobs on other partitions run in parallel.
+ *
+ * Partitions hash onto a fixed set of stripes (binary semaphores, so a lease may be released
+ * from a different thread than the one that took it). A job needing several tools takes its
+ * stripes in ascending order, which keeps jobs from deadlocking one another. The scheduler uses
+ * {@link #tryAcquire} instead, so its workers run other jobs rather than park on a held stripe.
+ */
+@Component
+public class DedupLocks {
+
+    @Value("${parser.dedup-locks.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parser.dedup-locks.stripes:64}")
+    private int stripeCount;
+
+    private Semaphore[] stripes;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        stripes = new Semaphore[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Semaphore(1, true);
+        }
+    }
+
+    /**
+     * Blocks until the job owns every (tenantId, toolType) partition it will deduplicate against.
+     */
+    public Lease acquire(Long tenantId, Collection<String> toolTypes) throws InterruptedException {
+        if (!enabled) {
+            return new Lease(new int[0]);
+        }
+        TreeSet<Integer> needed = stripesFor(tenantId, toolTypes);
+        int[] held = new int[needed.size()];
+        int n = 0;
+        try {
+            for (int stripe : needed) {
+                Semaphore s = stripes[stripe];
+                acquisitions.increment();
+                if (!s.tryAcquire()) {
+                    contended.increment();
+                    long start = System.nanoTime();
+                    s.acquire();
+                    waitNanos.add(System.nanoTime() - start);
+                }
+                held[n++] = stripe;
+            }
+        } catch (InterruptedException e) {
+            for (int i = 0; i < n; i++) {
+                stripes[held[i]].release();
+            }
+            throw e;
+        }
+        return new Lease(held);
+    }
+
+    /**
+     * Takes every partition the job will deduplicate against if none of them is held, without waiting.
+     *
+     * @return the lease, or null if another job holds one of the partitions (nothing is then held)
+     */
+    public Lease tryAcquire(Long tenantId, Collection<String> toolTypes) {
+        if (!enabled) {
+            return new Lease(new int[0]);
+        }
+        TreeSet<Integer> needed = stripesFor(tenantId, toolTypes);
+        int[] held = new int[needed.size()];
+        int n = 0;
+        for (int stripe : needed) {
+            acquisitions.increment();
+            if (!stripes[stripe].tryAcquire()) {
+                skipped.increment();
+                for (int i = 0; i < n; i++) {
+                    stripes[held[i]].release();
+                }
+                return null;
+            }
+            held[n++] = stripe;
+        }
+        return new Lease(held);
+    }
+
+    /**
+     * True when {@code lease} already owns every partition of these tool types.
+     */
+    public boolean covers(Lease lease, Long tenantId, Collection<String> toolTypes) {
+        if (!enabled) {
+            return true;
+        }
+        for (int stripe : stripesFor(tenantId, toolTypes)) {
+            if (Arrays.binarySearch(lease.held, stripe) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, Object> snapshot() {
+        int busy = 0;
+        for (Semaphore s : stripes) {
+            if (s.availablePermits() == 0) {
+                busy++;
+            }
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("stripes", stripes.length);
+        out.put("held", busy);
+        out.put("acquisitions", acquisitions.sum());
+        out.put("contended", contended.sum());
+        out.put("waitMs", TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()));
+        out.put("skipped", skipped.sum());
+        return out;
+    }
+
+    private TreeSet<Integer> stripesFor(Long tenantId, Collection<String> toolTypes) {
+        TreeSet<Integer> needed = new TreeSet<>();
+        for (String toolType : toolTypes) {
+            needed.add(Math.floorMod(Objects.hash(tenantId, toolType), stripes.length));
+        }
+        return needed;
+    }
+
+    /**
+     * Ownership of a set of stripes; closing it more than once is harmless.
+     */
+    public final class Lease implements AutoCloseable {
+        private final int[] held;
+        private boolean released;
+
+        private Lease(int[] held) {
+            this.held = held;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            for (int stripe : held) {
+                stripes[stripe].release();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.capstone.parser.service;
+
+/**
+ * What deduplication decided for one incoming finding.
+ */
+public enum DedupOutcome {
+
+    NEW,        // no finding with the same composite key => indexed with a fresh id
+    UPDATED,    // same composite key, different severity/state/updatedAt => re-indexed under the old id, diff kept for UPDATE_FINDING
+    UNCHANGED   // exact duplicate => nothing written
+}
@@ -1,127 +1,771 @@
 package com.example.capstone.parser.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.*;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import com.example.capstone.parser.concurrent.IoPermits;
+import com.example.capstone.parser.jfr.ElasticsearchRequestEvent;
+import com.example.capstone.parser.jfr.TenantCacheMissEvent;
 import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.FindingsSummary;
+import com.example.capstone.parser.model.RuleMetadata;
 import com.example.capstone.parser.repository.TenantRepository;
 import com.example.capstone.parser.model.TenantEntity; // or wherever your TenantEntity is
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Reads and writes tenant findings. With {@code parser.es.storage-mode=index-per-tenant} (the default)
+ * each tenant has its own index, {@link TenantEntity#getEsIndex()}. With {@code shared}, all tenants
+ * write to {@code parser.es.shared.index} (one per tool type with {@code partition-by-tool}); every
+ * document carries its {@code tenantId}, which is also the routing key, and every read filters and
+ * routes on it, so a tenant's documents and its dedup query stay on a single shard.
+ */
 @Service
-public class ElasticsearchClientService {
+public class ElasticsearchClientService implements SmartInitializingSingleton {
+
+    private static final String DEDUP_PIT_KEEP_ALIVE = "2m";
+
+    // what a bulk load sets refresh_interval to, and the ES default it is restored to when found left over
+    private static final String BULK_LOAD_REFRESH = "-1";
+    private static final String DEFAULT_REFRESH = "1s";
+
+    // buckets per page when counting findings for the summaries
+    private static final int SUMMARY_PAGE_SIZE = 1000;
 
     private final ElasticsearchClient esClient;
     private final TenantRepository tenantRepository;
 
-    public ElasticsearchClientService(ElasticsearchClient esClient, TenantRepository tenantRepository) {
+    @Value("${parser.es.storage-mode:index-per-tenant}")
+    private String storageMode;
+
+    @Value("${parser.es.shared.index:findings-shared}")
+    private String sharedIndex;
+
+    @Value("${parser.es.shared.partition-by-tool:false}")
+    private boolean partitionByTool;
+
+    @Value("${parser.rules.index-prefix:rules-}")
+    private String rulesIndexPrefix;
+
+    // hits per search_after page when loading a dedup index
+    @Value("${parser.es.dedup-page-size:5000}")
+    private int dedupPageSize;
+
+    @Value("${parser.tenant-cache.ttl-seconds:300}")
+    private long tenantCacheTtlSeconds;
+
+    // tenantId -> resolved index; saves a MySQL round trip on every ES call
+    private final ConcurrentHashMap<Long, CachedIndex> tenantIndexCache = new ConcurrentHashMap<>();
+
+    // replica count while bulk loading; -1 leaves replicas alone
+    @Value("${parser.bulk-load.replicas:-1}")
+    private int bulkLoadReplicas;
+
+    @Value("${parser.bulk-load.restore-on-startup:true}")
+    private boolean restoreBulkLoadsOnStartup;
+
+    // indices searched for leftover bulk-load settings at startup, and their replica count
+    @Value("${parser.es.template.index-patterns:tenant-*,findings-shared*}")
+    private List<String> findingsIndexPatterns;
+
+    @Value("${parser.es.template.replicas:1}")
+    private int templateReplicas;
+
+    // esIndex -> open bulk-load sessions and the settings to restore when the last one closes.
+    // Guarded by a lock rather than synchronized: it is held across ES calls, which would pin a virtual thread.
+    private final Map<String, BulkLoadState> bulkLoads = new HashMap<>();
+    private final ReentrantLock bulkLoadLock = new ReentrantLock();
+
+    private final IoPermits ioPermits;
+    private final ElasticsearchWriteLimiter writeLimiter;
+
+    public ElasticsearchClientService(ElasticsearchClient esClient, TenantRepository tenantRepository, IoPermits ioPermits,
+                                      ElasticsearchWriteLimiter writeLimiter) {
         this.esClient = esClient;
         this.tenantRepository = tenantRepository;
+        this.ioPermits = ioPermits;
+        this.writeLimiter = writeLimiter;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!"index-per-tenant".equals(storageMode) && !"shared".equals(storageMode)) {
+            throw new IllegalArgumentException("Unknown parser.es.storage-mode: '" + storageMode + "'");
+        }
+        if (isSharedStorage()) {
+            System.out.println("[ElasticsearchClientService] Shared storage mode: findings go to " + sharedIndex
+                    + (partitionByTool ? "-<tooltype>" : "") + ", routed by tenantId");
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!restoreBulkLoadsOnStartup || isSharedStorage()) {
+            return;
+        }
+        try {
+            int restored = restoreLeftoverBulkLoads();
+            if (restored > 0) {
+                System.out.println("[ElasticsearchClientService] Restored the settings of " + restored
+                        + " index(es) left in bulk-load mode");
+            }
+        } catch (Exception e) {
+            // ES being down at startup must not keep the parser from starting
+            System.out.println("[ElasticsearchClientService] Could not check for leftover bulk-load settings: " + e.getMessage());
+        }
+    }
+
+    public boolean isSharedStorage() {
+        return "shared".equals(storageMode);
     }
 
     /**
-     * Index a new Findings document into the ES index that belongs to the tenant.
-     * The index name is read from the tenant table (TenantEntity.esIndex).
+     * Index holding the tenant's findings of {@code toolType}. Unknown tenants are rejected in both modes.
+     *
+     * @param toolType only matters for tool-partitioned shared indices
      */
-    public void indexFindings(Long tenantId, Findings findings) {
-        try {
-            String esIndex = getTenantEsIndex(tenantId);
+    public String findingsIndex(Long tenantId, String toolType) {
+        String tenantIndex = getTenantEsIndex(tenantId);
+        if (!isSharedStorage()) {
+            return tenantIndex;
+        }
+        if (!partitionByTool || toolType == null) {
+            return sharedIndex;
+        }
+        return sharedIndex + "-" + toolType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Index holding the tenant's rule metadata: {@code parser.rules.index-prefix} plus the tenant's
+     * findings index, or plus the shared index (partitioned by tenant like the findings) in shared mode.
+     */
+    public String rulesIndex(Long tenantId) {
+        return rulesIndexPrefix + findingsIndex(tenantId, null);
+    }
+
+    /**
+     * Custom routing value for the tenant's documents, null (route by _id) with an index per tenant.
+     */
+    private String routing(Long tenantId) {
+        return isSharedStorage() ? String.valueOf(tenantId) : null;
+    }
 
-            String docId = (findings.getId() != null && !findings.getId().isEmpty())
-                    ? findings.getId()
-                    : UUID.randomUUID().toString();
+    /**
+     * Index (create or overwrite) a batch of Findings, keyed by doc.getId(), in bulk requests of
+     * at most {@link ElasticsearchWriteLimiter#bulkSize()} docs. Items ES rejects as overloaded
+     * (429/503) are retried with jittered backoff, as are failed requests; see
+     * {@link ElasticsearchWriteLimiter}. Failures are thrown rather than logged, so callers
+     * never treat a partially written batch as committed.
+     */
+    public void bulkIndexFindings(Long tenantId, List<Findings> docs) throws IOException {
+        if (docs.isEmpty()) {
+            return;
+        }
+        // one index per tenant, or a shared index per tool type that a batch may span
+        Map<String, List<Findings>> byIndex = new LinkedHashMap<>();
+        for (Findings doc : docs) {
+            doc.setTenantId(tenantId);
+            byIndex.computeIfAbsent(findingsIndex(tenantId, doc.getToolType()), i -> new ArrayList<>()).add(doc);
+        }
+        String routing = routing(tenantId);
+        for (Map.Entry<String, List<Findings>> target : byIndex.entrySet()) {
+            List<Findings> indexDocs = target.getValue();
+            int from = 0;
+            while (from < indexDocs.size()) {
+                int to = Math.min(indexDocs.size(), from + writeLimiter.bulkSize());
+                bulkIndexWithRetry(target.getKey(), routing, indexDocs.subList(from, to));
+                from = to;
+            }
+        }
+    }
 
-            IndexRequest<Findings> req = IndexRequest.of(i -> i
+    private void bulkIndexWithRetry(String esIndex, String routing, List<Findings> docs) throws IOException {
+        List<Findings> pending = docs;
+        int maxAttempts = writeLimiter.getMaxAttempts();
+        long breakerDeadline = 0;
+        for (int attempt = 1; ; attempt++) {
+            List<Findings> batch = pending;
+            ElasticsearchRequestEvent event = requestEvent("bulk", esIndex, batch.size(), attempt);
+            BulkResponse resp;
+            try {
+                try {
+                    BulkRequest request = bulkRequest(esIndex, routing, batch);
+                    resp = writeLimiter.execute(() -> esClient.bulk(request),
+                            r -> r.errors() && r.items().stream().anyMatch(this::isRetryableItem));
+                } catch (IOException | RuntimeException e) {
+                    commit(event, e instanceof ElasticsearchUnavailableException ? "breaker-open" : e.getClass().getSimpleName(), 0);
+                    throw e;
+                }
+            } catch (ElasticsearchException e) {
+                if (!writeLimiter.isRetryable(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                System.out.println("Bulk write to " + esIndex + " failed with status " + e.status()
+                        + ", retrying (attempt " + (attempt + 1) + "/" + maxAttempts + ")");
+                writeLimiter.backoff(attempt, batch.size());
+                continue;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (ElasticsearchUnavailableException e) {
+                // the breaker kept the request from going out: wait for it without spending an attempt,
+                // but only up to breaker.max-wait-ms, so a batch cannot wait on a dead cluster forever
+                long now = System.currentTimeMillis();
+                if (breakerDeadline == 0) {
+                    breakerDeadline = now + writeLimiter.getBreakerMaxWaitMs();
+                } else if (now >= breakerDeadline) {
+                    throw new ElasticsearchUnavailableException("Bulk write to " + esIndex + " gave up after waiting "
+                            + writeLimiter.getBreakerMaxWaitMs() + " ms for the circuit breaker: " + e.getMessage());
+                }
+                writeLimiter.backoff(attempt--, batch.size());
+                continue;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                System.out.println("Bulk write to " + esIndex + " failed (" + e.getMessage()
+                        + "), retrying (attempt " + (attempt + 1) + "/" + maxAttempts + ")");
+                writeLimiter.backoff(attempt, batch.size());
+                continue;
+            }
+
+            if (!resp.errors()) {
+                commit(event, "ok", 0);
+                System.out.println("Bulk indexed " + batch.size() + " docs in index: " + esIndex
+                        + " (took " + resp.took() + " ms" + (attempt > 1 ? ", attempt " + attempt : "") + ")");
+                return;
+            }
+            // items come back in request order; keep the rejected ones, fail on anything else
+            List<Findings> retry = new ArrayList<>();
+            int failed = 0;
+            String firstReason = null;
+            List<BulkResponseItem> items = resp.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null) {
+                    continue;
+                }
+                if (isRetryableItem(item)) {
+                    retry.add(batch.get(i));
+                } else {
+                    failed++;
+                    if (firstReason == null) {
+                        firstReason = item.error().reason();
+                    }
+                }
+            }
+            commit(event, failed > 0 ? "failed" : "retry", retry.size());
+            if (failed > 0) {
+                throw new IOException("Bulk indexing failed for " + failed + " of " + batch.size()
+                        + " docs in index " + esIndex + ": " + firstReason);
+            }
+            if (attempt >= maxAttempts) {
+                throw new IOException("Elasticsearch still rejected " + retry.size() + " of " + batch.size()
+                        + " docs in index " + esIndex + " after " + attempt + " attempts");
+            }
+            System.out.println("Bulk write to " + esIndex + ": " + retry.size() + " of " + batch.size()
+                    + " docs rejected, retrying (attempt " + (attempt + 1) + "/" + maxAttempts + ")");
+            pending = retry;
+            writeLimiter.backoff(attempt, retry.size());
+        }
+    }
+
+    private static ElasticsearchRequestEvent requestEvent(String operation, String esIndex, int docs, int attempt) {
+        ElasticsearchRequestEvent event = new ElasticsearchRequestEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.index = esIndex;
+            event.docs = docs;
+            event.attempt = attempt;
+        }
+        return event;
+    }
+
+    private static void commit(ElasticsearchRequestEvent event, String outcome, int rejectedItems) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.rejectedItems = rejectedItems;
+            event.commit();
+        }
+    }
+
+    private BulkRequest bulkRequest(String esIndex, String routing, List<Findings> docs) {
+        BulkRequest.Builder br = new BulkRequest.Builder();
+        for (Findings doc : docs) {
+            br.operations(op -> op.index(idx -> idx
                     .index(esIndex)
-                    .id(docId)
-                    .document(findings)
-            );
+                    .id(doc.getId())
+                    .routing(routing)
+                    .document(doc)
+            ));
+        }
+        return br.build();
+    }
 
-            IndexResponse resp = esClient.index(req);
-            System.out.println("Indexed doc ID: " + resp.id() + " in index: " + esIndex);
+    private boolean isRetryableItem(BulkResponseItem item) {
+        return item.error() != null && writeLimiter.isRetryableStatus(item.status());
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Writes rule versions to the tenant's rules index with {@code create} operations, so a version
+     * another job or pod already wrote is left as it is (and not re-analyzed) rather than overwritten.
+     *
+     * @return how many of {@code rules} were new to the index
+     * @throws IOException if any rule could not be written; the caller must not drop descriptions
+     *                     from findings whose rule is not stored
+     */
+    public int bulkCreateRules(Long tenantId, List<RuleMetadata> rules) throws IOException {
+        if (rules.isEmpty()) {
+            return 0;
+        }
+        String esIndex = rulesIndex(tenantId);
+        String routing = routing(tenantId);
+        BulkRequest.Builder br = new BulkRequest.Builder();
+        for (RuleMetadata rule : rules) {
+            rule.setTenantId(tenantId);
+            br.operations(op -> op.create(c -> c
+                    .index(esIndex)
+                    .id(ruleDocId(tenantId, rule))
+                    .routing(routing)
+                    .document(rule)
+            ));
+        }
+        BulkRequest request = br.build();
+        ElasticsearchRequestEvent event = requestEvent("bulk-rules", esIndex, rules.size(), 1);
+        BulkResponse resp;
+        try {
+            resp = writeLimiter.execute(() -> esClient.bulk(request),
+                    r -> r.errors() && r.items().stream().anyMatch(this::isRetryableItem));
+        } catch (IOException | RuntimeException e) {
+            commit(event, e.getClass().getSimpleName(), 0);
+            throw e;
+        }
+        int created = 0;
+        int failed = 0;
+        String firstReason = null;
+        for (BulkResponseItem item : resp.items()) {
+            if (item.error() == null) {
+                created++;
+            } else if (item.status() != 409) {
+                failed++;
+                if (firstReason == null) {
+                    firstReason = item.error().reason();
+                }
+            }
+        }
+        commit(event, failed > 0 ? "failed" : "ok", 0);
+        if (failed > 0) {
+            throw new IOException("Writing " + failed + " of " + rules.size() + " rules to index "
+                    + esIndex + " failed: " + firstReason);
         }
+        return created;
+    }
+
+    private String ruleDocId(Long tenantId, RuleMetadata rule) {
+        String id = rule.getToolType() + ":" + rule.getRuleId() + ":" + rule.getVersion();
+        return isSharedStorage() ? tenantId + ":" + id : id;
     }
 
     /**
-     * Update (re-index) an existing doc in the tenant’s ES index,
-     * using doc.getId() as the ES document _id.
+     * Fetch all docs of the given toolType from the tenant’s ES index, in pages of
+     * {@code parser.es.dedup-page-size} read from one point in time with search_after.
+     * Indices created from the parser-findings template map toolType as a keyword; older,
+     * dynamically mapped indices only have "toolType.keyword", so we match either.
+     * In shared storage mode the query is also filtered on, and routed to, the tenant.
+     *
+     * @throws IOException if any page could not be read; the caller builds its dedup index from
+     *                     the result, and a partial one would re-insert every missing finding
      */
-    public void updateFindings(Long tenantId, Findings findings) {
-        if (findings.getId() == null || findings.getId().isEmpty()) {
-            System.out.println("updateFindings called but no doc ID found!");
+    public List<Findings> findAllByTenantAndToolType(Long tenantId, String toolType) throws IOException {
+        String esIndex = findingsIndex(tenantId, toolType);
+        String routing = routing(tenantId);
+
+        Query toolTypeTerm = Query.of(q -> q.bool(b -> {
+            b.should(sq -> sq.term(t -> t.field("toolType").value(toolType)))
+                    .should(sq -> sq.term(t -> t.field("toolType.keyword").value(toolType)))
+                    .minimumShouldMatch("1");
+            if (routing != null) {
+                b.filter(fq -> fq.term(t -> t.field("tenantId").value(routing)));
+            }
+            return b;
+        }));
+
+        ElasticsearchRequestEvent event = requestEvent("search", esIndex, 0, 1);
+        List<Findings> results = new ArrayList<>();
+        String pitId = null;
+        try {
+            OpenPointInTimeResponse pit = ioPermits.elasticsearch(() -> esClient.openPointInTime(o -> o
+                    .index(esIndex)
+                    .routing(routing)
+                    .ignoreUnavailable(true)
+                    .keepAlive(t -> t.time(DEDUP_PIT_KEEP_ALIVE))));
+            pitId = pit.id();
+            List<FieldValue> searchAfter = null;
+            while (true) {
+                String currentPit = pitId;
+                List<FieldValue> after = searchAfter;
+                SearchRequest req = SearchRequest.of(s -> {
+                    s.pit(p -> p.id(currentPit).keepAlive(t -> t.time(DEDUP_PIT_KEEP_ALIVE)))
+                            .query(toolTypeTerm)
+                            .size(dedupPageSize)
+                            .sort(so -> so.field(f -> f.field("_shard_doc")));
+                    if (after != null) {
+                        s.searchAfter(after);
+                    }
+                    return s;
+                });
+                SearchResponse<Findings> res = ioPermits.elasticsearch(() -> esClient.search(req, Findings.class));
+                if (res.pitId() != null) {
+                    pitId = res.pitId();
+                }
+                List<Hit<Findings>> hits = res.hits().hits();
+                for (Hit<Findings> h : hits) {
+                    Findings f = h.source();
+                    if (f != null) {
+                        // Set the doc's ID from the ES _id
+                        f.setId(h.id());
+                        results.add(f);
+                    }
+                }
+                if (hits.size() < dedupPageSize) {
+                    break;
+                }
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+        } catch (IOException | RuntimeException e) {
+            commit(event, e.getClass().getSimpleName(), 0);
+            throw e;
+        } finally {
+            closePointInTime(pitId);
+        }
+        event.docs = results.size();
+        commit(event, "ok", 0);
+        return results;
+    }
+
+    private void closePointInTime(String pitId) {
+        if (pitId == null) {
             return;
         }
         try {
-            String esIndex = getTenantEsIndex(tenantId);
+            ioPermits.elasticsearch(() -> esClient.closePointInTime(c -> c.id(pitId)));
+        } catch (IOException | RuntimeException e) {
+            // it expires after the keep-alive anyway
+            System.out.println("Could not close point in time: " + e.getMessage());
+        }
+    }
 
-            IndexRequest<Findings> req = IndexRequest.of(i -> i
+    /**
+     * The tenant's findings counted per owner/repo (as tagged in {@code additionalData}) and
+     * {@code toolType|severity|state}, i.e. what its summary documents should hold. Pages through
+     * a composite terms aggregation, so it works for any number of repos. Findings without an
+     * owner or repo are counted under "null".
+     */
+    public List<FindingsSummary> countFindingsByRepo(Long tenantId) throws IOException {
+        String tenantIndex = findingsIndex(tenantId, null);
+        String esIndex = isSharedStorage() && partitionByTool ? tenantIndex + "-*" : tenantIndex;
+        String routing = routing(tenantId);
+        Query query = isSharedStorage()
+                ? Query.of(q -> q.term(t -> t.field("tenantId").value(tenantId)))
+                : Query.of(q -> q.matchAll(m -> m));
+        List<Map<String, CompositeAggregationSource>> sources = List.of(
+                termsSource("owner", "additionalData.owner"),
+                termsSource("repo", "additionalData.repo"),
+                termsSource("toolType", "toolType"),
+                termsSource("severity", "severity"),
+                termsSource("state", "state"));
+
+        Map<String, FindingsSummary> byRepo = new TreeMap<>();
+        Map<String, FieldValue> after = null;
+        while (true) {
+            Map<String, FieldValue> afterKey = after;
+            SearchResponse<Void> resp = ioPermits.elasticsearch(() -> esClient.search(s -> s
                     .index(esIndex)
-                    .id(findings.getId())
-                    .document(findings)
-            );
-            IndexResponse resp = esClient.index(req);
-            System.out.println("Updated doc => ID: " + findings.getId()
-                    + " in index: " + esIndex);
+                    .routing(routing)
+                    .ignoreUnavailable(true)
+                    .size(0)
+                    .query(query)
+                    .aggregations("counts", a -> a.composite(c -> {
+                        c.size(SUMMARY_PAGE_SIZE).sources(sources);
+                        if (afterKey != null) {
+                            c.after(afterKey);
+                        }
+                        return c;
+                    })), Void.class));
+            CompositeAggregate counts = resp.aggregations().get("counts").composite();
+            List<CompositeBucket> buckets = counts.buckets().array();
+            for (CompositeBucket bucket : buckets) {
+                String owner = keyOf(bucket, "owner");
+                String repo = keyOf(bucket, "repo");
+                FindingsSummary summary = byRepo.computeIfAbsent(owner + "/" + repo,
+                        k -> new FindingsSummary(tenantId, owner, repo));
+                String key = keyOf(bucket, "toolType") + "|" + keyOf(bucket, "severity") + "|" + keyOf(bucket, "state");
+                summary.getCounts().merge(key, bucket.docCount(), Long::sum);
+            }
+            after = counts.afterKey();
+            if (buckets.isEmpty() || after == null || after.isEmpty()) {
+                return new ArrayList<>(byRepo.values());
+            }
+        }
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static Map<String, CompositeAggregationSource> termsSource(String name, String field) {
+        return Map.of(name, CompositeAggregationSource.of(cs -> cs.terms(t -> t.field(field).missingBucket(true))));
+    }
+
+    private static String keyOf(CompositeBucket bucket, String source) {
+        FieldValue value = bucket.key().get(source);
+        return (value == null || value.isNull()) ? "null" : String.valueOf(value._get());
+    }
+
+    /**
+     * Makes everything written to the tenant's index so far visible to search. A shared index is
+     * refreshed as a whole (every tool partition of it), since refresh is per shard, not per tenant.
+     */
+    public void refreshTenantIndex(Long tenantId) throws IOException {
+        String tenantIndex = findingsIndex(tenantId, null);
+        String esIndex = isSharedStorage() && partitionByTool ? tenantIndex + "-*" : tenantIndex;
+        ElasticsearchRequestEvent event = requestEvent("refresh", esIndex, 0, 1);
+        try {
+            ioPermits.elasticsearch(() -> esClient.indices().refresh(r -> r.index(esIndex)));
+        } catch (IOException | RuntimeException e) {
+            commit(event, e.getClass().getSimpleName(), 0);
+            throw e;
         }
+        commit(event, "ok", 0);
     }
 
+    // ----------------------------------------------------------------------
+    // Bulk-load sessions
+    // ----------------------------------------------------------------------
+
     /**
-     * Fetch all docs of the given toolType from the tenant’s ES index.
-     * For dedup logic, we do a term query on "toolType.keyword".
+     * Starts a bulk-load window on the tenant's index: refresh is disabled, and replicas are
+     * lowered to {@code parser.bulk-load.replicas} if that is set (it is off by default, since it
+     * leaves the index without redundancy), so a large ingest is not refreshed every second
+     * and replicated write by write. Concurrent sessions on the same index share one window; the
+     * original settings are restored, and the index refreshed once, when the last one closes.
+     * Creates the index (from the findings template) if it does not exist yet.
+     *
+     * @return null in shared storage mode: the window would slow down every other tenant of the index
      */
-    public List<Findings> findAllByTenantAndToolType(Long tenantId, String toolType) {
+    public BulkLoadSession openBulkLoadSession(Long tenantId) throws IOException {
+        if (isSharedStorage()) {
+            return null;
+        }
+        String esIndex = getTenantEsIndex(tenantId);
+        bulkLoadLock.lock();
         try {
-            String esIndex = getTenantEsIndex(tenantId);
+            BulkLoadState state = bulkLoads.get(esIndex);
+            if (state == null) {
+                ensureIndexExists(esIndex);
+                state = captureSettings(esIndex);
+                String replicas = (bulkLoadReplicas >= 0
+                        && Integer.parseInt(state.originalReplicas) > bulkLoadReplicas)
+                        ? String.valueOf(bulkLoadReplicas)
+                        : state.originalReplicas;
+                esClient.indices().putSettings(p -> p
+                        .index(esIndex)
+                        .settings(st -> st
+                                .refreshInterval(t -> t.time(BULK_LOAD_REFRESH))
+                                .numberOfReplicas(replicas)));
+                bulkLoads.put(esIndex, state);
+                System.out.println("Bulk-load session started on " + esIndex + " (refresh_interval=-1, replicas="
+                        + replicas + ", was " + state.originalRefresh + "/" + state.originalReplicas + ")");
+            }
+            state.openSessions++;
+        } finally {
+            bulkLoadLock.unlock();
+        }
+        return new BulkLoadSession(this, esIndex);
+    }
 
-            Query toolTypeTerm = Query.of(q -> q.term(t ->
-                    t.field("toolType.keyword").value(toolType)
-            ));
+    /**
+     * Called by {@link BulkLoadSession#close()}; never throws so it is safe in finally blocks.
+     */
+    void endBulkLoad(String esIndex) {
+        bulkLoadLock.lock();
+        try {
+            BulkLoadState state = bulkLoads.get(esIndex);
+            if (state == null || --state.openSessions > 0) {
+                return;
+            }
+            bulkLoads.remove(esIndex);
+            try {
+                esClient.indices().putSettings(p -> p
+                        .index(esIndex)
+                        .settings(st -> st
+                                .refreshInterval(t -> t.time(state.originalRefresh))
+                                .numberOfReplicas(state.originalReplicas)));
+                esClient.indices().refresh(r -> r.index(esIndex));
+                System.out.println("Bulk-load session ended on " + esIndex + ", settings restored and index refreshed");
+            } catch (IOException | ElasticsearchException e) {
+                System.out.println("Failed to restore settings of " + esIndex + " after bulk load: " + e.getMessage());
+                e.printStackTrace();
+            }
+        } finally {
+            bulkLoadLock.unlock();
+        }
+    }
 
-            SearchRequest req = SearchRequest.of(s -> s
-                    .index(esIndex)
-                    .query(toolTypeTerm)
-                    .size(10000)  // naive upper limit
-            );
-
-            SearchResponse<Findings> res = esClient.search(req, Findings.class);
-            List<Hit<Findings>> hits = res.hits().hits();
-
-            List<Findings> results = new ArrayList<>();
-            for (Hit<Findings> h : hits) {
-                Findings f = h.source();
-                if (f != null) {
-                    // Set the doc's ID from the ES _id
-                    f.setId(h.id());
-                    results.add(f);
+    private void ensureIndexExists(String esIndex) throws IOException {
+        if (esClient.indices().exists(e -> e.index(esIndex)).value()) {
+            return;
+        }
+        try {
+            esClient.indices().create(c -> c.index(esIndex));
+        } catch (ElasticsearchException e) {
+            // another job created it first
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Restores the findings indices that still have the settings of a bulk load no session of this
+     * pod has open, i.e. one whose pod died before it could restore them. A window another pod has
+     * open on the same index loses its refresh_interval=-1 early (that pod restores it again when
+     * it ends), which is slower but not incorrect.
+     *
+     * @return the number of indices restored
+     */
+    public int restoreLeftoverBulkLoads() throws IOException {
+        Map<String, IndexState> indices = esClient.indices()
+                .getSettings(g -> g.index(findingsIndexPatterns).ignoreUnavailable(true).allowNoIndices(true))
+                .result();
+        int restored = 0;
+        for (Map.Entry<String, IndexState> entry : indices.entrySet()) {
+            String esIndex = entry.getKey();
+            IndexSettings settings = indexSettings(entry.getValue());
+            if (!isLeftoverBulkLoad(settings)) {
+                continue;
+            }
+            bulkLoadLock.lock();
+            try {
+                if (bulkLoads.containsKey(esIndex)) {
+                    continue;
                 }
+                BulkLoadState original = originalSettings(esIndex, settings);
+                esClient.indices().putSettings(p -> p
+                        .index(esIndex)
+                        .settings(st -> st
+                                .refreshInterval(t -> t.time(original.originalRefresh))
+                                .numberOfReplicas(original.originalReplicas)));
+                restored++;
+            } finally {
+                bulkLoadLock.unlock();
             }
-            return results;
+        }
+        return restored;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+    private BulkLoadState captureSettings(String esIndex) throws IOException {
+        IndexState state = esClient.indices().getSettings(g -> g.index(esIndex)).get(esIndex);
+        return originalSettings(esIndex, indexSettings(state));
+    }
+
+    /**
+     * The settings to restore when a bulk load on the index ends. A refresh_interval of -1 is what
+     * a bulk load sets, so it is never taken as the original: the ES default is restored instead,
+     * and replicas still lowered to {@code parser.bulk-load.replicas} go back to the template's count.
+     */
+    private BulkLoadState originalSettings(String esIndex, IndexSettings settings) {
+        Time refresh = (settings != null) ? settings.refreshInterval() : null;
+        String replicas = (settings != null) ? settings.numberOfReplicas() : null;
+        String originalRefresh = (refresh != null && refresh.isTime()) ? refresh.time() : DEFAULT_REFRESH;
+        String originalReplicas = (replicas != null) ? replicas : "1";
+        if (isLeftoverBulkLoad(settings)) {
+            System.out.println("Index " + esIndex + " still has the settings of an unfinished bulk load"
+                    + " (refresh_interval=-1, replicas=" + originalReplicas + "); restoring the defaults instead");
+            originalRefresh = DEFAULT_REFRESH;
+            if (bulkLoadReplicas >= 0 && originalReplicas.equals(String.valueOf(bulkLoadReplicas))) {
+                originalReplicas = String.valueOf(Math.max(bulkLoadReplicas, templateReplicas));
+            }
+        }
+        return new BulkLoadState(originalRefresh, originalReplicas);
+    }
+
+    private static boolean isLeftoverBulkLoad(IndexSettings settings) {
+        Time refresh = (settings != null) ? settings.refreshInterval() : null;
+        return refresh != null && refresh.isTime() && BULK_LOAD_REFRESH.equals(refresh.time());
+    }
+
+    private static IndexSettings indexSettings(IndexState state) {
+        IndexSettings settings = (state != null) ? state.settings() : null;
+        if (settings != null && settings.index() != null) {
+            settings = settings.index();
+        }
+        return settings;
+    }
+
+    private static final class BulkLoadState {
+        private final String originalRefresh;
+        private final String originalReplicas;
+        private int openSessions;
+
+        private BulkLoadState(String originalRefresh, String originalReplicas) {
+            this.originalRefresh = originalRefresh;
+            this.originalReplicas = originalReplicas;
+        }
+    }
+
+    /**
+     * Resolves the tenant's index, served from a short-lived cache so multi-file jobs
+     * and per-batch writes don't repeat the tenant lookup.
+     */
+    public String getTenantEsIndex(Long tenantId) {
+        CachedIndex cached = tenantIndexCache.get(tenantId);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.esIndex();
+        }
+        TenantCacheMissEvent miss = new TenantCacheMissEvent();
+        miss.begin();
+        String esIndex = loadTenantEsIndex(tenantId);
+        miss.end();
+        if (miss.shouldCommit()) {
+            miss.tenantId = tenantId;
+            miss.expired = cached != null;
+            miss.index = esIndex;
+            miss.commit();
         }
+        tenantIndexCache.put(tenantId, new CachedIndex(esIndex, now + tenantCacheTtlSeconds * 1000L));
+        return esIndex;
     }
 
     /**
      * Helper: fetches the tenant’s esIndex from the DB. If none found, throw an exception or fallback.
      */
-    private String getTenantEsIndex(Long tenantId) {
-        Optional<TenantEntity> optTenant = tenantRepository.findById(tenantId);
+    private String loadTenantEsIndex(Long tenantId) {
+        Optional<TenantEntity> optTenant = ioPermits.jpa("TenantRepository.findById", () -> tenantRepository.findById(tenantId));
         if (optTenant.isEmpty()) {
             throw new IllegalStateException("No tenant found with id=" + tenantId);
         }
@@ -136,4 +780,7 @@ public class ElasticsearchClientService {
         }
         return esIndex;
     }
+
+    private record CachedIndex(String esIndex, long expiresAt) {
+    }
 }
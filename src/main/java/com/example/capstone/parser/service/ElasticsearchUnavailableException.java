@@ -0,0 +1,16 @@
+package com.example.capstone.parser.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the Elasticsearch circuit breaker is open.
+ * Nothing reached ES, so callers wait and try again without counting it as an attempt.
+ */
+public class ElasticsearchUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ElasticsearchUnavailableException(String message) {
+        super(message);
+    }
+}
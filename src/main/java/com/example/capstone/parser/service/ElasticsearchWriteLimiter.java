@@ -0,0 +1,229 @@
+package com.example.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.example.capstone.parser.concurrent.AdaptiveLimit;
+import com.example.capstone.parser.concurrent.CircuitBreaker;
+import com.example.capstone.parser.concurrent.IoPermits;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Back-pressure for bulk writes to Elasticsearch:
+ * <ul>
+ *   <li>an {@link AdaptiveLimit} on concurrent bulk requests, between {@code min-concurrency} and
+ *       the ES io-permits, cut on rejections (429/503 items, failed requests) and slow responses;</li>
+ *   <li>an AIMD bulk size: halved (by {@code backoff-ratio}) on congestion, grown by
+ *       {@code min-bulk-docs} after each uncongested request, up to {@code max-bulk-docs};</li>
+ *   <li>jittered exponential backoff between retries of rejected items;</li>
+ *   <li>a {@link CircuitBreaker} that opens after consecutive failed requests, so jobs wait
+ *       (without using up their retries) instead of hammering a cluster that is down, and the
+ *       consumer pauses meanwhile.</li>
+ * </ul>
+ */
+@Component
+public class ElasticsearchWriteLimiter {
+
+    @Value("${parser.es.writes.adaptive:true}")
+    private boolean adaptive;
+
+    @Value("${parser.es.writes.min-concurrency:2}")
+    private int minConcurrency;
+
+    @Value("${parser.es.writes.initial-concurrency:8}")
+    private int initialConcurrency;
+
+    @Value("${parser.es.writes.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${parser.es.writes.backoff-ratio:0.7}")
+    private double backoffRatio;
+
+    @Value("${parser.es.writes.min-bulk-docs:100}")
+    private int minBulkDocs;
+
+    @Value("${parser.es.writes.max-bulk-docs:5000}")
+    private int maxBulkDocs;
+
+    @Value("${parser.es.writes.retry.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${parser.es.writes.retry.base-backoff-ms:100}")
+    private long baseBackoffMs;
+
+    @Value("${parser.es.writes.retry.max-backoff-ms:5000}")
+    private long maxBackoffMs;
+
+    @Value("${parser.es.writes.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${parser.es.writes.breaker.open-ms:10000}")
+    private long breakerOpenMs;
+
+    // longest a bulk request waits for an open breaker before its batch fails
+    @Value("${parser.es.writes.breaker.max-wait-ms:120000}")
+    private long breakerMaxWaitMs;
+
+    private final IoPermits ioPermits;
+
+    private AdaptiveLimit concurrency;
+    private CircuitBreaker breaker;
+    private volatile int bulkDocs;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriedDocs = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    public ElasticsearchWriteLimiter(IoPermits ioPermits) {
+        this.ioPermits = ioPermits;
+    }
+
+    @PostConstruct
+    public void init() {
+        int maxConcurrency = ioPermits.getElasticsearchPermits();
+        concurrency = new AdaptiveLimit(minConcurrency, maxConcurrency,
+                adaptive ? initialConcurrency : maxConcurrency, backoffRatio, latencyTolerance, adaptive);
+        breaker = new CircuitBreaker("elasticsearch", breakerFailureThreshold, breakerOpenMs);
+        minBulkDocs = Math.max(1, minBulkDocs);
+        maxBulkDocs = Math.max(minBulkDocs, maxBulkDocs);
+        bulkDocs = maxBulkDocs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        breaker.close();
+    }
+
+    /**
+     * Called with every breaker state change; the consumer uses it to pause while ES is down.
+     */
+    public void addBreakerListener(Consumer<CircuitBreaker.State> listener) {
+        breaker.addListener(listener);
+    }
+
+    /**
+     * Docs to put in the next bulk request.
+     */
+    public int bulkSize() {
+        return bulkDocs;
+    }
+
+    public int getMaxAttempts() {
+        return Math.max(1, maxAttempts);
+    }
+
+    public long getBreakerMaxWaitMs() {
+        return breakerMaxWaitMs;
+    }
+
+    /**
+     * Sends one write request through the breaker, the adaptive limit and the ES bulkhead.
+     * Thrown I/O errors and retryable ES errors count as failures for the breaker.
+     *
+     * @param overloaded tells from a response whether ES rejected part of it (e.g. 429 items)
+     * @throws ElasticsearchUnavailableException when the breaker is open; the caller backs off and retries
+     */
+    public <T> T execute(IoPermits.IoCall<T> call, Predicate<T> overloaded) throws IOException {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            throw new ElasticsearchUnavailableException("Elasticsearch circuit breaker is " + breaker.getState()
+                    + ", retry in " + breaker.remainingOpenMillis() + " ms");
+        }
+        try {
+            concurrency.acquire();
+        } catch (InterruptedException e) {
+            breaker.abandon(permit);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an Elasticsearch write slot");
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        boolean rejected = true;
+        try {
+            T result = ioPermits.elasticsearch(call);
+            failed = false;
+            rejected = overloaded.test(result);
+            return result;
+        } catch (ElasticsearchException e) {
+            failed = isRetryable(e);
+            rejected = failed;
+            throw e;
+        } finally {
+            boolean congested = concurrency.release(System.nanoTime() - start, rejected);
+            adaptBulkSize(congested);
+            if (failed) {
+                failedRequests.incrementAndGet();
+                breaker.onFailure(permit);
+            } else {
+                breaker.onSuccess(permit);
+            }
+        }
+    }
+
+    /**
+     * Whether a request-level ES error is worth retrying (overload / unavailable), as opposed to
+     * a request that will never succeed (bad mapping, missing index, ...).
+     */
+    public boolean isRetryable(ElasticsearchException e) {
+        return isRetryableStatus(e.status());
+    }
+
+    public boolean isRetryableStatus(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Sleeps before retry number {@code attempt} (1-based): a random delay up to
+     * {@code base * 2^(attempt-1)}, capped at {@code max-backoff-ms} ("full jitter", so retries of
+     * jobs rejected together do not come back together), and at least until an open breaker
+     * lets a probe through.
+     */
+    public void backoff(int attempt, int docs) throws InterruptedIOException {
+        retries.incrementAndGet();
+        retriedDocs.addAndGet(docs);
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(20, attempt - 1));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        long openMs = breaker.remainingOpenMillis();
+        if (openMs > 0) {
+            sleepMs = openMs + ThreadLocalRandom.current().nextLong(baseBackoffMs + 1);
+        }
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off an Elasticsearch write");
+        }
+    }
+
+    private void adaptBulkSize(boolean congested) {
+        if (!adaptive) {
+            return;
+        }
+        if (congested) {
+            bulkDocs = Math.max(minBulkDocs, (int) (bulkDocs * backoffRatio));
+        } else if (bulkDocs < maxBulkDocs) {
+            bulkDocs = Math.min(maxBulkDocs, bulkDocs + minBulkDocs);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("adaptive", adaptive);
+        out.put("concurrency", concurrency.snapshot());
+        out.put("bulkDocs", bulkDocs);
+        out.put("retries", retries.get());
+        out.put("retriedDocs", retriedDocs.get());
+        out.put("failedRequests", failedRequests.get());
+        out.put("breaker", breaker.snapshot());
+        return out;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.mapping.DynamicMapping;
+import co.elastic.clients.elasticsearch._types.mapping.IndexOptions;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.indices.GetIndexTemplateResponse;
+import co.elastic.clients.elasticsearch.indices.IndexTemplateSummary;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Installs and verifies the composable index template for findings indices (per-tenant or shared) at startup,
+ * before the Kafka listener starts, so indices auto-created by the first write get explicit
+ * mappings instead of dynamic ones:
+ *  - dedup and filter keys (toolType, alertNumber, severity, state, ...) are plain keywords,
+ *    without the text + .keyword pair dynamic mapping creates
+ *  - title/description are text without norms, and description only indexes term freqs
+ *  - url is stored but not indexed
+ *  - additionalData is one flattened field instead of a mapping per key
+ * A second template ({@code parser.rules.template-name}) maps the rules indices that hold rule
+ * metadata referenced from findings by ruleId / ruleVersion.
+ *
+ * Existing indices keep their mapping; only indices created afterwards pick the template up.
+ */
+@Service
+public class FindingsIndexTemplateService implements SmartInitializingSingleton {
+
+    static final long TEMPLATE_VERSION = 3L;
+
+    @Value("${parser.es.template.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parser.es.template.name:parser-findings}")
+    private String templateName;
+
+    @Value("${parser.es.template.index-patterns:tenant-*,findings-shared*}")
+    private List<String> indexPatterns;
+
+    @Value("${parser.rules.template-name:parser-rules}")
+    private String rulesTemplateName;
+
+    @Value("${parser.rules.index-prefix:rules-}")
+    private String rulesIndexPrefix;
+
+    @Value("${parser.es.template.priority:100}")
+    private long priority;
+
+    @Value("${parser.es.template.shards:1}")
+    private int shards;
+
+    @Value("${parser.es.template.replicas:1}")
+    private int replicas;
+
+    private final ElasticsearchClient esClient;
+
+    public FindingsIndexTemplateService(ElasticsearchClient esClient) {
+        this.esClient = esClient;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            installTemplate();
+            verifyTemplate();
+            installRulesTemplate();
+            verifyTemplate(rulesTemplateName, rulesMapping());
+        } catch (Exception e) {
+            // ES being down at startup must not keep the parser from starting
+            System.out.println("[FindingsIndexTemplateService] Could not install template '"
+                    + templateName + "': " + e.getMessage());
+        }
+    }
+
+    public void installTemplate() throws IOException {
+        esClient.indices().putIndexTemplate(r -> r
+                .name(templateName)
+                .indexPatterns(indexPatterns)
+                .priority(priority)
+                .version(TEMPLATE_VERSION)
+                .template(t -> t
+                        .settings(s -> s
+                                .numberOfShards(String.valueOf(shards))
+                                .numberOfReplicas(String.valueOf(replicas)))
+                        .mappings(findingsMapping()))
+        );
+        System.out.println("[FindingsIndexTemplateService] Installed template '" + templateName
+                + "' v" + TEMPLATE_VERSION + " for " + indexPatterns
+                + " (shards=" + shards + ", replicas=" + replicas + ")");
+    }
+
+    public void installRulesTemplate() throws IOException {
+        List<String> patterns = List.of(rulesIndexPrefix + "*");
+        esClient.indices().putIndexTemplate(r -> r
+                .name(rulesTemplateName)
+                .indexPatterns(patterns)
+                .priority(priority)
+                .version(TEMPLATE_VERSION)
+                .template(t -> t
+                        .settings(s -> s
+                                .numberOfShards("1")
+                                .numberOfReplicas(String.valueOf(replicas)))
+                        .mappings(rulesMapping()))
+        );
+        System.out.println("[FindingsIndexTemplateService] Installed template '" + rulesTemplateName
+                + "' v" + TEMPLATE_VERSION + " for " + patterns);
+    }
+
+    /**
+     * Reads the template back and checks that every expected field has the expected type,
+     * so a template overwritten by someone else shows up in the logs at startup.
+     */
+    public boolean verifyTemplate() throws IOException {
+        return verifyTemplate(templateName, findingsMapping());
+    }
+
+    private boolean verifyTemplate(String name, TypeMapping expectedMapping) throws IOException {
+        GetIndexTemplateResponse resp = esClient.indices().getIndexTemplate(g -> g.name(name));
+        if (resp.indexTemplates().isEmpty()) {
+            System.out.println("[FindingsIndexTemplateService] Template '" + name + "' not found after install");
+            return false;
+        }
+        IndexTemplateSummary summary = resp.indexTemplates().get(0).indexTemplate().template();
+        Map<String, Property> actual = (summary != null && summary.mappings() != null)
+                ? summary.mappings().properties()
+                : Collections.emptyMap();
+        List<String> mismatches = new ArrayList<>();
+        expectedMapping.properties().forEach((field, expected) -> {
+            Property got = actual.get(field);
+            if (got == null || got._kind() != expected._kind()) {
+                mismatches.add(field + " expected " + expected._kind() + " but was "
+                        + (got == null ? "missing" : got._kind()));
+            }
+        });
+        if (!mismatches.isEmpty()) {
+            System.out.println("[FindingsIndexTemplateService] Template '" + name + "' mismatches: " + mismatches);
+            return false;
+        }
+        System.out.println("[FindingsIndexTemplateService] Verified template '" + name + "'");
+        return true;
+    }
+
+    /**
+     * Explicit mapping for {@link com.example.capstone.parser.model.Findings} documents.
+     */
+    public TypeMapping findingsMapping() {
+        return TypeMapping.of(m -> m
+                .dynamic(DynamicMapping.False)
+                .properties("id", p -> p.keyword(k -> k))
+                .properties("tenantId", p -> p.keyword(k -> k))
+                .properties("alertNumber", p -> p.keyword(k -> k))
+                .properties("toolType", p -> p.keyword(k -> k))
+                .properties("severity", p -> p.keyword(k -> k))
+                .properties("state", p -> p.keyword(k -> k))
+                .properties("ticketId", p -> p.keyword(k -> k))
+                .properties("ruleId", p -> p.keyword(k -> k))
+                .properties("ruleVersion", p -> p.keyword(k -> k))
+                .properties("cve", p -> p.keyword(k -> k))
+                .properties("cwe", p -> p.keyword(k -> k))
+                .properties("cvss", p -> p.keyword(k -> k))
+                .properties("createdAt", p -> p.keyword(k -> k))
+                .properties("updatedAt", p -> p.keyword(k -> k))
+                .properties("location", p -> p.keyword(k -> k.ignoreAbove(1024)))
+                .properties("url", p -> p.keyword(k -> k.index(false).docValues(false)))
+                .properties("title", p -> p.text(t -> t
+                        .norms(false)
+                        .fields("raw", f -> f.keyword(k -> k.ignoreAbove(512)))))
+                .properties("description", p -> p.text(t -> t
+                        .norms(false)
+                        .indexOptions(IndexOptions.Freqs)))
+                .properties("additionalData", p -> p.flattened(f -> f))
+        );
+    }
+
+    /**
+     * Explicit mapping for {@link com.example.capstone.parser.model.RuleMetadata} documents.
+     */
+    public TypeMapping rulesMapping() {
+        return TypeMapping.of(m -> m
+                .dynamic(DynamicMapping.False)
+                .properties("tenantId", p -> p.keyword(k -> k))
+                .properties("toolType", p -> p.keyword(k -> k))
+                .properties("ruleId", p -> p.keyword(k -> k))
+                .properties("version", p -> p.keyword(k -> k))
+                .properties("tags", p -> p.keyword(k -> k))
+                .properties("cwe", p -> p.keyword(k -> k))
+                .properties("severity", p -> p.keyword(k -> k))
+                .properties("securitySeverity", p -> p.keyword(k -> k))
+                .properties("firstSeenAt", p -> p.keyword(k -> k))
+                .properties("helpUri", p -> p.keyword(k -> k.index(false).docValues(false)))
+                .properties("name", p -> p.text(t -> t
+                        .norms(false)
+                        .fields("raw", f -> f.keyword(k -> k.ignoreAbove(512)))))
+                .properties("fullDescription", p -> p.text(t -> t
+                        .norms(false)
+                        .indexOptions(IndexOptions.Freqs)))
+        );
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.example.capstone.parser.concurrent.IoPermits;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.FindingsSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains one summary document per tenant + repo with finding counts by
+ * toolType × severity × state. Counts are changed incrementally from the deltas of each flushed
+ * batch (new findings add one; severity/state transitions move one between keys) through an
+ * atomic scripted upsert, so dashboards can read a handful of small documents instead of
+ * aggregating over every tenant index.
+ *
+ * Deltas are best effort (a failed update is logged and lost, and findings indexed before the
+ * feature was enabled were never counted), so {@link #rebuild} recomputes a tenant's summaries
+ * from its findings. It runs on demand and on the first read of a tenant without any summary.
+ */
+@Service
+public class FindingsSummaryService {
+
+    private static final String APPLY_DELTAS_SCRIPT =
+            "if (ctx._source.counts == null) { ctx._source.counts = [:]; }"
+            + " for (entry in params.deltas.entrySet()) {"
+            + "   def current = ctx._source.counts.containsKey(entry.getKey()) ? ctx._source.counts.get(entry.getKey()) : 0;"
+            + "   ctx._source.counts.put(entry.getKey(), current + entry.getValue());"
+            + " }"
+            + " ctx._source.updatedAt = params.now;";
+
+    @Value("${parser.summary.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parser.summary.index:parser-findings-summary}")
+    private String summaryIndex;
+
+    private final ElasticsearchClient esClient;
+    private final ElasticsearchClientService esService;
+    private final IoPermits ioPermits;
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private volatile boolean indexReady;
+
+    public FindingsSummaryService(ElasticsearchClient esClient, ElasticsearchClientService esService, IoPermits ioPermits) {
+        this.esClient = esClient;
+        this.esService = esService;
+        this.ioPermits = ioPermits;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Summary key for a finding's current classification.
+     */
+    public static String keyOf(Findings f) {
+        return f.getToolType() + "|" + f.getSeverity() + "|" + f.getState();
+    }
+
+    /**
+     * Adds the deltas to the tenant/repo summary. Failures are logged, not thrown:
+     * the findings themselves are already committed and the summary is derived data.
+     */
+    public void applyDelta(Long tenantId, String owner, String repo, Map<String, Long> deltas) {
+        if (!enabled || deltas.isEmpty()) {
+            return;
+        }
+        deltas.values().removeIf(v -> v == 0L);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            ensureIndex();
+            FindingsSummary initial = new FindingsSummary(tenantId, owner, repo);
+            ioPermits.elasticsearch(() -> esClient.update(u -> u
+                    .index(summaryIndex)
+                    .id(docId(tenantId, owner, repo))
+                    .retryOnConflict(5)
+                    .scriptedUpsert(true)
+                    .upsert(initial)
+                    .script(sc -> sc
+                            .source(APPLY_DELTAS_SCRIPT)
+                            .params("deltas", JsonData.of(deltas))
+                            .params("now", JsonData.of(System.currentTimeMillis()))),
+                    FindingsSummary.class));
+        } catch (IOException | ElasticsearchException e) {
+            System.out.println("[FindingsSummaryService] Failed to apply summary delta for tenant "
+                    + tenantId + " (" + owner + "/" + repo + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * All summary documents of a tenant, optionally narrowed to one owner and/or repo.
+     */
+    public List<FindingsSummary> findSummaries(Long tenantId, String owner, String repo) throws IOException {
+        ensureIndex();
+        Query query = Query.of(q -> q.bool(b -> {
+            b.filter(f -> f.term(t -> t.field("tenantId").value(tenantId)));
+            if (owner != null && !owner.isBlank()) {
+                b.filter(f -> f.term(t -> t.field("owner").value(owner)));
+            }
+            if (repo != null && !repo.isBlank()) {
+                b.filter(f -> f.term(t -> t.field("repo").value(repo)));
+            }
+            return b;
+        }));
+        SearchResponse<FindingsSummary> res = esClient.search(s -> s
+                .index(summaryIndex)
+                .query(query)
+                .size(10000), FindingsSummary.class);
+        List<FindingsSummary> out = new ArrayList<>();
+        for (Hit<FindingsSummary> h : res.hits().hits()) {
+            if (h.source() != null) {
+                out.add(h.source());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Replaces the tenant's summaries with counts aggregated from its findings, and deletes those
+     * of repos that no longer have any. Deltas of batches committed while it runs may be counted
+     * twice or not at all for the affected repos; rebuilding again once ingest is idle fixes that.
+     *
+     * @return the rebuilt summaries
+     */
+    public List<FindingsSummary> rebuild(Long tenantId) throws IOException {
+        ensureIndex();
+        esService.refreshTenantIndex(tenantId);
+        List<FindingsSummary> rebuilt = esService.countFindingsByRepo(tenantId);
+        long now = System.currentTimeMillis();
+        Set<String> ids = new HashSet<>();
+        for (FindingsSummary summary : rebuilt) {
+            summary.setUpdatedAt(now);
+            String id = docId(tenantId, summary.getOwner(), summary.getRepo());
+            ids.add(id);
+            ioPermits.elasticsearch(() -> esClient.index(i -> i.index(summaryIndex).id(id).document(summary)));
+        }
+        for (FindingsSummary stale : findSummaries(tenantId, null, null)) {
+            String id = docId(tenantId, stale.getOwner(), stale.getRepo());
+            if (!ids.contains(id)) {
+                ioPermits.elasticsearch(() -> esClient.delete(d -> d.index(summaryIndex).id(id)));
+            }
+        }
+        System.out.println("[FindingsSummaryService] Rebuilt " + rebuilt.size() + " summaries of tenant " + tenantId);
+        return rebuilt;
+    }
+
+    private String docId(Long tenantId, String owner, String repo) {
+        return tenantId + ":" + owner + "/" + repo;
+    }
+
+    /**
+     * Creates the summary index on first use. {@code counts} is stored but not indexed,
+     * since it is only ever read back whole.
+     */
+    private void ensureIndex() throws IOException {
+        if (indexReady) {
+            return;
+        }
+        indexLock.lock();
+        try {
+            if (indexReady) {
+                return;
+            }
+            if (!esClient.indices().exists(e -> e.index(summaryIndex)).value()) {
+                try {
+                    esClient.indices().create(c -> c
+                            .index(summaryIndex)
+                            .mappings(m -> m
+                                    .properties("tenantId", p -> p.keyword(k -> k))
+                                    .properties("owner", p -> p.keyword(k -> k))
+                                    .properties("repo", p -> p.keyword(k -> k))
+                                    .properties("updatedAt", p -> p.date(d -> d.format("epoch_millis")))
+                                    .properties("counts", p -> p.object(o -> o.enabled(false)))));
+                } catch (ElasticsearchException e) {
+                    if (!"resource_already_exists_exception".equals(e.error().type())) {
+                        throw e;
+                    }
+                }
+            }
+            indexReady = true;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+}
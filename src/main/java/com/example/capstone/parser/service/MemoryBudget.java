@@ -0,0 +1,215 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.metrics.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for parse jobs against a heap budget. A job's cost is estimated from its
+ * input: {@code bytes * factor(toolType) + job-overhead-bytes}, where the factor approximates how
+ * much heap the converted findings of one byte of export take (they stay in the job's dedup
+ * index until it finishes). A job runs once its cost fits in what is left of the budget;
+ * otherwise it waits, in arrival order, so a large export is not overtaken forever by small ones.
+ * A job larger than the whole budget is admitted alone, once nothing else is running.
+ */
+@Component
+public class MemoryBudget {
+
+    @Value("${parser.memory-budget.enabled:true}")
+    private boolean enabled;
+
+    // budget = heap-fraction x max heap, unless budget-bytes is set
+    @Value("${parser.memory-budget.heap-fraction:0.6}")
+    private double heapFraction;
+
+    @Value("${parser.memory-budget.budget-bytes:0}")
+    private long configuredBudgetBytes;
+
+    @Value("${parser.memory-budget.job-overhead-bytes:8388608}")
+    private long jobOverheadBytes;
+
+    @Value("${parser.memory-budget.default-factor:2.0}")
+    private double defaultFactor;
+
+    // e.g. "SARIF=1.0,DEPENDABOT=2.5"
+    @Value("${parser.memory-budget.tool-factors:}")
+    private String toolFactorsSpec;
+
+    private final Map<String, Double> toolFactors = new HashMap<>();
+    private long budgetBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private long inUseBytes;
+    private long peakInUseBytes;
+    private int runningJobs;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong oversized = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        toolFactors.putAll(parseFactors(toolFactorsSpec));
+        budgetBytes = configuredBudgetBytes > 0
+                ? configuredBudgetBytes
+                : (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        System.out.println("[MemoryBudget] " + (enabled ? "Admitting jobs against " + (budgetBytes >> 20) + " MB"
+                + ", factors " + toolFactors + " (default " + defaultFactor + ")" : "Disabled"));
+    }
+
+    /**
+     * Estimated heap needed to parse {@code inputBytes} of the given tool's export.
+     */
+    public long estimate(String toolType, long inputBytes) {
+        String key = toolType == null ? "" : toolType.toUpperCase(Locale.ROOT);
+        double factor = toolFactors.getOrDefault(key, defaultFactor);
+        return (long) (Math.max(0L, inputBytes) * factor);
+    }
+
+    /**
+     * Blocks until a job estimated at {@code costBytes} (from {@link #estimate}, summed over its
+     * files) fits in the budget. The job's fixed overhead is added here.
+     */
+    public Admission admit(long costBytes) throws InterruptedException {
+        if (!enabled) {
+            return new Admission(0L);
+        }
+        long cost = costBytes + jobOverheadBytes;
+        long start = System.nanoTime();
+        boolean waited = false;
+        lock.lockInterruptibly();
+        try {
+            Waiter self = new Waiter(cost);
+            waiters.addLast(self);
+            try {
+                while (waiters.peekFirst() != self || !fits(cost)) {
+                    waited = true;
+                    released.await();
+                }
+            } catch (InterruptedException e) {
+                waiters.remove(self);
+                released.signalAll();
+                throw e;
+            }
+            waiters.pollFirst();
+            if (cost > budgetBytes) {
+                oversized.incrementAndGet();
+                System.out.println("[MemoryBudget] Admitting a " + (cost >> 20) + " MB job alone (budget "
+                        + (budgetBytes >> 20) + " MB)");
+            }
+            inUseBytes += cost;
+            peakInUseBytes = Math.max(peakInUseBytes, inUseBytes);
+            runningJobs++;
+            // the next job in line may fit as well
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        admitted.incrementAndGet();
+        if (waited) {
+            delayed.incrementAndGet();
+        }
+        waitTime.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Admission(cost);
+    }
+
+    private boolean fits(long cost) {
+        return runningJobs == 0 || inUseBytes + cost <= budgetBytes;
+    }
+
+    private void release(long cost) {
+        lock.lock();
+        try {
+            inUseBytes -= cost;
+            runningJobs--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            long waitingBytes = 0;
+            for (Waiter w : waiters) {
+                waitingBytes += w.cost;
+            }
+            out.put("enabled", enabled);
+            out.put("budgetBytes", budgetBytes);
+            out.put("inUseBytes", inUseBytes);
+            out.put("utilization", budgetBytes == 0 ? 0.0 : Math.round(inUseBytes * 1000.0 / budgetBytes) / 1000.0);
+            out.put("peakInUseBytes", peakInUseBytes);
+            out.put("runningJobs", runningJobs);
+            out.put("waitingJobs", waiters.size());
+            out.put("waitingBytes", waitingBytes);
+        } finally {
+            lock.unlock();
+        }
+        out.put("admitted", admitted.get());
+        out.put("delayed", delayed.get());
+        out.put("oversized", oversized.get());
+        out.put("waitTime", waitTime.snapshot());
+        return out;
+    }
+
+    private static Map<String, Double> parseFactors(String spec) {
+        Map<String, Double> factors = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return factors;
+        }
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid memory-budget tool factor entry: '" + entry + "'");
+            }
+            factors.put(kv[0].trim().toUpperCase(Locale.ROOT), Double.parseDouble(kv[1].trim()));
+        }
+        return factors;
+    }
+
+    // compared by identity: two waiting jobs may have the same cost
+    private static final class Waiter {
+        private final long cost;
+
+        private Waiter(long cost) {
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * The job's share of the budget; closing it more than once is harmless.
+     */
+    public final class Admission implements AutoCloseable {
+        private final long cost;
+        private boolean released;
+
+        private Admission(long cost) {
+            this.cost = cost;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (released || !enabled) {
+                return;
+            }
+            released = true;
+            release(cost);
+        }
+    }
+}
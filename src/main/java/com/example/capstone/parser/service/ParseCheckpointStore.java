@@ -0,0 +1,159 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.backfill.BackfillRunner;
+import com.example.capstone.parser.model.ParseCheckpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Persists {@link ParseCheckpoint}s as one small JSON file per eventId.
+ * Writes go to a temp file and are atomically moved into place, so a crash
+ * mid-write leaves the previous checkpoint intact. The ids of newly indexed findings only
+ * grow, so they are appended to a sidecar {@code .ids} file (one per line) batch by batch
+ * rather than rewritten with every checkpoint.
+ *
+ * A redelivered job may land on any pod of the consumer group, so {@code parser.checkpoint.dir}
+ * must be a volume shared by all of them (e.g. an NFS/EFS mount); with a pod-local directory a
+ * job that moves resumes from nothing and a stale checkpoint can outlive its job. There is no
+ * default directory: without one, checkpoints are turned off (with a warning, except in
+ * {@code --backfill} mode, which never writes them).
+ */
+@Service
+public class ParseCheckpointStore {
+
+    @Value("${parser.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parser.checkpoint.dir:}")
+    private String checkpointDir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ApplicationArguments args;
+
+    public ParseCheckpointStore(ApplicationArguments args) {
+        this.args = args;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled || !checkpointDir.isBlank()) {
+            return;
+        }
+        enabled = false;
+        if (!args.containsOption(BackfillRunner.OPTION)) {
+            System.out.println("ParseCheckpointStore => parser.checkpoint.dir is not set; checkpoints are disabled and"
+                    + " a redelivered job restarts from its first alert. Set it to a directory shared by all parser pods");
+        }
+    }
+
+    /**
+     * Returns the checkpoint for this job, or null if there is none or it was
+     * written against a different version of the file.
+     */
+    public ParseCheckpoint load(String eventId, String filePath) {
+        if (!enabled || eventId == null) {
+            return null;
+        }
+        Path path = pathFor(eventId);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            ParseCheckpoint cp = mapper.readValue(path.toFile(), ParseCheckpoint.class);
+            Path ids = idsPathFor(eventId);
+            if (Files.exists(ids)) {
+                // an id appended by a batch whose checkpoint was never saved was still indexed by
+                // this job, so it is kept; the resumed batch then finds it unchanged
+                LinkedHashSet<String> all = new LinkedHashSet<>(cp.getNewlyIndexedIds());
+                for (String id : Files.readAllLines(ids, StandardCharsets.UTF_8)) {
+                    if (!id.isEmpty()) {
+                        all.add(id);
+                    }
+                }
+                cp.setNewlyIndexedIds(new ArrayList<>(all));
+            }
+            File file = new File(filePath);
+            if (!filePath.equals(cp.getFilePath())
+                    || file.length() != cp.getFileSize()
+                    || file.lastModified() != cp.getFileLastModified()) {
+                System.out.println("[ParseCheckpointStore] Discarding stale checkpoint for eventId=" + eventId);
+                delete(eventId);
+                return null;
+            }
+            return cp;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public ParseCheckpoint newCheckpoint(String eventId, String filePath) {
+        File file = new File(filePath);
+        return new ParseCheckpoint(eventId, filePath, file.length(), file.lastModified());
+    }
+
+    /**
+     * Appends {@code newIds} (the ids the batch just indexed) to the checkpoint's id file, then
+     * atomically replaces the checkpoint itself.
+     */
+    public void save(ParseCheckpoint cp, Collection<String> newIds) throws IOException {
+        if (!enabled || cp.getEventId() == null) {
+            return;
+        }
+        cp.setUpdatedAt(System.currentTimeMillis());
+        Path target = pathFor(cp.getEventId());
+        Files.createDirectories(target.getParent());
+        if (!newIds.isEmpty()) {
+            try (Writer out = Files.newBufferedWriter(idsPathFor(cp.getEventId()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String id : newIds) {
+                    out.write(id);
+                    out.write('\n');
+                }
+            }
+        }
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        mapper.writeValue(tmp.toFile(), cp);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void delete(String eventId) {
+        if (!enabled || eventId == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pathFor(eventId));
+            Files.deleteIfExists(idsPathFor(eventId));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Path pathFor(String eventId) {
+        return Paths.get(checkpointDir, fileNameOf(eventId) + ".json");
+    }
+
+    private Path idsPathFor(String eventId) {
+        return Paths.get(checkpointDir, fileNameOf(eventId) + ".ids");
+    }
+
+    private static String fileNameOf(String eventId) {
+        return eventId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -1,20 +1,50 @@
 package com.example.capstone.parser.service;
 
+import com.example.capstone.parser.concurrent.JobScope;
+import com.example.capstone.parser.concurrent.ParserThreads;
 import com.example.capstone.parser.dto.NewScanRunbookEvent;
-import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.dto.UpdateFindingEvent;
+import com.example.capstone.parser.jfr.BatchEvent;
+import com.example.capstone.parser.jfr.JobEvent;
+import com.example.capstone.parser.jfr.JobStartEvent;
+import com.example.capstone.parser.model.AcknowledgementEvent;
+import com.example.capstone.parser.model.AcknowledgementStatus;
+import com.example.capstone.parser.model.FileParseResult;
+import com.example.capstone.parser.model.FindingChange;
 import com.example.capstone.parser.model.Findings;
 import com.example.capstone.parser.model.NewScanRunbookPayload;
-import com.example.capstone.parser.model.Severity;
+import com.example.capstone.parser.model.ParseCheckpoint;
+import com.example.capstone.parser.model.QuarantinedRecord;
+import com.example.capstone.parser.model.UpdateFindingPayload;
+import com.example.capstone.parser.pipeline.IngestPipeline;
 import com.example.capstone.parser.producer.AcknowledgementProducer;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.capstone.parser.tool.AlertHandler;
+import com.example.capstone.parser.tool.SarifParser;
+import com.example.capstone.parser.tool.ToolParser;
+import com.example.capstone.parser.tool.ToolParserRegistry;
+import com.example.capstone.parser.tracing.ParserTracing;
+import com.example.capstone.parser.tracing.SpanScope;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class ParserService {
@@ -22,114 +52,819 @@ public class ParserService {
     @Value("${kafka.topics.jfc-jobs}")
     private String jfcJobsTopic;
 
+    @Value("${parser.checkpoint.batch-size:500}")
+    private int batchSize;
+
+    @Value("${parser.multi-file.parallelism:4}")
+    private int multiFileParallelism;
+
+    @Value("${parser.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${parser.bulk-load.enabled:true}")
+    private boolean bulkLoadEnabled;
+
+    // jobs at least this large (total bytes of input) run inside a bulk-load session
+    @Value("${parser.bulk-load.threshold-bytes:52428800}")
+    private long bulkLoadThresholdBytes;
+
+    @Value("${parser.update-events.enabled:false}")
+    private boolean updateEventsEnabled;
+
+    // field diffs carried by one UPDATE_FINDING event
+    @Value("${parser.update-events.batch-size:500}")
+    private int updateEventBatchSize;
+
+    // pause before the ack is sent; the load test runs with 0
+    @Value("${parser.ack-delay-ms:2000}")
+    private long ackDelayMs;
+
     private final KafkaTemplate<String, String> kafkaTemplate;
 
     private final ElasticsearchClientService esService;
     private final ObjectMapper mapper;
     private final AcknowledgementProducer acknowledgementProducer; // New field
-
-    public ParserService(ElasticsearchClientService esService, AcknowledgementProducer acknowledgementProducer, KafkaTemplate<String, String> kafkaTemplate) {
+    private final ParseCheckpointStore checkpointStore;
+    private final CompletedJobCache completedJobCache;
+    private final ToolParserRegistry toolParserRegistry;
+    private final StringPoolMetrics stringPoolMetrics;
+    private final FindingsSummaryService summaryService;
+    private final IngestPipeline ingestPipeline;
+    private final DedupLocks dedupLocks;
+    private final MemoryBudget memoryBudget;
+    private final ParserTracing tracing;
+    private final QuarantineWriter quarantineWriter;
+    private final RuleMetadataStore ruleStore;
+    private ExecutorService filePool;
+
+    public ParserService(ElasticsearchClientService esService, AcknowledgementProducer acknowledgementProducer, KafkaTemplate<String, String> kafkaTemplate,
+                         ParseCheckpointStore checkpointStore, CompletedJobCache completedJobCache,
+                         ToolParserRegistry toolParserRegistry, StringPoolMetrics stringPoolMetrics,
+                         FindingsSummaryService summaryService, IngestPipeline ingestPipeline,
+                         DedupLocks dedupLocks, MemoryBudget memoryBudget, ParserTracing tracing,
+                         QuarantineWriter quarantineWriter, RuleMetadataStore ruleStore) {
         this.esService = esService;
         this.acknowledgementProducer = acknowledgementProducer;
+        this.checkpointStore = checkpointStore;
+        this.completedJobCache = completedJobCache;
+        this.toolParserRegistry = toolParserRegistry;
+        this.stringPoolMetrics = stringPoolMetrics;
+        this.summaryService = summaryService;
+        this.ingestPipeline = ingestPipeline;
+        this.dedupLocks = dedupLocks;
+        this.memoryBudget = memoryBudget;
+        this.tracing = tracing;
+        this.quarantineWriter = quarantineWriter;
+        this.ruleStore = ruleStore;
         this.mapper = new ObjectMapper();
         this.kafkaTemplate = kafkaTemplate;
     }
 
+    @PostConstruct
+    public void init() {
+        filePool = ParserThreads.executor("parse-file-", virtualThreads, multiFileParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        filePool.shutdownNow();
+    }
+
     /**
-     * Parses the file and indexes the alerts.
+     * Parses the file and indexes the alerts, once the job's estimated heap cost fits in the
+     * {@link MemoryBudget}.
+     * Writes are flushed to ES in batches of {@code parser.checkpoint.batch-size}; after every
+     * flush a checkpoint is saved, and a redelivered job with the same eventId resumes from it.
      *
      * @param tenantId the tenant identifier
      * @param filePath the path to the alerts file
      * @param toolType the type of tool (e.g., CODE_SCANNING, DEPENDABOT, SECRET_SCANNING)
      * @param eventId  the original eventId for this parse job (to be used in the ack)
+     * @return whether the job's ack was sent; if not, its offset must not be committed
      */
-    public void parseFileAndIndex(Long tenantId, String filePath, String toolType, String eventId) {
-        boolean success = false;
-        List<String> newlyIndexedIds = new ArrayList<>();
-        try {
-            // 1) Read raw alerts from file
-            List<Map<String, Object>> rawAlerts = mapper.readValue(
-                    new File(filePath),
-                    new TypeReference<>() {}
-            );
-
-            // 2) Optionally parse owner/repo from folder name
-            String[] ownerRepo = parseOwnerRepoFromPath(filePath);
-            String parsedOwner = ownerRepo[0];
-            String parsedRepo  = ownerRepo[1];
-
-            System.out.println("ParserService => Found " + rawAlerts.size()
-                    + " alerts for tool " + toolType
-                    + " in tenant " + tenantId
-                    + " => (" + parsedOwner + "/" + parsedRepo + ")");
-
-            // 3) Convert, deduplicate, and store each alert
-            for (Map<String, Object> alert : rawAlerts) {
-                Findings f = convertToFindings(toolType, alert);
-
-                // Include tenantId, owner, repo in additionalData
-                Map<String, Object> addData = (f.getAdditionalData() != null)
-                        ? f.getAdditionalData()
-                        : new HashMap<>();
-                addData.put("tenantId", tenantId);
-                addData.put("owner", parsedOwner);
-                addData.put("repo", parsedRepo);
-                f.setAdditionalData(addData);
-
-                // Deduplicate & store
-                boolean isNew = deduplicateAndStore(tenantId, f);
-                if (isNew) {
-                    newlyIndexedIds.add(f.getId());
+    public boolean parseFileAndIndex(Long tenantId, String filePath, String toolType, String eventId) {
+        return parseFileAndIndex(tenantId, filePath, toolType, eventId, null);
+    }
+
+    /**
+     * As {@link #parseFileAndIndex(Long, String, String, String)}, for a caller that already owns
+     * the job's dedup partitions ({@link #dedupToolTypes}); the lease is released when the job ends.
+     */
+    public boolean parseFileAndIndex(Long tenantId, String filePath, String toolType, String eventId,
+                                     DedupLocks.Lease heldLease) {
+        try (SpanScope jobSpan = tracing.span("parser.job")
+                .attribute("parser.event_id", eventId)
+                .attribute("parser.tenant_id", tenantId)
+                .attribute("parser.tool_type", toolType)
+                .attribute("parser.file", filePath)) {
+            JobEvent jobEvent = new JobEvent();
+            jobEvent.begin();
+            FileParseResult result = new FileParseResult(filePath, toolType);
+            StringPool stringPool = stringPoolMetrics.newPool();
+            MemoryBudget.Admission admission = null;
+            BulkLoadSession bulkLoad = null;
+            DedupLocks.Lease dedupLease = heldLease;
+            boolean acknowledged = false;
+            try {
+                long fileBytes = new File(filePath).length();
+                jobStarted(jobEvent, eventId, tenantId, toolType, 1, fileBytes);
+                admission = admit(memoryBudget.estimate(toolType, fileBytes));
+                bulkLoad = openBulkLoadIfLarge(tenantId, fileBytes);
+                dedupLease = acquireDedupLease(tenantId, List.of(toolType), dedupLease);
+                DedupIndex dedupIndex = loadDedupIndex(tenantId, toolType, stringPool);
+                result = processFile(tenantId, filePath, toolType, eventId, dedupIndex, stringPool, batchSize, true);
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                if (bulkLoad != null) {
+                    bulkLoad.close();
+                }
+                releaseDedupLease(dedupLease, tenantId);
+                if (admission != null) {
+                    admission.close();
+                }
+                logStringPool(eventId, stringPool);
+
+                if (ackDelayMs > 0) {
+                    try {
+                        Thread.sleep(ackDelayMs);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                boolean success = result.isSuccess();
+                if (!success) {
+                    jobSpan.fail(result.getError() != null ? result.getError() : "job failed");
                 }
+                jobFinished(jobEvent, List.of(result), success);
+                AcknowledgementEvent ackEvent = new AcknowledgementEvent(eventId);
+                ackEvent.setStatus(success ? AcknowledgementStatus.SUCCESS : AcknowledgementStatus.FAILURE);
+                ackEvent.setSucceededRecords(result.getSucceededRecords());
+                ackEvent.setQuarantinedRecords(result.getQuarantinedRecords());
+                String ackJson = acknowledgementProducer.sendParseAcknowledgement(ackEvent);
+                acknowledged = ackJson != null;
+                if (!acknowledged) {
+                    // keep the checkpoint: the redelivered job resumes at the end and only re-sends the ack
+                    jobSpan.fail("acknowledgement not sent");
+                } else if (success) {
+                    if (!result.getNewlyIndexedIds().isEmpty()) {
+                        emitNewScanEvent(tenantId, toolType, result.getNewlyIndexedIds());
+                    }
+                    completedJobCache.record(eventId, ackJson);
+                    checkpointStore.delete(eventId);
+                }
+            }
+            return acknowledged;
+        }
+    }
+
+    /**
+     * Acknowledges a job that was never parsed because a newer export of the same repo and tool
+     * replaced it in the queue: SUCCESS, marked {@code superseded} with the eventId that replaced it.
+     * The ack is recorded like any completed job so a redelivery replays it instead of parsing the
+     * stale file, and any checkpoint left by an earlier, interrupted attempt is dropped.
+     */
+    public boolean acknowledgeSuperseded(String eventId, String supersededBy) {
+        try (SpanScope span = tracing.span("parser.job.superseded")
+                .attribute("parser.event_id", eventId)
+                .attribute("parser.superseded_by", supersededBy)) {
+            AcknowledgementEvent ackEvent = new AcknowledgementEvent(eventId);
+            ackEvent.setStatus(AcknowledgementStatus.SUCCESS);
+            ackEvent.setSuperseded(true);
+            ackEvent.setSupersededBy(supersededBy);
+            String ackJson = acknowledgementProducer.sendParseAcknowledgement(ackEvent);
+            if (ackJson == null) {
+                span.fail("acknowledgement not sent");
+                return false;
             }
-            success = true;
+            completedJobCache.record(eventId, ackJson);
+            checkpointStore.delete(eventId);
+            System.out.println("ParserService => eventId=" + eventId + " superseded by " + supersededBy + ", not parsed");
+            return true;
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
+    /**
+     * Parses several files (a manifest and/or every alert file under a directory) as one job.
+     * Files are processed in parallel on {@code parser.multi-file.parallelism} threads and share
+     * one tenant lookup and one dedup index per tool type. A single acknowledgement carrying
+     * per-file results is sent, and one NEW_SCAN event per tool type.
+     *
+     * @param toolType the tool for every file, or null/"AUTO" to deduce it from each file's path
+     * @return whether the job's ack was sent; if not, its offset must not be committed
+     */
+    public boolean parseFilesAndIndex(Long tenantId, List<String> paths, String toolType, String eventId) {
+        return parseFilesAndIndex(tenantId, paths, toolType, eventId, null);
+    }
 
+    /**
+     * As {@link #parseFilesAndIndex(Long, List, String, String)}, for a caller that already owns
+     * the job's dedup partitions ({@link #dedupToolTypes}); the lease is released when the job ends.
+     */
+    public boolean parseFilesAndIndex(Long tenantId, List<String> paths, String toolType, String eventId,
+                                      DedupLocks.Lease heldLease) {
+        try (SpanScope jobSpan = tracing.span("parser.job")
+                .attribute("parser.event_id", eventId)
+                .attribute("parser.tenant_id", tenantId)
+                .attribute("parser.tool_type", toolType)
+                .attribute("parser.files", paths.size())) {
+            JobEvent jobEvent = new JobEvent();
+            jobEvent.begin();
+            List<FileParseResult> results = new ArrayList<>();
+            List<String> files = new ArrayList<>();
+            StringPool stringPool = stringPoolMetrics.newPool();
+            MemoryBudget.Admission admission = null;
+            BulkLoadSession bulkLoad = null;
+            DedupLocks.Lease dedupLease = heldLease;
+            boolean completed = false;
+            boolean acknowledged = false;
             try {
-                Thread.sleep(2000);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
+                files = expandFiles(paths);
+                esService.getTenantEsIndex(tenantId); // fail fast on unknown tenants, warms the cache
+                long totalBytes = 0;
+                long estimatedHeap = 0;
+                for (String file : files) {
+                    long fileBytes = new File(file).length();
+                    totalBytes += fileBytes;
+                    estimatedHeap += memoryBudget.estimate(resolveToolType(toolType, file), fileBytes);
+                }
+                jobStarted(jobEvent, eventId, tenantId, toolType, files.size(), totalBytes);
+                admission = admit(estimatedHeap);
+                bulkLoad = openBulkLoadIfLarge(tenantId, totalBytes);
+
+                // One dedup index per tool, loaded concurrently once the job owns those partitions
+                Set<String> tools = new LinkedHashSet<>();
+                for (String file : files) {
+                    tools.add(resolveToolType(toolType, file));
+                }
+                dedupLease = acquireDedupLease(tenantId, tools, dedupLease);
+                Map<String, DedupIndex> dedupByTool = new HashMap<>();
+                try (JobScope scope = new JobScope(filePool)) {
+                    Map<String, JobScope.Subtask<DedupIndex>> loads = new LinkedHashMap<>();
+                    for (String tool : tools) {
+                        loads.put(tool, scope.fork(() -> loadDedupIndex(tenantId, tool, stringPool)));
+                    }
+                    scope.join().throwIfFailed();
+                    loads.forEach((tool, load) -> dedupByTool.put(tool, load.get()));
+                }
+                System.out.println("ParserService => Multi-file job " + eventId + ": " + files.size()
+                        + " files, tools " + dedupByTool.keySet() + " in tenant " + tenantId);
+
+                // Files run concurrently (at most multi-file.parallelism at a time); the first failed
+                // file cancels the rest, whose progress is kept in their checkpoints for the retry
+                FileParseResult[] fileResults = new FileParseResult[files.size()];
+                Semaphore fileSlots = new Semaphore(multiFileParallelism);
+                try (JobScope scope = new JobScope(filePool)) {
+                    for (int i = 0; i < files.size(); i++) {
+                        int fileIndex = i;
+                        String file = files.get(i);
+                        String fileTool = resolveToolType(toolType, file);
+                        String checkpointId = fileCheckpointId(eventId, i);
+                        scope.fork(() -> {
+                            fileSlots.acquire();
+                            try {
+                                FileParseResult r = processFile(tenantId, file, fileTool, checkpointId,
+                                        dedupByTool.get(fileTool), stringPool, batchSize, true);
+                                fileResults[fileIndex] = r;
+                                if (!r.isSuccess()) {
+                                    throw new IOException(file + ": " + r.getError());
+                                }
+                                return r;
+                            } finally {
+                                fileSlots.release();
+                            }
+                        });
+                    }
+                    scope.join();
+                }
+                for (int i = 0; i < files.size(); i++) {
+                    FileParseResult r = fileResults[i];
+                    if (r == null) {
+                        r = new FileParseResult(files.get(i), resolveToolType(toolType, files.get(i)));
+                        r.setError("Cancelled after another file of the job failed");
+                    }
+                    results.add(r);
+                }
+                completed = true;
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                if (bulkLoad != null) {
+                    bulkLoad.close();
+                }
+                releaseDedupLease(dedupLease, tenantId);
+                if (admission != null) {
+                    admission.close();
+                }
+                logStringPool(eventId, stringPool);
 
-            acknowledgementProducer.sendParseAcknowledgement(eventId, success);
+                if (ackDelayMs > 0) {
+                    try {
+                        Thread.sleep(ackDelayMs);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
 
-            if (success && !newlyIndexedIds.isEmpty()) {
-                emitNewScanEvent(tenantId, toolType, newlyIndexedIds);
+                boolean success = completed && results.stream().allMatch(FileParseResult::isSuccess);
+                if (!success) {
+                    jobSpan.fail("job failed");
+                }
+                jobFinished(jobEvent, results, success);
+                AcknowledgementEvent ackEvent = new AcknowledgementEvent(eventId);
+                ackEvent.setStatus(success ? AcknowledgementStatus.SUCCESS : AcknowledgementStatus.FAILURE);
+                ackEvent.setFileResults(results);
+                ackEvent.setSucceededRecords(results.stream().mapToInt(FileParseResult::getSucceededRecords).sum());
+                ackEvent.setQuarantinedRecords(results.stream().mapToInt(FileParseResult::getQuarantinedRecords).sum());
+                String ackJson = acknowledgementProducer.sendParseAcknowledgement(ackEvent);
+                acknowledged = ackJson != null;
+                if (!acknowledged) {
+                    jobSpan.fail("acknowledgement not sent");
+                } else if (success) {
+                    Map<String, List<String>> newIdsByTool = new LinkedHashMap<>();
+                    for (FileParseResult r : results) {
+                        newIdsByTool.computeIfAbsent(r.getToolType(), t -> new ArrayList<>()).addAll(r.getNewlyIndexedIds());
+                    }
+                    newIdsByTool.forEach((tool, ids) -> {
+                        if (!ids.isEmpty()) {
+                            emitNewScanEvent(tenantId, tool, ids);
+                        }
+                    });
+                    completedJobCache.record(eventId, ackJson);
+                    for (int i = 0; i < files.size(); i++) {
+                        checkpointStore.delete(fileCheckpointId(eventId, i));
+                    }
+                }
             }
+            return acknowledged;
         }
     }
 
-    private boolean deduplicateAndStore(Long tenantId, Findings newDoc) {
-        String newCompositeHash = computeCompositeKeyHash(newDoc);
+    /**
+     * Re-ingests archived files of one tenant and tool without Kafka: the dedup index is loaded
+     * once, and each repo's files are replayed in export order (see {@link #exportOrder}) one
+     * after the other, so a later export's state wins over an earlier one's. Repos run in parallel
+     * on {@code pool}. No acknowledgement, NEW_SCAN/UPDATE_FINDING event or checkpoint is written
+     * and there is no post-job delay; used by the offline backfill mode.
+     *
+     * @param flushSize alerts per bulk write
+     */
+    public List<FileParseResult> replayFiles(Long tenantId, String toolType, List<String> files,
+                                             ExecutorService pool, int flushSize) throws InterruptedException, IOException {
+        Map<String, List<String>> byRepo = new TreeMap<>();
+        for (String file : files) {
+            String repo;
+            try {
+                String[] ownerRepo = parseOwnerRepoFromPath(file);
+                repo = ownerRepo[0] + "/" + ownerRepo[1];
+            } catch (RuntimeException e) {
+                repo = "";  // no repo in the path: such files share one sequence
+            }
+            byRepo.computeIfAbsent(repo, r -> new ArrayList<>()).add(file);
+        }
+        List<FileParseResult> results = new ArrayList<>();
+        StringPool stringPool = stringPoolMetrics.newPool();
+        DedupLocks.Lease dedupLease = dedupLocks.acquire(tenantId, List.of(toolType));
+        try {
+            DedupIndex dedupIndex = loadDedupIndex(tenantId, toolType, stringPool);
+            List<Future<List<FileParseResult>>> futures = new ArrayList<>();
+            for (List<String> repoFiles : byRepo.values()) {
+                repoFiles.sort(exportOrder());
+                futures.add(pool.submit(() -> {
+                    List<FileParseResult> repoResults = new ArrayList<>();
+                    for (String file : repoFiles) {
+                        repoResults.add(processFile(tenantId, file, toolType, null, dedupIndex, stringPool, flushSize, false));
+                    }
+                    return repoResults;
+                }));
+            }
+            for (Future<List<FileParseResult>> future : futures) {
+                try {
+                    results.addAll(future.get());
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            releaseDedupLease(dedupLease, tenantId);
+            stringPoolMetrics.jobFinished(stringPool);
+        }
+        return results;
+    }
 
-        // fetch existing docs for the same tenant + tool type
-        List<Findings> existingDocs = esService.findAllByTenantAndToolType(tenantId, newDoc.getToolType());
+    /**
+     * Oldest export first: by the number the exporter prefixes the export directory with
+     * ({@code <n>_<owner>-<repo>/...}, a sequence or timestamp), else by the file's modification
+     * time, then by path.
+     */
+    static Comparator<String> exportOrder() {
+        return Comparator.comparingLong(ParserService::exportSequence).thenComparing(Comparator.naturalOrder());
+    }
 
-        for (Findings oldDoc : existingDocs) {
-            String oldCompositeHash = computeCompositeKeyHash(oldDoc);
-            if (Objects.equals(oldCompositeHash, newCompositeHash)) {
-                String newUpdatableHash = computeUpdatableHash(newDoc);
-                String oldUpdatableHash = computeUpdatableHash(oldDoc);
+    private static long exportSequence(String filePath) {
+        File f = new File(filePath);
+        File exportDir = (f.getParentFile() != null) ? f.getParentFile().getParentFile() : null;
+        if (exportDir != null) {
+            String name = exportDir.getName();
+            int underscoreIdx = name.indexOf('_');
+            if (underscoreIdx > 0) {
+                try {
+                    return Long.parseLong(name.substring(0, underscoreIdx));
+                } catch (NumberFormatException e) {
+                    // not a sequence prefix
+                }
+            }
+        }
+        return f.lastModified();
+    }
 
-                if (Objects.equals(newUpdatableHash, oldUpdatableHash)) {
-                    System.out.println("Skipping duplicate => " + newCompositeHash);
-                    return false;
+    /**
+     * Reads, converts, deduplicates and stores one file. Never throws: failures are
+     * reported through the returned result so multi-file jobs can report them per file.
+     * Alerts that fail conversion are quarantined (see {@link QuarantineWriter}) and the file
+     * carries on; it only fails if it cannot be read or has too many of them.
+     *
+     * @param checkpointId key under which this file's progress is checkpointed (null disables it)
+     * @param stringPool   the job's pool for repeated field values
+     * @param flushSize    alerts per bulk write
+     * @param publishUpdates whether committed batches emit UPDATE_FINDING events for their diffs
+     */
+    private FileParseResult processFile(Long tenantId, String filePath, String toolType,
+                                        String checkpointId, DedupIndex dedupIndex, StringPool stringPool,
+                                        int flushSize, boolean publishUpdates) {
+        FileParseResult result = new FileParseResult(filePath, toolType);
+        ParseCheckpoint progress = null;
+        try (SpanScope span = tracing.span("job.parse-file")
+                .attribute("parser.file", filePath)
+                .attribute("parser.tool_type", toolType)
+                .attribute("parser.file_bytes", new File(filePath).length())) {
+            try {
+                // 1) Pick the parser for this tool and parse owner/repo from folder name
+                ToolParser toolParser = toolParserRegistry.get(toolType);
+                String[] ownerRepo = parseOwnerRepoFromPath(filePath);
+                String parsedOwner = stringPool.canonicalize(ownerRepo[0]);
+                String parsedRepo  = stringPool.canonicalize(ownerRepo[1]);
+
+                // 2) Resume from the last committed batch if this job was interrupted before
+                ParseCheckpoint checkpoint = checkpointStore.load(checkpointId, filePath);
+                if (checkpoint != null) {
+                    result.getNewlyIndexedIds().addAll(checkpoint.getNewlyIndexedIds());
+                    System.out.println("ParserService => Resuming " + checkpointId
+                            + " at alert " + checkpoint.getAlertIndex());
                 } else {
-                    newDoc.setId(oldDoc.getId());
-                    esService.updateFindings(tenantId, newDoc);
-                    System.out.println("Updated => " + newCompositeHash);
-                    return false;
+                    checkpoint = checkpointStore.newCheckpoint(checkpointId, filePath);
                 }
+                ParseCheckpoint cp = checkpoint;
+                progress = cp;
+                AtomicInteger quarantined = new AtomicInteger();
+
+                // 3) Stream, convert, deduplicate, and store each alert, flushing in batches
+                int alertCount;
+                if (ingestPipeline.isEnabledFor(new File(filePath).length())) {
+                    alertCount = ingestPipeline.run(cp.getAlertIndex(), flushSize, new IngestPipeline.Stages() {
+                        @Override
+                        public int read(AlertHandler sink) throws Exception {
+                            return toolParser.readAlerts(new File(filePath), cp.getAlertIndex(), sink);
+                        }
+
+                        @Override
+                        public Findings convert(int index, Object alert) throws IOException {
+                            return convertOrQuarantine(toolParser, index, alert, tenantId, parsedOwner, parsedRepo,
+                                    stringPool, checkpointId, filePath, quarantined);
+                        }
+
+                        @Override
+                        public void dedup(Findings finding, WriteBatch batch) {
+                            countOutcome(result, deduplicateAndStore(dedupIndex, finding, batch));
+                        }
+
+                        @Override
+                        public void write(WriteBatch batch, int nextAlertIndex) throws IOException {
+                            flushBatch(tenantId, toolType, publishUpdates, parsedOwner, parsedRepo, batch, result.getNewlyIndexedIds(), cp, nextAlertIndex);
+                        }
+                    });
+                } else {
+                    WriteBatch batch = new WriteBatch();
+                    alertCount = toolParser.readAlerts(new File(filePath), cp.getAlertIndex(), (i, alert) -> {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Cancelled at alert " + i);
+                        }
+                        long start = System.nanoTime();
+                        Findings f = convertOrQuarantine(toolParser, i, alert, tenantId, parsedOwner, parsedRepo,
+                                stringPool, checkpointId, filePath, quarantined);
+                        long converted = System.nanoTime();
+                        if (f == null) {
+                            batch.recordQuarantined(converted - start);
+                            return;
+                        }
+                        countOutcome(result, deduplicateAndStore(dedupIndex, f, batch));
+                        batch.recordAlert(converted - start, System.nanoTime() - converted);
+                        if (batch.size() >= flushSize) {
+                            flushBatch(tenantId, toolType, publishUpdates, parsedOwner, parsedRepo, batch, result.getNewlyIndexedIds(), cp, i + 1);
+                        }
+                    });
+                    flushBatch(tenantId, toolType, publishUpdates, parsedOwner, parsedRepo, batch, result.getNewlyIndexedIds(), cp, alertCount);
+                }
+
+                System.out.println("ParserService => Processed " + alertCount
+                        + " alerts for tool " + toolType
+                        + " in tenant " + tenantId
+                        + " => (" + parsedOwner + "/" + parsedRepo + ")"
+                        + (quarantined.get() > 0 ? ", " + quarantined.get() + " quarantined" : ""));
+                result.setStatus(AcknowledgementStatus.SUCCESS);
+
+            } catch (Exception e) {
+                e.printStackTrace();
+                result.setStatus(AcknowledgementStatus.FAILURE);
+                result.setError(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            if (progress != null) {
+                // committed batches only, over every run of the job
+                result.setSucceededRecords(progress.getSucceededRecords());
+                result.setQuarantinedRecords(progress.getQuarantinedRecords());
+            }
+            span.attribute("parser.alerts.new", result.getNewFindings())
+                    .attribute("parser.alerts.updated", result.getUpdatedFindings())
+                    .attribute("parser.alerts.unchanged", result.getUnchangedFindings())
+                    .attribute("parser.alerts.quarantined", result.getQuarantinedRecords());
+            if (!result.isSuccess()) {
+                span.fail(result.getError());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts one raw alert, or quarantines it and returns null if it is malformed (not a JSON
+     * object, or the tool parser throws on it). Throws instead when quarantining is off, when the
+     * record cannot be quarantined, or once the file has more than {@code max-per-file} of them.
+     */
+    private Findings convertOrQuarantine(ToolParser toolParser, int index, Object alert, Long tenantId,
+                                         String owner, String repo, StringPool stringPool,
+                                         String checkpointId, String filePath, AtomicInteger quarantined) throws IOException {
+        try {
+            return toFinding(toolParser, alert, tenantId, owner, repo, stringPool);
+        } catch (RuntimeException e) {
+            if (!quarantineWriter.isEnabled()) {
+                throw e;
+            }
+            quarantineWriter.quarantine(new QuarantinedRecord(checkpointId, tenantId, toolParser.getToolType(),
+                    filePath, index, e.getClass().getSimpleName() + ": " + e.getMessage(), alert), quarantined);
+            return null;
+        }
+    }
+
+    /**
+     * Converts a raw alert and tags it with its tenantId, plus tenantId, owner and repo in additionalData.
+     */
+    @SuppressWarnings("unchecked")
+    private Findings toFinding(ToolParser toolParser, Object alert, Long tenantId,
+                               String owner, String repo, StringPool stringPool) {
+        if (!(alert instanceof Map)) {
+            throw new IllegalArgumentException("Expected an alert object but found "
+                    + (alert == null ? "null" : alert.getClass().getSimpleName()));
+        }
+        Findings f = toolParser.convert((Map<String, Object>) alert);
+        f.setTenantId(tenantId);
+        Map<String, Object> addData = (f.getAdditionalData() != null)
+                ? f.getAdditionalData()
+                : new HashMap<>();
+        addData.put("tenantId", tenantId);
+        addData.put("owner", owner);
+        addData.put("repo", repo);
+        f.setAdditionalData(addData);
+        canonicalize(f, stringPool);
+        return f;
+    }
+
+    private void countOutcome(FileParseResult result, DedupOutcome outcome) {
+        switch (outcome) {
+            case NEW -> result.setNewFindings(result.getNewFindings() + 1);
+            case UPDATED -> result.setUpdatedFindings(result.getUpdatedFindings() + 1);
+            case UNCHANGED -> result.setUnchangedFindings(result.getUnchangedFindings() + 1);
+        }
+    }
+
+    /**
+     * Writes the pending batch in one bulk request, applies its summary deltas and publishes its
+     * field diffs, then advances the checkpoint to {@code nextAlertIndex}. If the bulk write
+     * throws, the checkpoint still points at the start of this batch.
+     * Diffs go out per committed batch rather than with the ack: a resumed job no longer sees the
+     * old values of batches it already wrote, so holding them until the end would lose them.
+     *
+     * @param publishUpdates whether to publish UPDATE_FINDING events for the batch's diffs
+     */
+    private void flushBatch(Long tenantId, String toolType, boolean publishUpdates, String owner, String repo, WriteBatch batch,
+                            List<String> newlyIndexedIds, ParseCheckpoint checkpoint, int nextAlertIndex) throws IOException {
+        BatchEvent event = batchEvent(tenantId, toolType, batch);
+        try (SpanScope span = tracing.span("job.flush").attribute("parser.docs", batch.size())) {
+            try {
+                commitBatch(tenantId, publishUpdates ? toolType : null, owner, repo, batch, newlyIndexedIds, checkpoint, nextAlertIndex);
+            } catch (IOException | RuntimeException e) {
+                span.fail(e);
+                throw e;
+            }
+        }
+        if (event.alerts > 0) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Flight recorder event for a batch about to be written; filled in only when someone records it.
+     */
+    private BatchEvent batchEvent(Long tenantId, String toolType, WriteBatch batch) {
+        BatchEvent event = new BatchEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.tenantId = tenantId;
+            event.toolType = toolType;
+            event.alerts = batch.getAlerts();
+            event.docs = batch.size();
+            event.newFindings = batch.getNewIds().size();
+            event.updatedFindings = batch.getChanges().size();
+            event.quarantined = batch.getQuarantined();
+            event.convertTime = batch.getConvertNanos();
+            event.dedupTime = batch.getDedupNanos();
+        }
+        return event;
+    }
+
+    private void jobStarted(JobEvent jobEvent, String eventId, Long tenantId, String toolType, int files, long fileBytes) {
+        JobStartEvent start = new JobStartEvent();
+        if (start.isEnabled()) {
+            start.eventId = eventId;
+            start.tenantId = tenantId;
+            start.toolType = toolType;
+            start.files = files;
+            start.fileBytes = fileBytes;
+            start.commit();
+        }
+        jobEvent.eventId = eventId;
+        jobEvent.tenantId = tenantId;
+        jobEvent.toolType = toolType;
+        jobEvent.files = files;
+        jobEvent.fileBytes = fileBytes;
+    }
+
+    private void jobFinished(JobEvent jobEvent, List<FileParseResult> results, boolean success) {
+        jobEvent.end();
+        if (!jobEvent.shouldCommit()) {
+            return;
+        }
+        for (FileParseResult r : results) {
+            jobEvent.newFindings += r.getNewFindings();
+            jobEvent.updatedFindings += r.getUpdatedFindings();
+            jobEvent.unchangedFindings += r.getUnchangedFindings();
+            jobEvent.quarantined += r.getQuarantinedRecords();
+        }
+        jobEvent.alerts = jobEvent.newFindings + jobEvent.updatedFindings + jobEvent.unchangedFindings;
+        jobEvent.success = success;
+        jobEvent.commit();
+    }
+
+    private void commitBatch(Long tenantId, String updatesToolType, String owner, String repo, WriteBatch batch,
+                             List<String> newlyIndexedIds, ParseCheckpoint checkpoint, int nextAlertIndex) throws IOException {
+        List<String> batchNewIds = List.of();
+        if (batch.size() > 0) {
+            ruleStore.normalize(tenantId, batch.getDocs());
+            esService.bulkIndexFindings(tenantId, batch.getDocs());
+            batchNewIds = List.copyOf(batch.getNewIds());
+            newlyIndexedIds.addAll(batchNewIds);
+            summaryService.applyDelta(tenantId, owner, repo, batch.getSummaryDelta());
+            if (updatesToolType != null && !batch.getChanges().isEmpty()) {
+                emitUpdateFindingEvents(tenantId, updatesToolType, batch.getChanges());
+            }
+        }
+        checkpoint.setSucceededRecords(checkpoint.getSucceededRecords() + batch.getAlerts() - batch.getQuarantined());
+        checkpoint.setQuarantinedRecords(checkpoint.getQuarantinedRecords() + batch.getQuarantined());
+        batch.clear();
+        if (nextAlertIndex == checkpoint.getAlertIndex() && batchNewIds.isEmpty()) {
+            return;
+        }
+        checkpoint.setAlertIndex(nextAlertIndex);
+        checkpoint.setCommittedBatches(checkpoint.getCommittedBatches() + 1);
+        checkpointStore.save(checkpoint, batchNewIds);
+    }
+
+    @SuppressWarnings("try")
+    private MemoryBudget.Admission admit(long estimatedHeapBytes) throws InterruptedException {
+        try (SpanScope span = tracing.span("job.memory-admission").attribute("parser.estimated_heap_bytes", estimatedHeapBytes)) {
+            return memoryBudget.admit(estimatedHeapBytes);
+        }
+    }
+
+    /**
+     * The job's dedup partitions: {@code heldLease} if it already covers them (the scheduler took
+     * them at dispatch), otherwise they are acquired here, blocking until they are free.
+     */
+    @SuppressWarnings("try")
+    private DedupLocks.Lease acquireDedupLease(Long tenantId, Collection<String> toolTypes, DedupLocks.Lease heldLease)
+            throws InterruptedException {
+        if (heldLease != null) {
+            if (dedupLocks.covers(heldLease, tenantId, toolTypes)) {
+                return heldLease;
+            }
+            // the files changed since dispatch; start over rather than add stripes out of order
+            heldLease.close();
+        }
+        try (SpanScope span = tracing.span("job.dedup-lock").attribute("parser.tool_types", String.join(",", toolTypes))) {
+            return dedupLocks.acquire(tenantId, toolTypes);
+        }
+    }
+
+    private BulkLoadSession openBulkLoadIfLarge(Long tenantId, long jobBytes) throws IOException {
+        if (!bulkLoadEnabled || jobBytes < bulkLoadThresholdBytes) {
+            return null;
+        }
+        return esService.openBulkLoadSession(tenantId);
+    }
+
+    /**
+     * Makes the job's writes searchable, then lets the next job on the same partitions load its
+     * dedup index; without the refresh it could miss them and index the same alerts again.
+     */
+    @SuppressWarnings("try")
+    private void releaseDedupLease(DedupLocks.Lease lease, Long tenantId) {
+        if (lease == null) {
+            return;
+        }
+        try (SpanScope span = tracing.span("job.dedup-unlock")) {
+            esService.refreshTenantIndex(tenantId);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("ParserService => Refresh before releasing dedup lock failed for tenant "
+                    + tenantId + ": " + e.getMessage());
+        } finally {
+            lease.close();
+        }
+    }
+
+    private DedupIndex loadDedupIndex(Long tenantId, String toolType, StringPool stringPool) throws IOException {
+        try (SpanScope span = tracing.span("job.dedup-index.load").attribute("parser.tool_type", toolType)) {
+            List<Findings> existingDocs;
+            try {
+                existingDocs = esService.findAllByTenantAndToolType(tenantId, toolType);
+            } catch (IOException | RuntimeException e) {
+                span.fail(e);
+                throw e;
             }
+            for (Findings doc : existingDocs) {
+                canonicalize(doc, stringPool);
+            }
+            span.attribute("parser.existing_docs", existingDocs.size());
+            return new DedupIndex(tenantId, toolType, existingDocs, this::computeCompositeKeyHash);
         }
+    }
+
+    /**
+     * Swaps the low-cardinality fields of a finding for the job's pooled instances.
+     * Unique-per-alert fields (id, url, timestamps, location) are left alone.
+     */
+    private void canonicalize(Findings f, StringPool stringPool) {
+        f.setToolType(stringPool.canonicalize(f.getToolType()));
+        f.setTitle(stringPool.canonicalize(f.getTitle()));
+        f.setDescription(stringPool.canonicalize(f.getDescription()));
+        f.setCwe(stringPool.canonicalize(f.getCwe()));
+        f.setCve(stringPool.canonicalize(f.getCve()));
+        f.setCvss(stringPool.canonicalize(f.getCvss()));
+        if (f.getAdditionalData() != null) {
+            f.getAdditionalData().replaceAll((k, v) -> (v instanceof String) ? stringPool.canonicalize((String) v) : v);
+        }
+    }
 
+    private void logStringPool(String eventId, StringPool stringPool) {
+        stringPoolMetrics.jobFinished(stringPool);
+        System.out.println("ParserService => String pool for " + eventId + ": " + stringPool.size()
+                + " distinct values, " + stringPool.getHits() + "/" + stringPool.getLookups()
+                + " hits (" + String.format("%.1f", stringPool.hitRate() * 100) + "%), "
+                + stringPool.getCharsSaved() + " chars deduplicated");
+    }
+
+    private DedupOutcome deduplicateAndStore(DedupIndex dedupIndex, Findings newDoc, WriteBatch batch) {
+        String newCompositeHash = computeCompositeKeyHash(newDoc);
+
+        // claim the key; if a doc with the same composite key exists (in ES or earlier in this job), compare
         newDoc.setId(UUID.randomUUID().toString());
-        esService.indexFindings(tenantId, newDoc);
-        System.out.println("Indexed new doc => " + newCompositeHash);
-        return true;
+        DedupIndex.Decision decision = dedupIndex.decide(newCompositeHash, newDoc, FindingChange::between);
+        if (decision.outcome() == DedupOutcome.NEW) {
+            batch.add(newDoc);
+            batch.addNewId(newDoc.getId());
+            batch.countDelta(FindingsSummaryService.keyOf(newDoc), 1);
+            System.out.println("Indexed new doc => " + newCompositeHash);
+            return DedupOutcome.NEW;
+        }
+        if (decision.outcome() == DedupOutcome.UNCHANGED) {
+            System.out.println("Skipping duplicate => " + newCompositeHash);
+            return DedupOutcome.UNCHANGED;
+        }
+
+        batch.add(newDoc);
+        batch.addChange(decision.change());
+        batch.countDelta(FindingsSummaryService.keyOf(decision.previous()), -1);
+        batch.countDelta(FindingsSummaryService.keyOf(newDoc), 1);
+        System.out.println("Updated => " + newCompositeHash);
+        return DedupOutcome.UPDATED;
     }
 
     private String computeCompositeKeyHash(Findings f) {
@@ -139,14 +874,6 @@ public class ParserService {
         return String.valueOf(composite.hashCode());
     }
 
-    private String computeUpdatableHash(Findings f) {
-        StringBuilder sb = new StringBuilder();
-        if (f.getSeverity() != null) sb.append(f.getSeverity()).append("|");
-        if (f.getState() != null) sb.append(f.getState()).append("|");
-        if (f.getUpdatedAt() != null) sb.append(f.getUpdatedAt());
-        return String.valueOf(sb.toString().hashCode());
-    }
-
     private void emitNewScanEvent(Long tenantId, String toolType, List<String> newFindingIds) {
         try {
             // Build a payload object
@@ -156,7 +883,7 @@ public class ParserService {
 
             // Convert to JSON and send
             String json = mapper.writeValueAsString(event);
-            kafkaTemplate.send(jfcJobsTopic, json);
+            tracing.send(kafkaTemplate, jfcJobsTopic, json);
 
             System.out.println("[ParserService] Emitted NEW_SCAN runbook event => " + json);
         } catch (Exception e) {
@@ -164,126 +891,91 @@ public class ParserService {
         }
     }
 
+    /**
+     * Publishes the diffs of one committed batch as UPDATE_FINDING events of at most
+     * {@code parser.update-events.batch-size} findings each.
+     */
+    private void emitUpdateFindingEvents(Long tenantId, String toolType, List<FindingChange> changes) {
+        if (!updateEventsEnabled) {
+            return;
+        }
+        int chunk = Math.max(1, updateEventBatchSize);
+        for (int from = 0; from < changes.size(); from += chunk) {
+            List<FindingChange> slice = new ArrayList<>(changes.subList(from, Math.min(changes.size(), from + chunk)));
+            try {
+                UpdateFindingPayload payload = new UpdateFindingPayload(tenantId, toolType, slice);
+                UpdateFindingEvent event = new UpdateFindingEvent(payload, "jfc-bg-job-topic");
+
+                String json = mapper.writeValueAsString(event);
+                tracing.send(kafkaTemplate, jfcJobsTopic, json);
+
+                System.out.println("[ParserService] Emitted UPDATE_FINDING event " + event.getEventId()
+                        + " => " + slice.size() + " changed findings for tenant " + tenantId + ", tool " + toolType);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     // ----------------------------------------------------------------------
-    // Tool-specific conversion methods
+    // File path logic and misc helpers
     // ----------------------------------------------------------------------
 
-    private Findings convertToFindings(String toolType, Map<String, Object> alert) {
-        Findings f = new Findings();
-        f.setId(UUID.randomUUID().toString());
-        f.setToolType(toolType);
-        f.setTicketId(null);
-
-        Object numberObj = alert.get("number");
-        String alertNum = (numberObj != null) ? numberObj.toString() : "";
-        f.setAlertNumber(alertNum);
-
-        f.setCreatedAt(safeString(alert.get("created_at")));
-        f.setUpdatedAt(safeString(alert.get("updated_at")));
-        f.setUrl(safeString(alert.get("html_url")));
-
-        String rawState = safeString(alert.get("state"));
-        String rawDismissedReason = safeString(alert.get("dismissed_reason"));
-        AlertState finalState = AlertState.fromRaw(rawState, toolType, rawDismissedReason);
-        f.setState(finalState);
-
-        switch (toolType) {
-            case "CODE_SCANNING":
-                fillCodeScanningData(f, alert);
-                break;
-            case "DEPENDABOT":
-                fillDependabotData(f, alert);
-                break;
-            case "SECRET_SCANNING":
-                fillSecretScanningData(f, alert);
-                break;
-            default:
-                f.setSeverity(Severity.MEDIUM);
-                f.setTitle("Unknown Alert");
-                f.setDescription("");
-                f.setCve("");
-                f.setCwe("");
-                f.setCvss("");
-                f.setLocation("");
+    /**
+     * Expands a manifest into concrete alert files: plain entries are kept as-is, directories
+     * contribute every *.json / *.sarif file below them in path order.
+     */
+    public List<String> expandFiles(List<String> paths) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (String p : paths) {
+            Path path = Paths.get(p);
+            if (!Files.isDirectory(path)) {
+                files.add(p);
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(path)) {
+                walk.filter(Files::isRegularFile)
+                        .filter(f -> isAlertFile(f.getFileName().toString()))
+                        .sorted()
+                        .forEach(f -> files.add(f.toString()));
+            }
         }
-        return f;
+        return files;
     }
 
-    private void fillCodeScanningData(Findings f, Map<String, Object> alert) {
-        String rawSeverity = safeString(getNested(alert, "rule", "security_severity_level"));
-        if (rawSeverity.isEmpty()) {
-            rawSeverity = safeString(getNested(alert, "rule", "severity"));
-        }
-        f.setSeverity(Severity.fromRaw(rawSeverity));
-        f.setTitle(safeString(getNested(alert, "rule", "description")));
-        f.setDescription(safeString(getNested(alert, "rule", "full_description")));
-        Object path = getNested(alert, "most_recent_instance", "location", "path");
-        f.setLocation(path != null ? path.toString() : "");
-        Object tagsObj = getNested(alert, "rule", "tags");
-        f.setCwe(parseCweFromTags(tagsObj));
-        f.setCve("");
-        f.setCvss("");
-    }
-
-    private void fillDependabotData(Findings f, Map<String, Object> alert) {
-        String rawSeverity = safeString(getNested(alert, "security_advisory", "severity"));
-        f.setSeverity(Severity.fromRaw(rawSeverity));
-        f.setCve(safeString(getNested(alert, "security_advisory", "cve_id")));
-        f.setTitle(safeString(getNested(alert, "security_advisory", "summary")));
-        f.setDescription(safeString(getNested(alert, "security_advisory", "description")));
-        f.setCwe(parseCwe(getNested(alert, "security_advisory", "cwes")));
-        String cvssVal = safeString(getNested(alert, "security_advisory", "cvss", "score"));
-        f.setCvss(cvssVal);
-        String manifest = safeString(getNested(alert, "dependency", "manifest_path"));
-        if (!manifest.isEmpty()) {
-            f.setLocation(manifest);
-        } else {
-            f.setLocation(safeString(getNested(alert, "dependency", "package", "name")));
-        }
-    }
-
-    private void fillSecretScanningData(Findings f, Map<String, Object> alert) {
-        Boolean publiclyLeaked = (alert.get("publicly_leaked") instanceof Boolean)
-                ? (Boolean) alert.get("publicly_leaked")
-                : false;
-        f.setSeverity(Boolean.TRUE.equals(publiclyLeaked) ? Severity.CRITICAL : Severity.HIGH);
-        String secretTypeDisplay = safeString(alert.get("secret_type_display_name"));
-        if (secretTypeDisplay.isEmpty()) {
-            secretTypeDisplay = safeString(alert.get("secret_type"));
-        }
-        f.setTitle("Secret Scanning Alert: " + secretTypeDisplay);
-        String validity = safeString(alert.get("validity"));
-        String resolution = safeString(alert.get("resolution"));
-        boolean pushProtectionBypassed = (alert.get("push_protection_bypassed") instanceof Boolean)
-                ? (boolean) alert.get("push_protection_bypassed")
-                : false;
-        String rawSecret = safeString(alert.get("secret"));
-        String maskedSecret = rawSecret.isEmpty() ? "" : (rawSecret.length() > 8
-                ? rawSecret.substring(0, 8) + "...(masked)"
-                : rawSecret);
-        StringBuilder descBuilder = new StringBuilder();
-        descBuilder.append("Secret Type: ").append(safeString(alert.get("secret_type")))
-                .append("; Validity: ").append(validity)
-                .append("; Publicly Leaked: ").append(publiclyLeaked)
-                .append("; Push Protection Bypassed: ").append(pushProtectionBypassed);
-        if (!resolution.isEmpty()) {
-            descBuilder.append("; Resolution: ").append(resolution);
-        }
-        if (!maskedSecret.isEmpty()) {
-            descBuilder.append("; Secret (masked): ").append(maskedSecret);
-        }
-        f.setDescription(descBuilder.toString());
-        f.setCve("");
-        f.setCwe("");
-        f.setCvss("");
-        f.setLocation(safeString(alert.get("locations_url")));
+    private boolean isAlertFile(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".json") || lower.endsWith(".sarif");
     }
 
-    // ----------------------------------------------------------------------
-    // File path logic and misc helpers
-    // ----------------------------------------------------------------------
+    /**
+     * Tool types a job will deduplicate against, i.e. the (tenant, toolType) partitions it needs to
+     * own in {@link DedupLocks}: {@code toolType} as given for a single file, and the tool of every
+     * expanded file for a multi-file job.
+     */
+    public Set<String> dedupToolTypes(String toolType, String filePath, List<String> paths) throws IOException {
+        if (paths == null) {
+            return Collections.singleton(toolType);
+        }
+        Set<String> tools = new LinkedHashSet<>();
+        for (String file : expandFiles(paths)) {
+            tools.add(resolveToolType(toolType, file));
+        }
+        return tools;
+    }
+
+    private String resolveToolType(String toolType, String filePath) {
+        if (toolType == null || toolType.isBlank() || "AUTO".equalsIgnoreCase(toolType)) {
+            return deduceToolType(filePath);
+        }
+        return toolType;
+    }
+
+    private String fileCheckpointId(String eventId, int fileIndex) {
+        return eventId == null ? null : eventId + "#" + fileIndex;
+    }
 
-    private String[] parseOwnerRepoFromPath(String filePath) {
+    public String[] parseOwnerRepoFromPath(String filePath) {
         File f = new File(filePath);
         String parent = f.getParent();
         String[] pathParts = parent.split(Pattern.quote(File.separator));
@@ -301,60 +993,12 @@ public class ParserService {
         return new String[]{ owner, repo };
     }
 
-    private String deduceToolType(String filePath) {
+    public String deduceToolType(String filePath) {
         String lower = filePath.toLowerCase();
+        if (lower.endsWith(".sarif") || lower.endsWith(".sarif.json")) return SarifParser.TOOL_TYPE;
         if (lower.contains("code_scanning")) return "CODE_SCANNING";
         if (lower.contains("dependabot")) return "DEPENDABOT";
         if (lower.contains("secret_scanning")) return "SECRET_SCANNING";
         return "UNKNOWN_TOOL";
     }
-
-    private Object getNested(Map<String, Object> map, String... path) {
-        Object current = map;
-        for (String p : path) {
-            if (!(current instanceof Map)) return null;
-            current = ((Map) current).get(p);
-            if (current == null) return null;
-        }
-        return current;
-    }
-
-    private String parseCweFromTags(Object tagsObj) {
-        if (tagsObj instanceof List) {
-            List<?> list = (List<?>) tagsObj;
-            List<String> cwes = new ArrayList<>();
-            for (Object item : list) {
-                if (item instanceof String) {
-                    String tag = ((String) item).toLowerCase();
-                    int idx = tag.indexOf("cwe-");
-                    if (idx >= 0) {
-                        String cwePart = tag.substring(idx).toUpperCase();
-                        cwes.add(cwePart);
-                    }
-                }
-            }
-            if (!cwes.isEmpty()) {
-                return String.join(", ", cwes);
-            }
-        }
-        return "";
-    }
-
-    private String parseCwe(Object cwesObj) {
-        if (cwesObj instanceof List) {
-            List<?> list = (List<?>) cwesObj;
-            if (!list.isEmpty()) {
-                Object first = list.get(0);
-                if (first instanceof Map) {
-                    Object cweId = ((Map) first).get("cwe_id");
-                    return cweId != null ? cweId.toString() : "";
-                }
-            }
-        }
-        return "";
-    }
-
-    private String safeString(Object val) {
-        return val != null ? val.toString() : "";
-    }
 }
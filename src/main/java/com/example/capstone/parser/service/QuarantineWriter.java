@@ -0,0 +1,190 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.QuarantinedRecord;
+import com.example.capstone.parser.tracing.ParserTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sets aside alert records that fail conversion so the rest of the file can still be ingested:
+ * each one is appended to {@code parser.quarantine.file} as a line of NDJSON and/or published to
+ * {@code parser.quarantine.topic}. Delivery is at least once: a job resumed
+ * from its checkpoint quarantines the records of its uncommitted batch again.
+ *
+ * Records are raw alerts, so fields that may hold credentials ({@code parser.quarantine.redact-fields},
+ * e.g. a secret-scanning alert's plaintext {@code secret}) are replaced before they are written, at
+ * any depth of the record. The file is created readable by its owner only.
+ */
+@Component
+public class QuarantineWriter {
+
+    @Value("${parser.quarantine.enabled:true}")
+    private boolean enabled;
+
+    // empty => no file
+    @Value("${parser.quarantine.file:}")
+    private String file;
+
+    // empty => no dead-letter topic
+    @Value("${parser.quarantine.topic:}")
+    private String topic;
+
+    @Value("${parser.quarantine.max-per-file:1000}")
+    private int maxPerFile;
+
+    @Value("${parser.quarantine.redact-fields:secret}")
+    private String redactFieldsSpec;
+
+    static final String REDACTED = "***redacted***";
+
+    private Set<String> redactFields = Set.of();
+    private Pattern redactInText;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ParserTracing tracing;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private final AtomicLong quarantined = new AtomicLong();
+
+    public QuarantineWriter(KafkaTemplate<String, String> kafkaTemplate, ParserTracing tracing) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.tracing = tracing;
+    }
+
+    @PostConstruct
+    public void init() {
+        redactFields = Arrays.stream(redactFieldsSpec.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        if (!redactFields.isEmpty()) {
+            String names = redactFields.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+            redactInText = Pattern.compile("(\"(?:" + names + ")\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*\"");
+        }
+        if (enabled && file.isBlank() && topic.isBlank()) {
+            System.out.println("QuarantineWriter => neither parser.quarantine.file nor parser.quarantine.topic is set;"
+                    + " quarantined records will only be counted and logged");
+        }
+    }
+
+    /**
+     * False when malformed records should fail their file, as before quarantining existed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getQuarantined() {
+        return quarantined.get();
+    }
+
+    /**
+     * Writes the record to the configured outputs.
+     *
+     * @param quarantinedInFile records of the same file quarantined so far, incremented here
+     * @throws IOException if it could not be written to the file, so the caller fails the
+     *                     record's file rather than dropping the record, or if the file now has
+     *                     more than {@code max-per-file} of them: that many bad records means the
+     *                     file (or the tool type it was sent with) is wrong, not a few of its alerts
+     */
+    public void quarantine(QuarantinedRecord record, AtomicInteger quarantinedInFile) throws IOException {
+        if (quarantinedInFile.incrementAndGet() > maxPerFile) {
+            throw new IOException("More than " + maxPerFile + " malformed alerts, giving up on the file (last at alert "
+                    + record.getAlertIndex() + ": " + record.getError() + ")");
+        }
+        record.setRecord(redact(record.getRecord()));
+        String json = mapper.writeValueAsString(record);
+        if (!file.isBlank()) {
+            Path path = Paths.get(file);
+            fileLock.lock();
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                if (Files.notExists(path)) {
+                    createOwnerOnly(path);
+                }
+                try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    out.write(json);
+                    out.write('\n');
+                }
+            } finally {
+                fileLock.unlock();
+            }
+        }
+        if (!topic.isBlank()) {
+            tracing.send(kafkaTemplate, topic, json);
+        }
+        quarantined.incrementAndGet();
+        System.out.println("Quarantined alert " + record.getAlertIndex() + " of " + record.getFilePath()
+                + ": " + record.getError());
+    }
+
+    /**
+     * Copy of the record with the redacted fields replaced. A record that is not JSON structure
+     * (e.g. a line that failed to parse) is redacted textually, wherever a redacted field appears
+     * as a {@code "name": "value"} pair.
+     */
+    Object redact(Object value) {
+        if (redactFields.isEmpty()) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                boolean sensitive = e.getKey() instanceof String k && redactFields.contains(k) && e.getValue() != null;
+                copy.put(e.getKey(), sensitive ? REDACTED : redact(e.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(redact(item));
+            }
+            return copy;
+        }
+        if (value instanceof String text) {
+            return redactInText.matcher(text).replaceAll("$1\"" + Matcher.quoteReplacement(REDACTED) + "\"");
+        }
+        return value;
+    }
+
+    private static void createOwnerOnly(Path path) throws IOException {
+        try {
+            try {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } catch (UnsupportedOperationException e) {
+                Files.createFile(path);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // created concurrently by another pod sharing the file
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.RuleMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves rule descriptions out of findings. With {@code parser.rules.normalize} on, each rule
+ * version a batch references is written once to the tenant's rules index, and findings keep only
+ * {@code ruleId} / {@code ruleVersion} instead of their own copy of the rule's full description, so
+ * hundreds of alerts from one rule no longer each carry (and make ES analyze) the same text.
+ *
+ * A rule version is a hash of its content: an edited description or severity becomes a new document
+ * and older findings keep pointing at the text they were raised with. Versions this pod has already
+ * written are remembered and skipped; versions written by other pods are skipped by ES, because the
+ * rules are written with {@code create}.
+ */
+@Service
+public class RuleMetadataStore {
+
+    @Value("${parser.rules.normalize:false}")
+    private boolean normalize;
+
+    // rule versions remembered as written; the set is cleared when it outgrows this
+    @Value("${parser.rules.known-versions:100000}")
+    private int maxKnownVersions;
+
+    private final ElasticsearchClientService esService;
+    private final Set<String> knownVersions = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder rulesWritten = new LongAdder();
+    private final LongAdder knownHits = new LongAdder();
+    private final LongAdder descriptionsDropped = new LongAdder();
+    private final LongAdder charsDropped = new LongAdder();
+
+    public RuleMetadataStore(ElasticsearchClientService esService) {
+        this.esService = esService;
+    }
+
+    public boolean isNormalizing() {
+        return normalize;
+    }
+
+    /**
+     * Stores the rules referenced by {@code docs} and drops the rule text from the findings. Must run
+     * before the findings are written, so a stored finding never references a rule that is not there.
+     * A finding whose description is not its rule's (e.g. a SARIF result message) keeps it.
+     *
+     * @throws IOException if the rules could not be written; the findings are then left untouched
+     */
+    public void normalize(Long tenantId, List<Findings> docs) throws IOException {
+        if (!normalize) {
+            return;
+        }
+        Map<String, RuleMetadata> pending = new LinkedHashMap<>();
+        for (Findings doc : docs) {
+            RuleMetadata rule = doc.getRule();
+            if (rule == null) {
+                continue;
+            }
+            if (rule.getVersion() == null) {
+                rule.setVersion(versionOf(rule));
+            }
+            String key = tenantId + "|" + rule.getToolType() + "|" + rule.getRuleId() + "|" + rule.getVersion();
+            if (knownVersions.contains(key)) {
+                knownHits.increment();
+            } else {
+                pending.putIfAbsent(key, rule);
+            }
+        }
+        if (!pending.isEmpty()) {
+            String now = Instant.now().toString();
+            List<RuleMetadata> rules = new ArrayList<>(pending.values());
+            rules.forEach(r -> r.setFirstSeenAt(now));
+            int created = esService.bulkCreateRules(tenantId, rules);
+            rulesWritten.add(created);
+            if (knownVersions.size() + pending.size() > maxKnownVersions) {
+                knownVersions.clear();
+            }
+            knownVersions.addAll(pending.keySet());
+        }
+        for (Findings doc : docs) {
+            RuleMetadata rule = doc.getRule();
+            if (rule == null) {
+                continue;
+            }
+            doc.setRuleVersion(rule.getVersion());
+            String description = doc.getDescription();
+            if (description != null && !description.isEmpty()
+                    && description.equals(rule.getFullDescription())) {
+                doc.setDescription(null);
+                descriptionsDropped.increment();
+                charsDropped.add(description.length());
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("normalize", normalize);
+        out.put("knownVersions", knownVersions.size());
+        out.put("rulesWritten", rulesWritten.sum());
+        out.put("knownHits", knownHits.sum());
+        out.put("descriptionsDropped", descriptionsDropped.sum());
+        out.put("charsDropped", charsDropped.sum());
+        return out;
+    }
+
+    private static String versionOf(RuleMetadata rule) {
+        String content = String.join("\u0000",
+                Objects.toString(rule.getName(), ""),
+                Objects.toString(rule.getFullDescription(), ""),
+                Objects.toString(rule.getTags(), ""),
+                Objects.toString(rule.getCwe(), ""),
+                Objects.toString(rule.getSeverity(), ""),
+                Objects.toString(rule.getSecuritySeverity(), ""),
+                Objects.toString(rule.getHelpUri(), ""));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
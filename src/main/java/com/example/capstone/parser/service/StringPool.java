@@ -0,0 +1,70 @@
+package com.example.capstone.parser.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-job canonicalization pool for low-cardinality finding fields (rule descriptions, CWE lists,
+ * toolType, owner/repo, ...). Equal strings produced while converting thousands of alerts collapse
+ * to one instance, so in-flight batches and the dedup index hold one copy of each description.
+ *
+ * Unlike {@link String#intern()} the pool dies with the job. It stops admitting new
+ * entries at {@code maxEntries} so a high-cardinality field cannot grow it without bound.
+ */
+public class StringPool {
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder charsSaved = new LongAdder();
+
+    public StringPool(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the pooled instance equal to {@code value}, adding it if there is room.
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        lookups.increment();
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            if (pooled != value) {
+                hits.increment();
+                charsSaved.add(value.length());
+            }
+            return pooled;
+        }
+        if (pool.size() >= maxEntries) {
+            return value;
+        }
+        pooled = pool.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCharsSaved() {
+        return charsSaved.sum();
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public double hitRate() {
+        long total = getLookups();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.capstone.parser.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates the per-job {@link StringPool}s and aggregates their hit rates across jobs.
+ */
+@Component
+public class StringPoolMetrics {
+
+    @Value("${parser.string-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parser.string-pool.max-entries:50000}")
+    private int maxEntries;
+
+    private final LongAdder jobs = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder charsSaved = new LongAdder();
+
+    /**
+     * A fresh pool for one job; with pooling disabled the pool admits nothing and is a pass-through.
+     */
+    public StringPool newPool() {
+        return new StringPool(enabled ? maxEntries : 0);
+    }
+
+    public void jobFinished(StringPool pool) {
+        jobs.increment();
+        lookups.add(pool.getLookups());
+        hits.add(pool.getHits());
+        charsSaved.add(pool.getCharsSaved());
+    }
+
+    public Map<String, Object> snapshot() {
+        long totalLookups = lookups.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("jobs", jobs.sum());
+        out.put("lookups", totalLookups);
+        out.put("hits", hits.sum());
+        out.put("hitRate", totalLookups == 0 ? 0.0 : (double) hits.sum() / totalLookups);
+        out.put("charsSaved", charsSaved.sum());
+        return out;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.FindingChange;
+import com.example.capstone.parser.model.Findings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Findings waiting for the next bulk flush, plus what they change once committed:
+ * the ids that are new (for NEW_SCAN), the field diffs of updated findings (for UPDATE_FINDING)
+ * and the summary count deltas. Also times the conversion and dedup of the alerts that went
+ * through it, for the batch's flight recorder event.
+ */
+public class WriteBatch {
+
+    private final List<Findings> docs = new ArrayList<>();
+    private final List<String> newIds = new ArrayList<>();
+    private final List<FindingChange> changes = new ArrayList<>();
+    private final Map<String, Long> summaryDelta = new HashMap<>();
+    private int alerts;
+    private int quarantined;
+    private long convertNanos;
+    private long dedupNanos;
+
+    public void add(Findings doc) {
+        docs.add(doc);
+    }
+
+    public void addNewId(String id) {
+        newIds.add(id);
+    }
+
+    public void addChange(FindingChange change) {
+        changes.add(change);
+    }
+
+    public void countDelta(String summaryKey, long delta) {
+        summaryDelta.merge(summaryKey, delta, Long::sum);
+    }
+
+    /**
+     * Counts one alert deduplicated into this batch, whether or not it produced a doc.
+     */
+    public void recordAlert(long convertNanos, long dedupNanos) {
+        alerts++;
+        this.convertNanos += convertNanos;
+        this.dedupNanos += dedupNanos;
+    }
+
+    /**
+     * Counts one alert that failed conversion and was quarantined instead of ending up in the batch.
+     */
+    public void recordQuarantined(long convertNanos) {
+        alerts++;
+        quarantined++;
+        this.convertNanos += convertNanos;
+    }
+
+    public List<Findings> getDocs() {
+        return docs;
+    }
+
+    public List<String> getNewIds() {
+        return newIds;
+    }
+
+    public List<FindingChange> getChanges() {
+        return changes;
+    }
+
+    public Map<String, Long> getSummaryDelta() {
+        return summaryDelta;
+    }
+
+    public int getAlerts() {
+        return alerts;
+    }
+
+    public int getQuarantined() {
+        return quarantined;
+    }
+
+    public long getConvertNanos() {
+        return convertNanos;
+    }
+
+    public long getDedupNanos() {
+        return dedupNanos;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    public void clear() {
+        docs.clear();
+        newIds.clear();
+        changes.clear();
+        summaryDelta.clear();
+        alerts = 0;
+        quarantined = 0;
+        convertNanos = 0;
+        dedupNanos = 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.capstone.parser.tool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Null-safe accessors for the loosely typed alert maps produced by Jackson.
+ */
+public final class AlertFields {
+
+    private AlertFields() {
+    }
+
+    public static Object getNested(Map<String, Object> map, String... path) {
+        Object current = map;
+        for (String p : path) {
+            if (!(current instanceof Map)) return null;
+            current = ((Map<?, ?>) current).get(p);
+            if (current == null) return null;
+        }
+        return current;
+    }
+
+    public static String parseCweFromTags(Object tagsObj) {
+        if (tagsObj instanceof List) {
+            List<?> list = (List<?>) tagsObj;
+            List<String> cwes = new ArrayList<>();
+            for (Object item : list) {
+                if (item instanceof String) {
+                    String tag = ((String) item).toLowerCase();
+                    int idx = tag.indexOf("cwe-");
+                    if (idx >= 0) {
+                        String cwePart = tag.substring(idx).toUpperCase();
+                        cwes.add(cwePart);
+                    }
+                }
+            }
+            if (!cwes.isEmpty()) {
+                return String.join(", ", cwes);
+            }
+        }
+        return "";
+    }
+
+    public static String parseCwe(Object cwesObj) {
+        if (cwesObj instanceof List) {
+            List<?> list = (List<?>) cwesObj;
+            if (!list.isEmpty()) {
+                Object first = list.get(0);
+                if (first instanceof Map) {
+                    Object cweId = ((Map<?, ?>) first).get("cwe_id");
+                    return cweId != null ? cweId.toString() : "";
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * The string entries of a list field such as rule tags; empty for anything else.
+     */
+    public static List<String> stringList(Object listObj) {
+        List<String> out = new ArrayList<>();
+        if (listObj instanceof List) {
+            for (Object item : (List<?>) listObj) {
+                if (item instanceof String) {
+                    out.add((String) item);
+                }
+            }
+        }
+        return out;
+    }
+
+    public static String safeString(Object val) {
+        return val != null ? val.toString() : "";
+    }
+}
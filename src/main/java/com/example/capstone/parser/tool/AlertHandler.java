@@ -0,0 +1,15 @@
+package com.example.capstone.parser.tool;
+
+/**
+ * Receives raw alert records from a {@link ToolParser} as they are streamed out of a file.
+ */
+@FunctionalInterface
+public interface AlertHandler {
+
+    /**
+     * @param index position of the alert in the file (0-based, across all SARIF runs)
+     * @param alert the raw alert record: a {@code Map} for well-formed alerts, but whatever JSON value
+     *              the file holds at that position, so the caller can isolate malformed records
+     */
+    void onAlert(int index, Object alert) throws Exception;
+}
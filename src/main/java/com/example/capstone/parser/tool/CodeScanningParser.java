@@ -0,0 +1,49 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.RuleMetadata;
+import com.example.capstone.parser.model.Severity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static com.example.capstone.parser.tool.AlertFields.*;
+
+@Component
+public class CodeScanningParser extends GithubAlertParser {
+
+    @Override
+    public String getToolType() {
+        return "CODE_SCANNING";
+    }
+
+    @Override
+    protected void fillToolData(Findings f, Map<String, Object> alert) {
+        String rawSeverity = safeString(getNested(alert, "rule", "security_severity_level"));
+        if (rawSeverity.isEmpty()) {
+            rawSeverity = safeString(getNested(alert, "rule", "severity"));
+        }
+        f.setSeverity(Severity.fromRaw(rawSeverity));
+        f.setTitle(safeString(getNested(alert, "rule", "description")));
+        f.setDescription(safeString(getNested(alert, "rule", "full_description")));
+        Object path = getNested(alert, "most_recent_instance", "location", "path");
+        f.setLocation(path != null ? path.toString() : "");
+        Object tagsObj = getNested(alert, "rule", "tags");
+        f.setCwe(parseCweFromTags(tagsObj));
+        f.setCve("");
+        f.setCvss("");
+        f.setRuleId(safeString(getNested(alert, "rule", "id")));
+        if (!f.getRuleId().isEmpty()) {
+            RuleMetadata rule = new RuleMetadata();
+            rule.setToolType(getToolType());
+            rule.setRuleId(f.getRuleId());
+            rule.setName(f.getTitle());
+            rule.setFullDescription(f.getDescription());
+            rule.setTags(stringList(tagsObj));
+            rule.setCwe(f.getCwe());
+            rule.setSeverity(safeString(getNested(alert, "rule", "severity")));
+            rule.setSecuritySeverity(safeString(getNested(alert, "rule", "security_severity_level")));
+            f.setRule(rule);
+        }
+    }
+}
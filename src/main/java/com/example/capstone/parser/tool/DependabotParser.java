@@ -0,0 +1,36 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static com.example.capstone.parser.tool.AlertFields.*;
+
+@Component
+public class DependabotParser extends GithubAlertParser {
+
+    @Override
+    public String getToolType() {
+        return "DEPENDABOT";
+    }
+
+    @Override
+    protected void fillToolData(Findings f, Map<String, Object> alert) {
+        String rawSeverity = safeString(getNested(alert, "security_advisory", "severity"));
+        f.setSeverity(Severity.fromRaw(rawSeverity));
+        f.setCve(safeString(getNested(alert, "security_advisory", "cve_id")));
+        f.setTitle(safeString(getNested(alert, "security_advisory", "summary")));
+        f.setDescription(safeString(getNested(alert, "security_advisory", "description")));
+        f.setCwe(parseCwe(getNested(alert, "security_advisory", "cwes")));
+        String cvssVal = safeString(getNested(alert, "security_advisory", "cvss", "score"));
+        f.setCvss(cvssVal);
+        String manifest = safeString(getNested(alert, "dependency", "manifest_path"));
+        if (!manifest.isEmpty()) {
+            f.setLocation(manifest);
+        } else {
+            f.setLocation(safeString(getNested(alert, "dependency", "package", "name")));
+        }
+    }
+}
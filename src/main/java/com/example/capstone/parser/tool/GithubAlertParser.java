@@ -0,0 +1,78 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.model.Findings;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.capstone.parser.tool.AlertFields.safeString;
+
+/**
+ * Base for the GitHub REST alert exports: a top-level JSON array of alert objects that share
+ * number / created_at / updated_at / html_url / state. The array is streamed element by element.
+ */
+public abstract class GithubAlertParser implements ToolParser {
+
+    protected final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public int readAlerts(File file, int fromIndex, AlertHandler handler) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of alerts in " + file);
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index < fromIndex) {
+                    parser.skipChildren();
+                } else {
+                    Object alert = mapper.readValue(parser, Object.class);
+                    try {
+                        handler.onAlert(index, alert);
+                    } catch (IOException | RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IOException(e);
+                    }
+                }
+                index++;
+            }
+            return index;
+        }
+    }
+
+    @Override
+    public Findings convert(Map<String, Object> alert) {
+        Findings f = new Findings();
+        f.setId(UUID.randomUUID().toString());
+        f.setToolType(getToolType());
+        f.setTicketId(null);
+
+        Object numberObj = alert.get("number");
+        String alertNum = (numberObj != null) ? numberObj.toString() : "";
+        f.setAlertNumber(alertNum);
+
+        f.setCreatedAt(safeString(alert.get("created_at")));
+        f.setUpdatedAt(safeString(alert.get("updated_at")));
+        f.setUrl(safeString(alert.get("html_url")));
+
+        String rawState = safeString(alert.get("state"));
+        String rawDismissedReason = safeString(alert.get("dismissed_reason"));
+        AlertState finalState = AlertState.fromRaw(rawState, getToolType(), rawDismissedReason);
+        f.setState(finalState);
+
+        fillToolData(f, alert);
+        return f;
+    }
+
+    /**
+     * Fills severity, title, description, CVE/CWE/CVSS and location from the tool-specific fields.
+     */
+    protected abstract void fillToolData(Findings f, Map<String, Object> alert);
+}
@@ -0,0 +1,311 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.RuleMetadata;
+import com.example.capstone.parser.model.Severity;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static com.example.capstone.parser.tool.AlertFields.*;
+
+/**
+ * Streaming parser for SARIF 2.1.0 logs (raw CodeQL, Semgrep, ... output).
+ *
+ * Only one {@code runs[].results[]} entry is materialized at a time. Each run's
+ * {@code tool.driver} (rule metadata) is kept while that run's results are streamed, and the
+ * matching rule is attached to every result under {@link #RULE_KEY} so {@link #convert} stays a
+ * per-record function. Producers write {@code tool} before {@code results}; if a log has them the
+ * other way round, findings fall back to the result message for title and description.
+ */
+@Component
+public class SarifParser implements ToolParser {
+
+    public static final String TOOL_TYPE = "SARIF";
+
+    static final String RULE_KEY = "_rule";
+    static final String TOOL_NAME_KEY = "_toolName";
+
+    private static final TypeReference<Map<String, Object>> OBJECT_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public String getToolType() {
+        return TOOL_TYPE;
+    }
+
+    @Override
+    public int readAlerts(File file, int fromIndex, AlertHandler handler) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a SARIF log object in " + file);
+            }
+            int index = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("runs".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        index = readRun(parser, index, fromIndex, handler);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return index;
+        }
+    }
+
+    private int readRun(JsonParser parser, int index, int fromIndex, AlertHandler handler) throws IOException {
+        RunContext run = RunContext.EMPTY;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("tool".equals(field) && value == JsonToken.START_OBJECT) {
+                run = RunContext.from(mapper.readValue(parser, OBJECT_TYPE));
+            } else if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (index < fromIndex) {
+                        parser.skipChildren();
+                    } else {
+                        Object result = mapper.readValue(parser, Object.class);
+                        if (result instanceof Map) {
+                            @SuppressWarnings("unchecked")
+                            Map<String, Object> fields = (Map<String, Object>) result;
+                            fields.put(RULE_KEY, run.ruleFor(fields));
+                            fields.put(TOOL_NAME_KEY, run.toolName);
+                        }
+                        try {
+                            handler.onAlert(index, result);
+                        } catch (IOException | RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new IOException(e);
+                        }
+                    }
+                    index++;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Findings convert(Map<String, Object> result) {
+        Map<String, Object> rule = (result.get(RULE_KEY) instanceof Map)
+                ? (Map<String, Object>) result.get(RULE_KEY)
+                : Collections.emptyMap();
+
+        Findings f = new Findings();
+        f.setId(UUID.randomUUID().toString());
+        f.setToolType(TOOL_TYPE);
+        f.setTicketId(null);
+
+        String ruleId = safeString(result.get("ruleId"));
+        if (ruleId.isEmpty()) {
+            ruleId = safeString(rule.get("id"));
+        }
+        String uri = safeString(firstLocation(result, "physicalLocation", "artifactLocation", "uri"));
+        String startLine = safeString(firstLocation(result, "physicalLocation", "region", "startLine"));
+        String message = safeString(getNested(result, "message", "text"));
+
+        f.setAlertNumber(fingerprint(result, ruleId, uri, startLine));
+
+        String title = safeString(getNested(rule, "shortDescription", "text"));
+        if (title.isEmpty()) title = safeString(rule.get("name"));
+        if (title.isEmpty()) title = message;
+        f.setTitle(title);
+
+        String description = safeString(getNested(rule, "fullDescription", "text"));
+        f.setDescription(description.isEmpty() ? message : description);
+
+        f.setSeverity(severityOf(result, rule));
+        f.setState(stateOf(result));
+        f.setCwe(parseCweFromTags(getNested(rule, "properties", "tags")));
+        f.setCve("");
+        f.setCvss(safeString(getNested(rule, "properties", "security-severity")));
+        f.setUrl(safeString(rule.get("helpUri")));
+        f.setLocation(startLine.isEmpty() ? uri : uri + ":" + startLine);
+        f.setCreatedAt("");
+        f.setUpdatedAt("");
+
+        f.setRuleId(ruleId);
+        if (!ruleId.isEmpty() && !rule.isEmpty()) {
+            RuleMetadata meta = new RuleMetadata();
+            meta.setToolType(TOOL_TYPE);
+            meta.setRuleId(ruleId);
+            String name = safeString(getNested(rule, "shortDescription", "text"));
+            meta.setName(name.isEmpty() ? safeString(rule.get("name")) : name);
+            meta.setFullDescription(description);
+            meta.setTags(stringList(getNested(rule, "properties", "tags")));
+            meta.setCwe(f.getCwe());
+            meta.setSeverity(safeString(getNested(rule, "defaultConfiguration", "level")));
+            meta.setSecuritySeverity(f.getCvss());
+            meta.setHelpUri(f.getUrl());
+            f.setRule(meta);
+        }
+
+        Map<String, Object> addData = new HashMap<>();
+        addData.put("ruleId", ruleId);
+        addData.put("sarifTool", safeString(result.get(TOOL_NAME_KEY)));
+        f.setAdditionalData(addData);
+        return f;
+    }
+
+    // ----------------------------------------------------------------------
+    // Helpers
+    // ----------------------------------------------------------------------
+
+    private Object firstLocation(Map<String, Object> result, String... path) {
+        Object locations = result.get("locations");
+        if (locations instanceof List && !((List<?>) locations).isEmpty()
+                && ((List<?>) locations).get(0) instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> first = (Map<String, Object>) ((List<?>) locations).get(0);
+            return getNested(first, path);
+        }
+        return null;
+    }
+
+    /**
+     * SARIF has no alert number; use the producer's fingerprint so the same result keeps the
+     * same dedup key across scans, falling back to rule + location.
+     */
+    private String fingerprint(Map<String, Object> result, String ruleId, String uri, String startLine) {
+        for (String key : new String[]{"partialFingerprints", "fingerprints"}) {
+            Object fps = result.get(key);
+            if (fps instanceof Map && !((Map<?, ?>) fps).isEmpty()) {
+                Object primary = ((Map<?, ?>) fps).get("primaryLocationLineHash");
+                Object value = primary != null ? primary : ((Map<?, ?>) fps).values().iterator().next();
+                return ruleId + "@" + value;
+            }
+        }
+        return ruleId + "@" + uri + ":" + startLine;
+    }
+
+    /**
+     * Prefers the numeric {@code security-severity} (CVSS-style, as GitHub does), then the result
+     * or rule level.
+     */
+    private Severity severityOf(Map<String, Object> result, Map<String, Object> rule) {
+        String securitySeverity = safeString(getNested(rule, "properties", "security-severity"));
+        if (!securitySeverity.isEmpty()) {
+            try {
+                double score = Double.parseDouble(securitySeverity);
+                if (score >= 9.0) return Severity.CRITICAL;
+                if (score >= 7.0) return Severity.HIGH;
+                if (score >= 4.0) return Severity.MEDIUM;
+                if (score > 0.0) return Severity.LOW;
+                return Severity.INFORMATIONAL;
+            } catch (NumberFormatException ignored) {
+                // fall through to level
+            }
+        }
+        String level = safeString(result.get("level"));
+        if (level.isEmpty()) {
+            level = safeString(getNested(rule, "defaultConfiguration", "level"));
+        }
+        switch (level) {
+            case "error":
+                return Severity.HIGH;
+            case "note":
+                return Severity.LOW;
+            case "none":
+                return Severity.INFORMATIONAL;
+            default:
+                return Severity.MEDIUM;
+        }
+    }
+
+    private AlertState stateOf(Map<String, Object> result) {
+        if ("absent".equals(safeString(result.get("baselineState")))) {
+            return AlertState.FIXED;
+        }
+        Object suppressions = result.get("suppressions");
+        if (suppressions instanceof List) {
+            for (Object s : (List<?>) suppressions) {
+                String status = (s instanceof Map) ? safeString(((Map<?, ?>) s).get("status")) : "";
+                if (status.isEmpty() || "accepted".equals(status)) {
+                    return AlertState.SUPPRESSED;
+                }
+            }
+        }
+        return AlertState.OPEN;
+    }
+
+    /**
+     * Rule metadata of one run, indexed both by position (ruleIndex) and by id.
+     */
+    private static final class RunContext {
+
+        static final RunContext EMPTY = new RunContext("", List.of(), Map.of());
+
+        private final String toolName;
+        private final List<Map<String, Object>> rulesByIndex;
+        private final Map<String, Map<String, Object>> rulesById;
+
+        private RunContext(String toolName, List<Map<String, Object>> rulesByIndex,
+                           Map<String, Map<String, Object>> rulesById) {
+            this.toolName = toolName;
+            this.rulesByIndex = rulesByIndex;
+            this.rulesById = rulesById;
+        }
+
+        @SuppressWarnings("unchecked")
+        static RunContext from(Map<String, Object> tool) {
+            List<Map<String, Object>> byIndex = new ArrayList<>();
+            Map<String, Map<String, Object>> byId = new HashMap<>();
+            Object driverRules = getNested(tool, "driver", "rules");
+            if (driverRules instanceof List) {
+                for (Object r : (List<?>) driverRules) {
+                    Map<String, Object> rule = (r instanceof Map) ? (Map<String, Object>) r : new HashMap<>();
+                    rule.remove("help"); // long markdown we never use; don't keep it for the whole run
+                    byIndex.add(rule);
+                    byId.put(safeString(rule.get("id")), rule);
+                }
+            }
+            Object extensions = tool.get("extensions");
+            if (extensions instanceof List) {
+                for (Object ext : (List<?>) extensions) {
+                    Object extRules = (ext instanceof Map) ? ((Map<?, ?>) ext).get("rules") : null;
+                    if (extRules instanceof List) {
+                        for (Object r : (List<?>) extRules) {
+                            if (r instanceof Map) {
+                                Map<String, Object> rule = (Map<String, Object>) r;
+                                rule.remove("help");
+                                byId.putIfAbsent(safeString(rule.get("id")), rule);
+                            }
+                        }
+                    }
+                }
+            }
+            return new RunContext(safeString(getNested(tool, "driver", "name")), byIndex, byId);
+        }
+
+        Map<String, Object> ruleFor(Map<String, Object> result) {
+            Object ruleIndex = result.get("ruleIndex");
+            if (ruleIndex instanceof Number) {
+                int idx = ((Number) ruleIndex).intValue();
+                if (idx >= 0 && idx < rulesByIndex.size()) {
+                    return rulesByIndex.get(idx);
+                }
+            }
+            String ruleId = safeString(result.get("ruleId"));
+            if (ruleId.isEmpty()) {
+                ruleId = safeString(getNested(result, "rule", "id"));
+            }
+            return rulesById.get(ruleId);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static com.example.capstone.parser.tool.AlertFields.safeString;
+
+@Component
+public class SecretScanningParser extends GithubAlertParser {
+
+    @Override
+    public String getToolType() {
+        return "SECRET_SCANNING";
+    }
+
+    @Override
+    protected void fillToolData(Findings f, Map<String, Object> alert) {
+        Boolean publiclyLeaked = (alert.get("publicly_leaked") instanceof Boolean)
+                ? (Boolean) alert.get("publicly_leaked")
+                : false;
+        f.setSeverity(Boolean.TRUE.equals(publiclyLeaked) ? Severity.CRITICAL : Severity.HIGH);
+        String secretTypeDisplay = safeString(alert.get("secret_type_display_name"));
+        if (secretTypeDisplay.isEmpty()) {
+            secretTypeDisplay = safeString(alert.get("secret_type"));
+        }
+        f.setTitle("Secret Scanning Alert: " + secretTypeDisplay);
+        String validity = safeString(alert.get("validity"));
+        String resolution = safeString(alert.get("resolution"));
+        boolean pushProtectionBypassed = (alert.get("push_protection_bypassed") instanceof Boolean)
+                ? (boolean) alert.get("push_protection_bypassed")
+                : false;
+        String rawSecret = safeString(alert.get("secret"));
+        String maskedSecret = rawSecret.isEmpty() ? "" : (rawSecret.length() > 8
+                ? rawSecret.substring(0, 8) + "...(masked)"
+                : rawSecret);
+        StringBuilder descBuilder = new StringBuilder();
+        descBuilder.append("Secret Type: ").append(safeString(alert.get("secret_type")))
+                .append("; Validity: ").append(validity)
+                .append("; Publicly Leaked: ").append(publiclyLeaked)
+                .append("; Push Protection Bypassed: ").append(pushProtectionBypassed);
+        if (!resolution.isEmpty()) {
+            descBuilder.append("; Resolution: ").append(resolution);
+        }
+        if (!maskedSecret.isEmpty()) {
+            descBuilder.append("; Secret (masked): ").append(maskedSecret);
+        }
+        f.setDescription(descBuilder.toString());
+        f.setCve("");
+        f.setCwe("");
+        f.setCvss("");
+        f.setLocation(safeString(alert.get("locations_url")));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.Findings;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * SPI for one scanner output format. Implementations are discovered at startup, either as
+ * Spring beans or through {@code META-INF/services/com.example.capstone.parser.tool.ToolParser},
+ * and registered in {@link ToolParserRegistry} by {@link #getToolType()}.
+ *
+ * Reading and conversion are split so the caller can checkpoint, isolate failures and
+ * parallelize per record: {@link #readAlerts} streams raw records without holding the whole
+ * document, {@link #convert} turns one record into a {@link Findings}.
+ */
+public interface ToolParser {
+
+    /**
+     * The toolType this parser handles, e.g. CODE_SCANNING or SARIF.
+     */
+    String getToolType();
+
+    /**
+     * Streams the alerts in {@code file} to the handler in file order. Alerts before
+     * {@code fromIndex} are skipped without being materialized. Entries that are not JSON
+     * objects are passed on as read; only a file that is not valid JSON fails the read.
+     *
+     * @return the total number of alerts in the file, including skipped ones
+     */
+    int readAlerts(File file, int fromIndex, AlertHandler handler) throws IOException;
+
+    /**
+     * Converts one raw alert record. The returned finding carries a fresh id and this parser's toolType.
+     */
+    Findings convert(Map<String, Object> alert);
+}
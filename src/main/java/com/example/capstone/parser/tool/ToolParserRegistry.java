@@ -0,0 +1,46 @@
+package com.example.capstone.parser.tool;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * toolType -> {@link ToolParser}, built once at startup from the Spring beans plus any
+ * implementations on the classpath registered through {@link ServiceLoader}.
+ */
+@Component
+public class ToolParserRegistry {
+
+    private final Map<String, ToolParser> parsers = new LinkedHashMap<>();
+
+    public ToolParserRegistry(List<ToolParser> beanParsers) {
+        for (ToolParser parser : beanParsers) {
+            register(parser);
+        }
+        for (ToolParser parser : ServiceLoader.load(ToolParser.class)) {
+            register(parser);
+        }
+        System.out.println("[ToolParserRegistry] Registered tool parsers: " + parsers.keySet());
+    }
+
+    /**
+     * Returns the parser for this toolType, or a generic fallback that still reads
+     * GitHub-shaped alert arrays if none is registered.
+     */
+    public ToolParser get(String toolType) {
+        ToolParser parser = parsers.get(toolType);
+        return parser != null ? parser : new UnknownToolParser(toolType);
+    }
+
+    public Set<String> getToolTypes() {
+        return Collections.unmodifiableSet(parsers.keySet());
+    }
+
+    private void register(ToolParser parser) {
+        ToolParser existing = parsers.putIfAbsent(parser.getToolType(), parser);
+        if (existing != null && existing.getClass() != parser.getClass()) {
+            throw new IllegalStateException("Duplicate ToolParser for toolType " + parser.getToolType()
+                    + ": " + existing.getClass().getName() + " and " + parser.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+
+import java.util.Map;
+
+/**
+ * Fallback for toolTypes without a registered parser: keeps the common GitHub fields and
+ * marks everything else as an unknown MEDIUM alert, as the parser always did.
+ */
+class UnknownToolParser extends GithubAlertParser {
+
+    private final String toolType;
+
+    UnknownToolParser(String toolType) {
+        this.toolType = toolType;
+    }
+
+    @Override
+    public String getToolType() {
+        return toolType;
+    }
+
+    @Override
+    protected void fillToolData(Findings f, Map<String, Object> alert) {
+        f.setSeverity(Severity.MEDIUM);
+        f.setTitle("Unknown Alert");
+        f.setDescription("");
+        f.setCve("");
+        f.setCwe("");
+        f.setCvss("");
+        f.setLocation("");
+    }
+}
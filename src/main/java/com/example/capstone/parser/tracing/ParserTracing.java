@@ -0,0 +1,243 @@
+package com.example.capstone.parser.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenTelemetry tracing for the parser: one SDK instance (no agent, no collector required),
+ * W3C trace context carried in Kafka record headers in both directions, and finished spans kept
+ * in memory ({@code /parser/metrics/traces}) and optionally appended to an NDJSON file.
+ * Elasticsearch calls are traced by the ES client's own instrumentation, which is handed
+ * {@link #openTelemetry()} in ElasticsearchConfig.
+ *
+ * Span layout of a job: {@code parser.consume} (continuing the producer's trace) >
+ * {@code parser.job} > admission / dedup lock / dedup index load / per-file parse > per-batch
+ * flush > ES bulk and summary update; the ack and NEW_SCAN / UPDATE_FINDING sends are PRODUCER
+ * spans whose context goes out in the record headers.
+ *
+ * Off by default, like JFR: with it on, every sampled job keeps a span per ES / JPA / Kafka call
+ * in memory, so {@code sample-ratio} defaults to 1% of root traces.
+ */
+@Component
+public class ParserTracing {
+
+    @Value("${parser.tracing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${parser.tracing.sample-ratio:0.01}")
+    private double sampleRatio;
+
+    @Value("${parser.tracing.recent-spans:2048}")
+    private int recentSpans;
+
+    // NDJSON file for finished spans; empty => memory only
+    @Value("${parser.tracing.file:}")
+    private String file;
+
+    @Value("${spring.application.name:parser}")
+    private String serviceName;
+
+    private static final TextMapGetter<Headers> HEADER_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(Headers headers) {
+            List<String> keys = new ArrayList<>();
+            for (Header header : headers) {
+                keys.add(header.key());
+            }
+            return keys;
+        }
+
+        @Override
+        public String get(Headers headers, String key) {
+            Header header = headers == null ? null : headers.lastHeader(key);
+            return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final TextMapSetter<Headers> HEADER_SETTER = (headers, key, value) -> {
+        headers.remove(key);
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    };
+
+    private OpenTelemetry openTelemetry = OpenTelemetry.noop();
+    private OpenTelemetrySdk sdk;
+    private RecentSpansExporter recent;
+    private Tracer tracer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (enabled) {
+            recent = new RecentSpansExporter(recentSpans);
+            SdkTracerProviderBuilder provider = SdkTracerProvider.builder()
+                    .setResource(Resource.getDefault().merge(Resource.create(
+                            Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                    .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio)))
+                    .addSpanProcessor(SimpleSpanProcessor.create(recent));
+            if (file != null && !file.isBlank()) {
+                provider.addSpanProcessor(BatchSpanProcessor.builder(new NdjsonSpanExporter(Paths.get(file))).build());
+            }
+            sdk = OpenTelemetrySdk.builder()
+                    .setTracerProvider(provider.build())
+                    .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                    .build();
+            openTelemetry = sdk;
+            System.out.println("[ParserTracing] Tracing enabled, sample ratio " + sampleRatio
+                    + (file != null && !file.isBlank() ? ", spans appended to " + file : ""));
+        }
+        tracer = openTelemetry.getTracer("com.example.capstone.parser");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sdk != null) {
+            sdk.getSdkTracerProvider().shutdown().join(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public OpenTelemetry openTelemetry() {
+        return openTelemetry;
+    }
+
+    /**
+     * Starts an INTERNAL span, child of the current one, and makes it current.
+     */
+    public SpanScope span(String name) {
+        return new SpanScope(tracer.spanBuilder(name).startSpan());
+    }
+
+    /**
+     * Starts the CONSUMER span for a received record, continuing the trace in its headers
+     * (a new trace when it has none).
+     */
+    public SpanScope consume(ConsumerRecord<?, ?> record) {
+        Context parent = openTelemetry.getPropagators().getTextMapPropagator()
+                .extract(Context.root(), record.headers(), HEADER_GETTER);
+        Span span = tracer.spanBuilder(record.topic() + " process")
+                .setParent(parent)
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute("messaging.system", "kafka")
+                .setAttribute("messaging.destination.name", record.topic())
+                .setAttribute("messaging.kafka.destination.partition", (long) record.partition())
+                .setAttribute("messaging.kafka.message.offset", record.offset())
+                .startSpan();
+        return new SpanScope(span);
+    }
+
+    /**
+     * Sends {@code value} to {@code topic} in a PRODUCER span whose context is written to the
+     * record's W3C headers, so downstream consumers continue this trace. The span ends when the
+     * broker acknowledges the record.
+     */
+    @SuppressWarnings("try")
+    public CompletableFuture<SendResult<String, String>> send(KafkaTemplate<String, String> template,
+                                                              String topic, String value) {
+        Span span = tracer.spanBuilder(topic + " publish")
+                .setSpanKind(SpanKind.PRODUCER)
+                .setAttribute("messaging.system", "kafka")
+                .setAttribute("messaging.destination.name", topic)
+                .setAttribute("messaging.message.body.size", (long) value.length())
+                .startSpan();
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, value);
+        CompletableFuture<SendResult<String, String>> future;
+        try (Scope ignored = span.makeCurrent()) {
+            openTelemetry.getPropagators().getTextMapPropagator().inject(Context.current(), record.headers(), HEADER_SETTER);
+            future = template.send(record);
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            span.end();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                span.recordException(error);
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+        });
+    }
+
+    /**
+     * Finished spans, newest first, optionally of one trace.
+     */
+    public List<Map<String, Object>> recentSpans(String traceId, int limit) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        if (recent != null) {
+            for (SpanData span : recent.recent(traceId, limit)) {
+                out.add(toMap(span));
+            }
+        }
+        return out;
+    }
+
+    static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("traceId", span.getTraceId());
+        m.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            m.put("parentSpanId", span.getParentSpanId());
+        }
+        m.put("name", span.getName());
+        m.put("kind", span.getKind().name());
+        m.put("startEpochMicros", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()));
+        m.put("durationMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0);
+        m.put("status", span.getStatus().getStatusCode().name());
+        if (span.getStatus().getDescription() != null && !span.getStatus().getDescription().isEmpty()) {
+            m.put("statusMessage", span.getStatus().getDescription());
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((k, v) -> attributes.put(k.getKey(), v));
+        m.put("attributes", attributes);
+        if (!span.getEvents().isEmpty()) {
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (EventData event : span.getEvents()) {
+                Map<String, Object> e = new LinkedHashMap<>();
+                e.put("name", event.getName());
+                event.getAttributes().forEach((k, v) -> e.put(k.getKey(), v));
+                events.add(e);
+            }
+            m.put("events", events);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.capstone.parser.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the last {@code capacity} finished spans in memory for {@code /parser/metrics/traces}.
+ */
+class RecentSpansExporter implements SpanExporter {
+
+    private final int capacity;
+    private final ArrayDeque<SpanData> spans = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    RecentSpansExporter(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        lock.lock();
+        try {
+            for (SpanData span : batch) {
+                if (spans.size() == capacity) {
+                    spans.pollFirst();
+                }
+                spans.addLast(span);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Newest first; only spans of {@code traceId} when it is given.
+     */
+    List<SpanData> recent(String traceId, int limit) {
+        List<SpanData> out = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<SpanData> it = spans.descendingIterator();
+            while (it.hasNext() && out.size() < limit) {
+                SpanData span = it.next();
+                if (traceId == null || traceId.equals(span.getTraceId())) {
+                    out.add(span);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return out;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
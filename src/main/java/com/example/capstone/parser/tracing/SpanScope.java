@@ -0,0 +1,65 @@
+package com.example.capstone.parser.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+
+/**
+ * A started span that is current on this thread until closed:
+ * <pre>
+ * try (SpanScope span = tracing.span("job.flush").attribute("docs", n)) {
+ *     ...
+ * }
+ * </pre>
+ * Closing ends the span. Failures are recorded with {@link #fail}; must be closed on the
+ * thread that opened it.
+ */
+public final class SpanScope implements AutoCloseable {
+
+    private final Span span;
+    private final Scope scope;
+
+    SpanScope(Span span) {
+        this.span = span;
+        this.scope = span.makeCurrent();
+    }
+
+    public SpanScope attribute(String key, String value) {
+        if (value != null) {
+            span.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    public SpanScope attribute(String key, Long value) {
+        if (value != null) {
+            span.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    public SpanScope attribute(String key, long value) {
+        span.setAttribute(key, value);
+        return this;
+    }
+
+    public SpanScope attribute(String key, boolean value) {
+        span.setAttribute(key, value);
+        return this;
+    }
+
+    public void fail(Throwable t) {
+        span.recordException(t);
+        span.setStatus(StatusCode.ERROR, t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+
+    public void fail(String message) {
+        span.setStatus(StatusCode.ERROR, message);
+    }
+
+    @Override
+    public void close() {
+        scope.close();
+        span.end();
+    }
+}
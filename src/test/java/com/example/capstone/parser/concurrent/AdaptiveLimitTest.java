@@ -0,0 +1,94 @@
+package com.example.capstone.parser.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class AdaptiveLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static boolean complete(AdaptiveLimit limit, long latencyNanos, boolean overloaded) throws InterruptedException {
+        limit.acquire();
+        return limit.release(latencyNanos, overloaded);
+    }
+
+    @Test
+    void growsByOneAfterALimitsWorthOfFastCompletions() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 4, 2, 0.5, 2.0, true);
+        assertFalse(complete(limit, FAST, false));
+        assertEquals(2, limit.getLimit());
+        complete(limit, FAST, false);
+        assertEquals(3, limit.getLimit());
+        for (int i = 0; i < 10; i++) {
+            complete(limit, FAST, false);
+        }
+        assertEquals(4, limit.getLimit(), "capped at maxLimit");
+    }
+
+    @Test
+    void cutsOnceForABurstOfSlowResponses() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 16, 8, 0.5, 2.0, true);
+        complete(limit, FAST, false);
+
+        assertTrue(complete(limit, SLOW, false));
+        assertEquals(4, limit.getLimit());
+        // within one baseline interval of the cut: a congestion signal, but no further cut
+        assertTrue(complete(limit, SLOW, false));
+        assertEquals(4, limit.getLimit());
+
+        Thread.sleep(30);
+        assertTrue(complete(limit, FAST, true));
+        assertEquals(2, limit.getLimit());
+        assertEquals(2L, limit.snapshot().get("decreases"));
+    }
+
+    @Test
+    void neverGoesBelowMinLimit() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 16, 3, 0.1, 2.0, true);
+        complete(limit, FAST, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void staysFixedWhenNotAdaptive() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 16, 3, 0.5, 2.0, false);
+        complete(limit, FAST, false);
+        assertTrue(complete(limit, SLOW, false), "still reported as a congestion signal");
+        assertTrue(complete(limit, FAST, true));
+        for (int i = 0; i < 10; i++) {
+            complete(limit, FAST, false);
+        }
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    void acquireWaitsForAFreeSlot() throws Exception {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 0.5, 2.0, true);
+        limit.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            try {
+                limit.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, limit.snapshot().get("waiting"));
+
+        limit.release(FAST, false);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, limit.snapshot().get("inFlight"));
+    }
+}
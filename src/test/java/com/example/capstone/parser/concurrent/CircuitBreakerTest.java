@@ -0,0 +1,139 @@
+package com.example.capstone.parser.concurrent;
+
+import com.example.capstone.parser.concurrent.CircuitBreaker.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class CircuitBreakerTest {
+
+    private CircuitBreaker breaker;
+    private final List<State> transitions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker("test", 2, 50);
+        breaker.addListener(transitions::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        breaker.close();
+    }
+
+    /**
+     * Waits until listeners heard {@code expected}, which the timer reports after changing the state.
+     */
+    private void awaitState(State expected) throws InterruptedException {
+        while (transitions.isEmpty() || transitions.get(transitions.size() - 1) != expected) {
+            Thread.sleep(5);
+        }
+    }
+
+    /** One request let through while closed that fails. */
+    private void fail() {
+        breaker.onFailure(breaker.tryAcquire());
+    }
+
+    private void openAndAwaitHalfOpen() throws InterruptedException {
+        fail();
+        fail();
+        awaitState(State.HALF_OPEN);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        fail();
+        breaker.onSuccess(breaker.tryAcquire());
+        fail();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertFalse(breaker.tryAcquire().isProbe());
+        assertEquals(0L, breaker.remainingOpenMillis());
+
+        fail();
+        assertEquals(State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+        assertTrue(breaker.remainingOpenMillis() > 0);
+        assertEquals(List.of(State.OPEN), transitions);
+    }
+
+    @Test
+    void aSuccessfulProbeCloses() throws Exception {
+        openAndAwaitHalfOpen();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertTrue(probe.isProbe(), "the probe goes through");
+        assertNull(breaker.tryAcquire(), "only one probe at a time");
+        breaker.onSuccess(probe);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertNotNull(breaker.tryAcquire());
+        assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.CLOSED), transitions);
+    }
+
+    @Test
+    void aFailedProbeOpensAgain() throws Exception {
+        openAndAwaitHalfOpen();
+
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(State.OPEN, breaker.getState());
+        awaitState(State.HALF_OPEN);
+
+        assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.OPEN, State.HALF_OPEN), transitions);
+        assertEquals(2L, breaker.snapshot().get("opens"));
+    }
+
+    @Test
+    void anAbandonedProbeFreesTheSlot() throws Exception {
+        openAndAwaitHalfOpen();
+
+        breaker.abandon(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire().isProbe(), "another caller may probe");
+    }
+
+    @Test
+    void aLateFailureDuringHalfOpenLeavesTheProbeInCharge() throws Exception {
+        CircuitBreaker.Permit late = breaker.tryAcquire();
+        openAndAwaitHalfOpen();
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+
+        // sent while closed, fails only now: neither re-opens the breaker nor counts as a failure
+        breaker.onFailure(late);
+        breaker.abandon(late);
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertEquals(2, breaker.snapshot().get("consecutiveFailures"));
+        assertNull(breaker.tryAcquire(), "the probe is still outstanding");
+
+        breaker.onSuccess(probe);
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.CLOSED), transitions);
+    }
+
+    @Test
+    void lateOutcomesFromBeforeAnOpenAreIgnored() throws Exception {
+        CircuitBreaker.Permit lateSuccess = breaker.tryAcquire();
+        CircuitBreaker.Permit lateFailure = breaker.tryAcquire();
+        openAndAwaitHalfOpen();
+        breaker.onSuccess(lateSuccess);
+        assertEquals(State.HALF_OPEN, breaker.getState(), "only the probe may close the breaker");
+
+        breaker.onSuccess(breaker.tryAcquire());
+        fail();
+        // a failure from the earlier closed period does not count towards the new one
+        breaker.onFailure(lateFailure);
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.snapshot().get("consecutiveFailures"));
+    }
+}
@@ -0,0 +1,774 @@
+package com.example.capstone.parser.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-process HTTP stand-in for the Elasticsearch endpoints the parser uses: document index /
+ * get / update / delete, _bulk, _search (with composite aggregations), _mget, _pit, index exists /
+ * create / _settings / _refresh and _index_template. Documents are kept in memory so dedup lookups see earlier writes.
+ * Searches understand term, terms, bool and match_all, which covers the parser's queries, and
+ * page with search_after over hits sorted by _id whatever the requested sort;
+ * scripted updates only apply the upsert (the script itself is not run).
+ *
+ * Every response is delayed by {@code latencyMs} plus up to {@code jitterMs}. On the data path
+ * (documents, _bulk, _search, _mget) a request fails with 503 at {@code requestErrorRate}, and
+ * each _bulk item is rejected with 429 at {@code bulkItemErrorRate}.
+ */
+public class ElasticsearchStub implements AutoCloseable {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Map<String, ObjectNode>> indices = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> templates = new ConcurrentHashMap<>();
+    private final Map<String, ObjectNode> settings = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong seqNo = new AtomicLong();
+    private final AtomicLong bulkBytes = new AtomicLong();
+    private final Map<String, String> pits = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double requestErrorRate;
+    private volatile double bulkItemErrorRate;
+
+    public ElasticsearchStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(32);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    public void setRequestErrorRate(double requestErrorRate) {
+        this.requestErrorRate = requestErrorRate;
+    }
+
+    public void setBulkItemErrorRate(double bulkItemErrorRate) {
+        this.bulkItemErrorRate = bulkItemErrorRate;
+    }
+
+    public int documentCount(String index) {
+        Map<String, ObjectNode> docs = indices.get(index);
+        return docs == null ? 0 : docs.size();
+    }
+
+    public int totalDocuments() {
+        return indices.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Documents across the indices whose name starts with {@code prefix}, e.g. the tenants'
+     * findings indices without the summary index.
+     */
+    public int totalDocuments(String prefix) {
+        int total = 0;
+        for (Map.Entry<String, Map<String, ObjectNode>> e : indices.entrySet()) {
+            if (e.getKey().startsWith(prefix)) {
+                total += e.getValue().size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Bytes of all _bulk request bodies received.
+     */
+    /**
+     * Sets an index setting directly, e.g. to leave an index as a crashed bulk load would.
+     */
+    public void putSetting(String index, String key, String value) {
+        ObjectNode current = settingsOf(index);
+        synchronized (current) {
+            current.put(key, value);
+        }
+    }
+
+    public String setting(String index, String key) {
+        ObjectNode current = settingsOf(index);
+        synchronized (current) {
+            return current.path(key).asText(null);
+        }
+    }
+
+    public long getBulkBytes() {
+        return bulkBytes.get();
+    }
+
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> out = new TreeMap<>();
+        requestCounts.forEach((k, v) -> out.put(k, v.get()));
+        return out;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ----------------------------------------------------------------------
+    // Routing
+    // ----------------------------------------------------------------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String method = ex.getRequestMethod();
+            List<String> parts = pathParts(ex.getRequestURI());
+            byte[] body = ex.getRequestBody().readAllBytes();
+            delay();
+            try {
+                route(ex, method, parts, body);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                sendError(ex, 500, "stub_exception", String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    private void route(HttpExchange ex, String method, List<String> parts, byte[] body) throws IOException {
+        if (parts.isEmpty()) {
+            count("info");
+            ObjectNode info = mapper.createObjectNode();
+            info.put("name", "es-stub").put("cluster_name", "es-stub").put("tagline", "You Know, for Search");
+            info.putObject("version").put("number", "8.15.5");
+            send(ex, 200, "HEAD".equals(method) ? null : info);
+            return;
+        }
+        String first = parts.get(0);
+        String last = parts.get(parts.size() - 1);
+        if ("_index_template".equals(first) && parts.size() == 2) {
+            count("index_template");
+            indexTemplate(ex, method, parts.get(1), body);
+            return;
+        }
+        if ("_bulk".equals(last)) {
+            count("bulk");
+            bulkBytes.addAndGet(body.length);
+            if (!injectRequestError(ex)) {
+                bulk(ex, parts.size() == 2 ? first : null, body);
+            }
+            return;
+        }
+        if ("_mget".equals(last)) {
+            count("mget");
+            if (!injectRequestError(ex)) {
+                mget(ex, parts.size() == 2 ? first : null, body);
+            }
+            return;
+        }
+        if ("_pit".equals(last)) {
+            count("pit");
+            pointInTime(ex, parts.size() == 2 ? first : null, method, body);
+            return;
+        }
+        if ("_search".equals(last)) {
+            count("search");
+            if (!injectRequestError(ex)) {
+                search(ex, parts.size() == 2 ? first : null, body);
+            }
+            return;
+        }
+        if (parts.size() == 1) {
+            count("index_admin");
+            indexAdmin(ex, method, first);
+            return;
+        }
+        if (parts.size() == 2 && "_settings".equals(last)) {
+            count("settings");
+            settings(ex, method, first, body);
+            return;
+        }
+        if (parts.size() == 2 && "_refresh".equals(last)) {
+            count("refresh");
+            ObjectNode resp = mapper.createObjectNode();
+            resp.set("_shards", shards());
+            send(ex, 200, resp);
+            return;
+        }
+        if (parts.size() == 3 && ("_doc".equals(parts.get(1)) || "_create".equals(parts.get(1)))) {
+            count("doc");
+            if (!injectRequestError(ex)) {
+                document(ex, method, first, parts.get(2), body);
+            }
+            return;
+        }
+        if (parts.size() == 3 && "_update".equals(parts.get(1))) {
+            count("update");
+            if (!injectRequestError(ex)) {
+                update(ex, first, parts.get(2), body);
+            }
+            return;
+        }
+        count("unsupported");
+        sendError(ex, 400, "illegal_argument_exception", "es-stub does not implement " + method + " /" + String.join("/", parts));
+    }
+
+    // ----------------------------------------------------------------------
+    // Endpoints
+    // ----------------------------------------------------------------------
+
+    private void indexAdmin(HttpExchange ex, String method, String index) throws IOException {
+        switch (method) {
+            case "HEAD" -> send(ex, indices.containsKey(index) ? 200 : 404, null);
+            case "PUT" -> {
+                if (indices.putIfAbsent(index, new ConcurrentHashMap<>()) != null) {
+                    sendError(ex, 400, "resource_already_exists_exception", "index [" + index + "] already exists");
+                    return;
+                }
+                ObjectNode resp = mapper.createObjectNode();
+                resp.put("acknowledged", true).put("shards_acknowledged", true).put("index", index);
+                send(ex, 200, resp);
+            }
+            case "DELETE" -> {
+                indices.remove(index);
+                send(ex, 200, mapper.createObjectNode().put("acknowledged", true));
+            }
+            default -> sendError(ex, 405, "illegal_argument_exception", method + " on index");
+        }
+    }
+
+    private void settings(HttpExchange ex, String method, String index, byte[] body) throws IOException {
+        if ("GET".equals(method) && (index.contains("*") || index.contains(","))) {
+            // wildcard / multi-index read: every known index matching one of the patterns
+            List<Pattern> patterns = new ArrayList<>();
+            for (String p : index.split(",")) {
+                patterns.add(Pattern.compile(Pattern.quote(p).replace("*", "\\E.*\\Q")));
+            }
+            Set<String> names = new TreeSet<>(indices.keySet());
+            names.addAll(settings.keySet());
+            ObjectNode resp = mapper.createObjectNode();
+            for (String name : names) {
+                if (patterns.stream().anyMatch(p -> p.matcher(name).matches())) {
+                    ObjectNode current = settingsOf(name);
+                    synchronized (current) {
+                        resp.putObject(name).putObject("settings").set("index", current.deepCopy());
+                    }
+                }
+            }
+            send(ex, 200, resp);
+            return;
+        }
+        ObjectNode current = settingsOf(index);
+        if ("PUT".equals(method)) {
+            JsonNode update = mapper.readTree(body);
+            JsonNode fields = update.has("index") ? update.get("index") : update;
+            synchronized (current) {
+                fields.fields().forEachRemaining(e -> current.put(e.getKey(), e.getValue().asText()));
+            }
+            send(ex, 200, mapper.createObjectNode().put("acknowledged", true));
+            return;
+        }
+        ObjectNode resp = mapper.createObjectNode();
+        synchronized (current) {
+            resp.putObject(index).putObject("settings").set("index", current.deepCopy());
+        }
+        send(ex, 200, resp);
+    }
+
+    private ObjectNode settingsOf(String index) {
+        return settings.computeIfAbsent(index, i -> {
+            ObjectNode s = mapper.createObjectNode();
+            s.put("refresh_interval", "1s").put("number_of_replicas", "1").put("number_of_shards", "1");
+            return s;
+        });
+    }
+
+    private void indexTemplate(HttpExchange ex, String method, String name, byte[] body) throws IOException {
+        if ("PUT".equals(method) || "POST".equals(method)) {
+            templates.put(name, mapper.readTree(body));
+            send(ex, 200, mapper.createObjectNode().put("acknowledged", true));
+            return;
+        }
+        JsonNode template = templates.get(name);
+        if (template == null) {
+            sendError(ex, 404, "resource_not_found_exception", "index template matching [" + name + "] not found");
+            return;
+        }
+        ObjectNode resp = mapper.createObjectNode();
+        ObjectNode entry = resp.putArray("index_templates").addObject();
+        entry.put("name", name);
+        entry.set("index_template", template);
+        send(ex, 200, resp);
+    }
+
+    private void document(HttpExchange ex, String method, String index, String id, byte[] body) throws IOException {
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            ObjectNode doc = docs(index).get(id);
+            ObjectNode resp = mapper.createObjectNode();
+            resp.put("_index", index).put("_id", id).put("found", doc != null);
+            if (doc != null) {
+                resp.set("_source", doc);
+            }
+            send(ex, doc != null ? 200 : 404, "HEAD".equals(method) ? null : resp);
+            return;
+        }
+        if ("DELETE".equals(method)) {
+            boolean found = docs(index).remove(id) != null;
+            send(ex, found ? 200 : 404, writeResult(index, id, found ? "deleted" : "not_found"));
+            return;
+        }
+        ObjectNode doc = (ObjectNode) mapper.readTree(body);
+        boolean created = docs(index).put(id, doc) == null;
+        send(ex, created ? 201 : 200, writeResult(index, id, created ? "created" : "updated"));
+    }
+
+    private void update(HttpExchange ex, String index, String id, byte[] body) throws IOException {
+        JsonNode req = mapper.readTree(body);
+        Map<String, ObjectNode> docs = docs(index);
+        String result;
+        if (req.has("doc")) {
+            ObjectNode existing = docs.get(id);
+            if (existing == null && !req.path("doc_as_upsert").asBoolean(false)) {
+                sendError(ex, 404, "document_missing_exception", "[" + id + "]: document missing");
+                return;
+            }
+            ObjectNode merged = existing == null ? mapper.createObjectNode() : existing.deepCopy();
+            merged.setAll((ObjectNode) req.get("doc"));
+            docs.put(id, merged);
+            result = existing == null ? "created" : "updated";
+        } else if (req.has("upsert")) {
+            result = docs.putIfAbsent(id, (ObjectNode) req.get("upsert")) == null ? "created" : "noop";
+        } else {
+            result = docs.containsKey(id) ? "noop" : null;
+            if (result == null) {
+                sendError(ex, 404, "document_missing_exception", "[" + id + "]: document missing");
+                return;
+            }
+        }
+        send(ex, 200, writeResult(index, id, result));
+    }
+
+    private void bulk(HttpExchange ex, String defaultIndex, byte[] body) throws IOException {
+        long start = System.nanoTime();
+        ArrayNode items = mapper.createArrayNode();
+        boolean errors = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new java.io.ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode action = mapper.readTree(line);
+                String op = action.fieldNames().next();
+                JsonNode meta = action.get(op);
+                String index = meta.path("_index").asText(defaultIndex);
+                String id = meta.path("_id").asText(null);
+                if (id == null) {
+                    id = UUID.randomUUID().toString();
+                }
+                JsonNode source = "delete".equals(op) ? null : mapper.readTree(reader.readLine());
+
+                ObjectNode item = items.addObject().putObject(op);
+                item.put("_index", index).put("_id", id);
+                if (ThreadLocalRandom.current().nextDouble() < bulkItemErrorRate) {
+                    errors = true;
+                    item.put("status", 429);
+                    item.putObject("error")
+                            .put("type", "es_rejected_execution_exception")
+                            .put("reason", "injected rejection from es-stub");
+                    continue;
+                }
+                Map<String, ObjectNode> docs = docs(index);
+                switch (op) {
+                    case "index" -> {
+                        boolean created = docs.put(id, (ObjectNode) source) == null;
+                        fillWriteResult(item, created ? "created" : "updated", created ? 201 : 200);
+                    }
+                    case "create" -> {
+                        if (docs.putIfAbsent(id, (ObjectNode) source) != null) {
+                            errors = true;
+                            item.put("status", 409);
+                            item.putObject("error")
+                                    .put("type", "version_conflict_engine_exception")
+                                    .put("reason", "[" + id + "]: version conflict, document already exists");
+                        } else {
+                            fillWriteResult(item, "created", 201);
+                        }
+                    }
+                    case "update" -> {
+                        ObjectNode existing = docs.get(id);
+                        ObjectNode merged = existing == null ? mapper.createObjectNode() : existing.deepCopy();
+                        if (source.has("doc")) {
+                            merged.setAll((ObjectNode) source.get("doc"));
+                        }
+                        docs.put(id, merged);
+                        fillWriteResult(item, existing == null ? "created" : "updated", 200);
+                    }
+                    case "delete" -> {
+                        boolean found = docs.remove(id) != null;
+                        fillWriteResult(item, found ? "deleted" : "not_found", found ? 200 : 404);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown bulk op " + op);
+                }
+            }
+        }
+        ObjectNode resp = mapper.createObjectNode();
+        resp.put("took", (System.nanoTime() - start) / 1_000_000L);
+        resp.put("errors", errors);
+        resp.set("items", items);
+        send(ex, 200, resp);
+    }
+
+    private void search(HttpExchange ex, String index, byte[] body) throws IOException {
+        JsonNode req = body.length == 0 ? mapper.createObjectNode() : mapper.readTree(body);
+        JsonNode query = req.get("query");
+        int size = req.path("size").asInt(10);
+        int from = req.path("from").asInt(0);
+        if (req.has("pit")) {
+            index = pits.get(req.path("pit").path("id").asText());
+            if (index == null) {
+                sendError(ex, 404, "search_context_missing_exception", "No search context found");
+                return;
+            }
+        }
+        // any sort orders by _id, with the position as the sort value (enough for _shard_doc + search_after)
+        boolean sorted = req.has("sort");
+        if (sorted && req.has("search_after")) {
+            from = req.path("search_after").get(0).asInt() + 1;
+        }
+
+        List<Map.Entry<String, ObjectNode>> matches = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        for (String pattern : index == null ? List.of("*") : Arrays.asList(index.split(","))) {
+            if (pattern.contains("*")) {
+                Pattern wildcard = Pattern.compile(Pattern.quote(pattern).replace("*", "\\E.*\\Q"));
+                indices.keySet().stream().filter(i -> wildcard.matcher(i).matches()).sorted().forEach(targets::add);
+            } else {
+                targets.add(pattern);
+            }
+        }
+        Map<String, String> indexOf = new HashMap<>();
+        for (String target : targets) {
+            Map<String, ObjectNode> docs = indices.get(target);
+            if (docs == null) {
+                continue;
+            }
+            for (Map.Entry<String, ObjectNode> e : docs.entrySet()) {
+                if (matches(e.getValue(), query)) {
+                    matches.add(e);
+                    indexOf.put(e.getKey(), target);
+                }
+            }
+        }
+
+        if (sorted) {
+            matches.sort(Map.Entry.comparingByKey());
+        }
+
+        ObjectNode resp = mapper.createObjectNode();
+        resp.put("took", 1).put("timed_out", false);
+        if (req.has("pit")) {
+            resp.put("pit_id", req.path("pit").path("id").asText());
+        }
+        resp.set("_shards", shards());
+        ObjectNode hits = resp.putObject("hits");
+        hits.putObject("total").put("value", matches.size()).put("relation", "eq");
+        hits.put("max_score", 1.0);
+        JsonNode aggs = req.has("aggregations") ? req.get("aggregations") : req.get("aggs");
+        if (aggs != null) {
+            ObjectNode aggResults = resp.putObject("aggregations");
+            aggs.fields().forEachRemaining(a -> {
+                if (a.getValue().has("composite")) {
+                    aggResults.set("composite#" + a.getKey(), composite(a.getValue().get("composite"), matches));
+                }
+            });
+        }
+        ArrayNode hitArray = hits.putArray("hits");
+        for (int i = from; i < Math.min(matches.size(), from + size); i++) {
+            Map.Entry<String, ObjectNode> e = matches.get(i);
+            ObjectNode hit = hitArray.addObject();
+            hit.put("_index", indexOf.get(e.getKey())).put("_id", e.getKey()).put("_score", 1.0);
+            hit.set("_source", e.getValue());
+            if (sorted) {
+                hit.putArray("sort").add(i);
+            }
+        }
+        send(ex, 200, resp);
+    }
+
+    /**
+     * Composite aggregation over terms sources (missing values as null keys), paged with "after".
+     */
+    private ObjectNode composite(JsonNode spec, List<Map.Entry<String, ObjectNode>> matches) {
+        List<String> names = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        for (JsonNode source : spec.path("sources")) {
+            Map.Entry<String, JsonNode> named = source.fields().next();
+            names.add(named.getKey());
+            fields.add(named.getValue().path("terms").path("field").asText());
+        }
+        Comparator<List<String>> order = (a, b) -> {
+            for (int i = 0; i < a.size(); i++) {
+                int c = Comparator.nullsFirst(Comparator.<String>naturalOrder()).compare(a.get(i), b.get(i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+        TreeMap<List<String>, Long> counts = new TreeMap<>(order);
+        for (Map.Entry<String, ObjectNode> e : matches) {
+            List<String> key = new ArrayList<>();
+            for (String field : fields) {
+                key.add(fieldValue(e.getValue(), field));
+            }
+            counts.merge(key, 1L, Long::sum);
+        }
+        SortedMap<List<String>, Long> page = counts;
+        if (spec.has("after")) {
+            List<String> after = new ArrayList<>();
+            for (String name : names) {
+                JsonNode v = spec.get("after").get(name);
+                after.add(v == null || v.isNull() ? null : v.asText());
+            }
+            page = counts.tailMap(after, false);
+        }
+        int size = spec.path("size").asInt(10);
+        ObjectNode result = mapper.createObjectNode();
+        ArrayNode buckets = result.putArray("buckets");
+        ObjectNode last = null;
+        for (Map.Entry<List<String>, Long> e : page.entrySet()) {
+            if (buckets.size() == size) {
+                break;
+            }
+            ObjectNode bucket = buckets.addObject();
+            ObjectNode key = bucket.putObject("key");
+            for (int i = 0; i < names.size(); i++) {
+                key.put(names.get(i), e.getKey().get(i));
+            }
+            bucket.put("doc_count", e.getValue());
+            last = key;
+        }
+        if (last != null) {
+            result.set("after_key", last.deepCopy());
+        }
+        return result;
+    }
+
+    private void pointInTime(HttpExchange ex, String index, String method, byte[] body) throws IOException {
+        if ("DELETE".equals(method)) {
+            JsonNode req = body.length == 0 ? mapper.createObjectNode() : mapper.readTree(body);
+            boolean freed = pits.remove(req.path("id").asText()) != null;
+            send(ex, 200, mapper.createObjectNode().put("succeeded", true).put("num_freed", freed ? 1 : 0));
+            return;
+        }
+        String id = UUID.randomUUID().toString();
+        pits.put(id, index);
+        send(ex, 200, mapper.createObjectNode().put("id", id));
+    }
+
+    private void mget(HttpExchange ex, String defaultIndex, byte[] body) throws IOException {
+        JsonNode req = mapper.readTree(body);
+        List<String[]> refs = new ArrayList<>();
+        for (JsonNode d : req.path("docs")) {
+            refs.add(new String[]{d.path("_index").asText(defaultIndex), d.path("_id").asText()});
+        }
+        for (JsonNode id : req.path("ids")) {
+            refs.add(new String[]{defaultIndex, id.asText()});
+        }
+        ObjectNode resp = mapper.createObjectNode();
+        ArrayNode docs = resp.putArray("docs");
+        for (String[] ref : refs) {
+            ObjectNode doc = docs(ref[0]).get(ref[1]);
+            ObjectNode out = docs.addObject();
+            out.put("_index", ref[0]).put("_id", ref[1]).put("found", doc != null);
+            if (doc != null) {
+                out.put("_version", 1).put("_seq_no", 0).put("_primary_term", 1);
+                out.set("_source", doc);
+            }
+        }
+        send(ex, 200, resp);
+    }
+
+    // ----------------------------------------------------------------------
+    // Query evaluation
+    // ----------------------------------------------------------------------
+
+    private boolean matches(JsonNode doc, JsonNode query) {
+        if (query == null || query.isNull() || query.isEmpty() || query.has("match_all")) {
+            return true;
+        }
+        if (query.has("term")) {
+            Map.Entry<String, JsonNode> term = query.get("term").fields().next();
+            JsonNode value = term.getValue().isObject() ? term.getValue().get("value") : term.getValue();
+            return value.asText().equals(fieldValue(doc, term.getKey()));
+        }
+        if (query.has("terms")) {
+            Map.Entry<String, JsonNode> terms = query.get("terms").fields().next();
+            String actual = fieldValue(doc, terms.getKey());
+            for (JsonNode v : terms.getValue()) {
+                if (v.asText().equals(actual)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (query.has("bool")) {
+            JsonNode bool = query.get("bool");
+            for (JsonNode q : clauses(bool, "must")) {
+                if (!matches(doc, q)) return false;
+            }
+            for (JsonNode q : clauses(bool, "filter")) {
+                if (!matches(doc, q)) return false;
+            }
+            for (JsonNode q : clauses(bool, "must_not")) {
+                if (matches(doc, q)) return false;
+            }
+            List<JsonNode> should = clauses(bool, "should");
+            boolean hasRequired = bool.has("must") || bool.has("filter");
+            int minimum = bool.has("minimum_should_match")
+                    ? bool.get("minimum_should_match").asInt()
+                    : (should.isEmpty() || hasRequired ? 0 : 1);
+            int matched = 0;
+            for (JsonNode q : should) {
+                if (matches(doc, q)) matched++;
+            }
+            return matched >= minimum;
+        }
+        // unsupported query types match everything rather than hiding documents
+        return true;
+    }
+
+    private List<JsonNode> clauses(JsonNode bool, String occur) {
+        JsonNode node = bool.get(occur);
+        List<JsonNode> out = new ArrayList<>();
+        if (node == null) {
+            return out;
+        }
+        if (node.isArray()) {
+            node.forEach(out::add);
+        } else {
+            out.add(node);
+        }
+        return out;
+    }
+
+    private String fieldValue(JsonNode doc, String field) {
+        if (field.endsWith(".keyword")) {
+            field = field.substring(0, field.length() - ".keyword".length());
+        }
+        JsonNode node = doc;
+        for (String part : field.split("\\.")) {
+            node = node.path(part);
+        }
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+
+    // ----------------------------------------------------------------------
+    // Helpers
+    // ----------------------------------------------------------------------
+
+    private Map<String, ObjectNode> docs(String index) {
+        return indices.computeIfAbsent(index, i -> new ConcurrentHashMap<>());
+    }
+
+    private void delay() {
+        long ms = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean injectRequestError(HttpExchange ex) throws IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= requestErrorRate) {
+            return false;
+        }
+        count("injected_503");
+        sendError(ex, 503, "unavailable_shards_exception", "injected failure from es-stub");
+        return true;
+    }
+
+    private ObjectNode writeResult(String index, String id, String result) {
+        ObjectNode resp = mapper.createObjectNode();
+        resp.put("_index", index).put("_id", id);
+        fillWriteResult(resp, result, -1);
+        return resp;
+    }
+
+    private void fillWriteResult(ObjectNode node, String result, int status) {
+        node.put("_version", 1).put("result", result)
+                .put("_seq_no", seqNo.getAndIncrement()).put("_primary_term", 1);
+        node.set("_shards", shards());
+        if (status > 0) {
+            node.put("status", status);
+        }
+    }
+
+    private ObjectNode shards() {
+        ObjectNode shards = mapper.createObjectNode();
+        shards.put("total", 1).put("successful", 1).put("failed", 0);
+        return shards;
+    }
+
+    private void count(String endpoint) {
+        requestCounts.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void sendError(HttpExchange ex, int status, String type, String reason) throws IOException {
+        ObjectNode resp = mapper.createObjectNode();
+        resp.putObject("error").put("type", type).put("reason", reason);
+        resp.put("status", status);
+        send(ex, status, resp);
+    }
+
+    private void send(HttpExchange ex, int status, JsonNode body) throws IOException {
+        ex.getResponseHeaders().set("X-Elastic-Product", "Elasticsearch");
+        ex.getResponseHeaders().set("Content-Type", "application/vnd.elasticsearch+json;compatible-with=8");
+        if (body == null || "HEAD".equals(ex.getRequestMethod())) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> pathParts(URI uri) {
+        List<String> parts = new ArrayList<>();
+        for (String p : uri.getRawPath().split("/")) {
+            if (!p.isEmpty()) {
+                parts.add(java.net.URLDecoder.decode(p, StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.capstone.parser.load;
+
+import com.example.capstone.parser.dto.ParserMessageEvent;
+import com.example.capstone.parser.metrics.LatencyHistogram;
+import com.example.capstone.parser.model.ParserMessage;
+import com.example.capstone.parser.model.TenantEntity;
+import com.example.capstone.parser.repository.TenantRepository;
+import com.example.capstone.parser.service.ElasticsearchClientService;
+import com.example.capstone.parser.service.FindingsSummaryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end load test: synthetic exports are announced on an embedded Kafka broker, parsed by
+ * the real listener/scheduler/ParserService, and written to an in-process {@link ElasticsearchStub}.
+ * Job latency runs from publishing the parse request to receiving its acknowledgement.
+ *
+ * Excluded from the default build; run with {@code mvn test -Pload-test}. Sizes and fault injection
+ * are system properties, e.g. {@code -Dload.jobs=500 -Dload.alerts=2000 -Dload.es.bulk-item-error-rate=0.01}.
+ * Each run appends one JSON line to {@code target/load-test/results.ndjson} for regression tracking.
+ */
+@Tag("load")
+@EmbeddedKafka(partitions = 1,
+        topics = {"jfc-parser-topic", "job-acknowledgement-topic", "jfc-jobs"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude="
+                + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                + "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+        "spring.main.web-application-type=none",
+        "parser.ack-delay-ms=0",
+        "parser.scheduler.enabled=${load.scheduler:true}",
+        "parser.scheduler.workers=${load.workers:4}",
+        "parser.scheduler.coalesce-window-ms=${load.coalesce-window-ms:0}",
+        "parser.checkpoint.batch-size=${load.batch-size:500}",
+        "parser.checkpoint.dir=${java.io.tmpdir}/parser-load-test-checkpoints",
+        "parser.quarantine.file=${java.io.tmpdir}/parser-load-test-quarantine.ndjson",
+        "parser.completed-jobs.persist-path="
+})
+class ParserLoadTest {
+
+    // left with refresh_interval=-1 as if a pod died mid bulk load; startup must restore it
+    private static final String LEFTOVER_BULK_LOAD_INDEX = "tenant-leftover-bulk-load";
+
+    private static final ElasticsearchStub ES = startStub();
+
+    private final int tenants = Integer.getInteger("load.tenants", 4);
+    private final int jobs = Integer.getInteger("load.jobs", 60);
+    private final int alertsPerJob = Integer.getInteger("load.alerts", 500);
+    private final int repos = Integer.getInteger("load.repos", 7);
+    private final double duplicationRate = Double.parseDouble(System.getProperty("load.duplication-rate", "0.3"));
+    private final int descriptionBytes = Integer.getInteger("load.description-bytes", 256);
+    private final double malformedRate = Double.parseDouble(System.getProperty("load.malformed-rate", "0"));
+    private final long esLatencyMs = Long.getLong("load.es.latency-ms", 2);
+    private final long esJitterMs = Long.getLong("load.es.jitter-ms", 3);
+    private final double esRequestErrorRate = Double.parseDouble(System.getProperty("load.es.request-error-rate", "0"));
+    private final double esBulkItemErrorRate = Double.parseDouble(System.getProperty("load.es.bulk-item-error-rate", "0"));
+    private final long timeoutSeconds = Long.getLong("load.timeout-seconds", 600);
+
+    @MockitoBean
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Value("${kafka.topics.jfc-parser-topic}")
+    private String parserTopic;
+
+    @Value("${kafka.topics.job-acknowledgement-topic}")
+    private String ackTopic;
+
+    @Value("${parser.scheduler.enabled}")
+    private boolean schedulerEnabled;
+
+    @Value("${parser.scheduler.workers}")
+    private int workers;
+
+    @Autowired
+    private ElasticsearchClientService esService;
+
+    @Autowired
+    private FindingsSummaryService summaryService;
+
+    @Value("${parser.es.shared.index:findings-shared}")
+    private String sharedIndex;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void elasticsearch(DynamicPropertyRegistry registry) {
+        registry.add("elasticsearch.host", () -> "localhost");
+        registry.add("elasticsearch.port", ES::getPort);
+        registry.add("spring.elasticsearch.uris", () -> "http://localhost:" + ES.getPort());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        ES.close();
+    }
+
+    @Test
+    void sustainedIngest() throws Exception {
+        when(tenantRepository.findById(anyLong())).thenAnswer(inv -> Optional.of(tenant(inv.getArgument(0))));
+        ES.setLatency(esLatencyMs, esJitterMs);
+        ES.setRequestErrorRate(esRequestErrorRate);
+        ES.setBulkItemErrorRate(esBulkItemErrorRate);
+
+        // 1) Generate the exports up front so file I/O is not part of the measurement
+        Path root = Files.createTempDirectory("parser-load-");
+        SyntheticExportGenerator generator = new SyntheticExportGenerator(root, 42L);
+        SyntheticExportGenerator.Tool[] tools = SyntheticExportGenerator.Tool.values();
+        List<ParserMessageEvent> requests = new ArrayList<>();
+        for (int i = 0; i < jobs; i++) {
+            long tenantId = 1 + (i % tenants);
+            SyntheticExportGenerator.Tool tool = tools[(i / tenants) % tools.length];
+            String file = generator.generate(tenantId, "org" + tenantId, "repo" + (i % repos), tool,
+                    alertsPerJob, duplicationRate, descriptionBytes, malformedRate);
+            requests.add(new ParserMessageEvent(new ParserMessage(tenantId, file, tool.name()), "load-" + i));
+        }
+
+        // 2) Watch acknowledgements and heap while the jobs run
+        HeapSampler heap = new HeapSampler();
+        Map<String, Long> sentAtNanos = new HashMap<>();
+        Map<String, String> statuses = new HashMap<>();
+        long quarantined = 0;
+        long superseded = 0;
+        LatencyHistogram jobLatency = new LatencyHistogram();
+        try (Consumer<String, String> acks = ackConsumer()) {
+            heap.start();
+            long startNanos = System.nanoTime();
+            for (ParserMessageEvent request : requests) {
+                sentAtNanos.put(request.getEventId(), System.nanoTime());
+                kafkaTemplate.send(parserTopic, mapper.writeValueAsString(request));
+            }
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(timeoutSeconds).toNanos();
+            while (statuses.size() < jobs && System.nanoTime() < deadline) {
+                ConsumerRecords<String, String> records = acks.poll(Duration.ofMillis(50));
+                long now = System.nanoTime();
+                for (ConsumerRecord<String, String> record : records) {
+                    JsonNode payload = mapper.readTree(record.value()).path("payload");
+                    String jobId = payload.path("jobId").asText();
+                    Long sentAt = sentAtNanos.get(jobId);
+                    if (sentAt != null && statuses.putIfAbsent(jobId, payload.path("status").asText()) == null) {
+                        jobLatency.record((now - sentAt) / 1_000_000L);
+                        quarantined += payload.path("quarantinedRecords").asInt(0);
+                        if (payload.path("superseded").asBoolean(false)) {
+                            superseded++;
+                        }
+                    }
+                }
+            }
+            long elapsedMs = Math.max(1L, (System.nanoTime() - startNanos) / 1_000_000L);
+            heap.stop();
+
+            // 3) Report
+            long succeeded = statuses.values().stream().filter("SUCCESS"::equals).count();
+            report(elapsedMs, statuses.size(), succeeded, quarantined, superseded, jobLatency.snapshot(), heap, generator);
+
+            assertEquals(jobs, statuses.size(), "jobs acknowledged before the timeout");
+            if (!esService.isSharedStorage()) {
+                assertEquals("1s", ES.setting(LEFTOVER_BULK_LOAD_INDEX, "refresh_interval"),
+                        "leftover bulk-load settings are restored at startup");
+            }
+            if (esRequestErrorRate == 0 && esBulkItemErrorRate == 0) {
+                assertEquals(jobs, succeeded, "all jobs should succeed without fault injection");
+                if (superseded == 0) {
+                    // superseded exports are never parsed, so their alerts are not all indexed
+                    assertTrue(ES.totalDocuments() >= generator.totalUniqueAlerts(), "every distinct alert was indexed");
+                    assertEquals(generator.getMalformedRecords(), quarantined, "every malformed entry was quarantined");
+                }
+                if (!esService.isSharedStorage()) {
+                    for (long tenantId = 1; tenantId <= tenants; tenantId++) {
+                        long counted = summaryService.rebuild(tenantId).stream()
+                                .flatMap(s -> s.getCounts().values().stream()).mapToLong(Long::longValue).sum();
+                        assertEquals(ES.documentCount("tenant-" + tenantId), counted,
+                                "rebuilt summaries count every finding of tenant " + tenantId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void report(long elapsedMs, int acked, long succeeded, long quarantined, long superseded, LatencyHistogram.Snapshot latency,
+                        HeapSampler heap, SyntheticExportGenerator generator) throws IOException {
+        double seconds = elapsedMs / 1000.0;
+        long alerts = (long) jobs * alertsPerJob;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("tenants", tenants);
+        result.put("jobs", jobs);
+        result.put("alertsPerJob", alertsPerJob);
+        result.put("repos", repos);
+        result.put("duplicationRate", duplicationRate);
+        result.put("inputBytes", generator.getBytesWritten());
+        result.put("schedulerEnabled", schedulerEnabled);
+        result.put("workers", workers);
+        result.put("sharedStorage", esService.isSharedStorage());
+        result.put("esLatencyMs", esLatencyMs);
+        result.put("esJitterMs", esJitterMs);
+        result.put("esRequestErrorRate", esRequestErrorRate);
+        result.put("esBulkItemErrorRate", esBulkItemErrorRate);
+        result.put("elapsedMs", elapsedMs);
+        result.put("acked", acked);
+        result.put("succeeded", succeeded);
+        result.put("superseded", superseded);
+        result.put("jobsPerSecond", round(acked / seconds));
+        result.put("alertsPerSecond", round(alerts / seconds));
+        result.put("jobLatencyP50Ms", latency.p50Ms());
+        result.put("jobLatencyP99Ms", latency.p99Ms());
+        result.put("jobLatencyMaxMs", latency.maxMs());
+        result.put("heapBaselineBytes", heap.getBaseline());
+        result.put("heapHighWaterBytes", heap.getHighWater());
+        result.put("uniqueAlerts", generator.totalUniqueAlerts());
+        result.put("malformedRecords", generator.getMalformedRecords());
+        result.put("quarantinedRecords", quarantined);
+        result.put("indexedDocuments", ES.totalDocuments(esService.isSharedStorage() ? sharedIndex : "tenant-"));
+        result.put("ruleDocuments", ES.totalDocuments("rules-"));
+        result.put("bulkBytes", ES.getBulkBytes());
+        result.put("esRequests", ES.getRequestCounts());
+
+        System.out.println("[LoadTest] ===== Report =====");
+        result.forEach((k, v) -> System.out.println("[LoadTest] " + k + " = " + v));
+
+        Path out = Paths.get("target", "load-test", "results.ndjson");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, mapper.writeValueAsString(result) + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Consumer<String, String> ackConsumer() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("load-test-acks", "false", broker);
+        props.put("auto.offset.reset", "earliest");
+        Consumer<String, String> consumer = new KafkaConsumer<>(props, new StringDeserializer(), new StringDeserializer());
+        broker.consumeFromAnEmbeddedTopic(consumer, ackTopic);
+        return consumer;
+    }
+
+    private static TenantEntity tenant(Long id) {
+        TenantEntity t = new TenantEntity("tenant-" + id);
+        ReflectionTestUtils.setField(t, "id", id);
+        t.setEsIndex("tenant-" + id);
+        return t;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10.0) / 10.0;
+    }
+
+    private static ElasticsearchStub startStub() {
+        try {
+            ElasticsearchStub stub = new ElasticsearchStub();
+            stub.putSetting(LEFTOVER_BULK_LOAD_INDEX, "refresh_interval", "-1");
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Samples used heap every 20 ms; the baseline is taken after a GC just before the run.
+     */
+    private static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong highWater = new AtomicLong();
+        private volatile boolean running;
+        private long baseline;
+        private Thread thread;
+
+        void start() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+            highWater.set(baseline);
+            running = true;
+            thread = new Thread(() -> {
+                while (running) {
+                    highWater.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "load-test-heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        long getBaseline() {
+            return baseline;
+        }
+
+        long getHighWater() {
+            return highWater.get();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.capstone.parser.load;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes GitHub-shaped code-scanning, Dependabot and secret-scanning exports for load tests.
+ * Files land in {@code <root>/<n>_<owner>-<repo>/<tool dir>/alerts.json}, the layout the parser
+ * derives owner/repo and tool type from.
+ *
+ * Alert numbers are tracked per tenant and tool. With probability {@code duplicationRate} an alert
+ * repeats an earlier one of the same tenant/tool unchanged (same number, title and timestamps),
+ * so it is deduplicated as UNCHANGED; all other alerts are new.
+ */
+public class SyntheticExportGenerator {
+
+    public enum Tool {
+        CODE_SCANNING("code_scanning"),
+        DEPENDABOT("dependabot"),
+        SECRET_SCANNING("secret_scanning");
+
+        private final String directory;
+
+        Tool(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    private static final String[] SEVERITIES = {"low", "medium", "high", "critical"};
+    private static final String[] ECOSYSTEMS = {"npm", "maven", "pip", "go"};
+    private static final String[] SECRET_TYPES = {"github_personal_access_token", "aws_access_key_id", "slack_api_token"};
+
+    private final Path root;
+    private final Random random;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Integer> lastNumber = new HashMap<>();
+    private int fileCounter;
+    private long bytesWritten;
+    private int malformedRecords;
+
+    public SyntheticExportGenerator(Path root, long seed) {
+        this.root = root;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Writes one export file and returns its path.
+     *
+     * @param descriptionBytes approximate size of each alert's description, to scale file size
+     * @param malformedRate    chance of a non-object entry (string, number or array) before each alert
+     */
+    public String generate(long tenantId, String owner, String repo, Tool tool,
+                           int alerts, double duplicationRate, int descriptionBytes, double malformedRate) throws IOException {
+        Path dir = root.resolve((fileCounter++) + "_" + owner + "-" + repo).resolve(tool.directory);
+        Files.createDirectories(dir);
+        File file = dir.resolve("alerts.json").toFile();
+
+        String key = tenantId + "|" + tool;
+        int last = lastNumber.getOrDefault(key, 0);
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            for (int i = 0; i < alerts; i++) {
+                if (malformedRate > 0 && random.nextDouble() < malformedRate) {
+                    switch (malformedRecords++ % 3) {
+                        case 0 -> gen.writeString("not an alert " + i);
+                        case 1 -> gen.writeNumber(i);
+                        default -> gen.writeObject(List.of(i, "alert"));
+                    }
+                }
+                int number = (last > 0 && random.nextDouble() < duplicationRate)
+                        ? 1 + random.nextInt(last)
+                        : ++last;
+                gen.writeObject(alert(tool, owner, repo, number, descriptionBytes));
+            }
+            gen.writeEndArray();
+        }
+        lastNumber.put(key, last);
+        bytesWritten += file.length();
+        return file.getPath();
+    }
+
+    /**
+     * Distinct alerts generated so far for a tenant and tool (what ES should end up holding).
+     */
+    public int uniqueAlerts(long tenantId, Tool tool) {
+        return lastNumber.getOrDefault(tenantId + "|" + tool, 0);
+    }
+
+    public int totalUniqueAlerts() {
+        return lastNumber.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Non-object entries written so far; the parser should quarantine exactly these.
+     */
+    public int getMalformedRecords() {
+        return malformedRecords;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // ----------------------------------------------------------------------
+    // Alert shapes; every field is a pure function of (tool, number) so repeats are identical
+    // ----------------------------------------------------------------------
+
+    private Map<String, Object> alert(Tool tool, String owner, String repo, int number, int descriptionBytes) {
+        Map<String, Object> a = new LinkedHashMap<>();
+        String base = "https://github.com/" + owner + "/" + repo;
+        a.put("number", number);
+        a.put("created_at", timestamp(number, 0));
+        a.put("updated_at", timestamp(number, 1));
+        a.put("state", "open");
+        a.put("dismissed_reason", null);
+        switch (tool) {
+            case CODE_SCANNING -> {
+                a.put("url", "https://api.github.com/repos/" + owner + "/" + repo + "/code-scanning/alerts/" + number);
+                a.put("html_url", base + "/security/code-scanning/" + number);
+                int rule = number % 40;
+                Map<String, Object> r = new LinkedHashMap<>();
+                r.put("id", "js/rule-" + rule);
+                r.put("severity", "warning");
+                r.put("security_severity_level", SEVERITIES[rule % SEVERITIES.length]);
+                r.put("description", "Rule " + rule + " violation");
+                r.put("full_description", padded("Detects pattern " + rule + ". ", descriptionBytes));
+                r.put("tags", List.of("security", "external/cwe/cwe-" + (79 + rule)));
+                a.put("rule", r);
+                a.put("tool", Map.of("name", "CodeQL", "version", "2.15.0"));
+                a.put("most_recent_instance", Map.of(
+                        "ref", "refs/heads/main",
+                        "state", "open",
+                        "location", Map.of("path", "src/module" + (number % 25) + "/File" + number + ".js",
+                                "start_line", number % 300, "end_line", number % 300 + 2),
+                        "message", Map.of("text", "Finding " + number)));
+            }
+            case DEPENDABOT -> {
+                a.put("url", "https://api.github.com/repos/" + owner + "/" + repo + "/dependabot/alerts/" + number);
+                a.put("html_url", base + "/security/dependabot/" + number);
+                int advisory = number % 60;
+                String ecosystem = ECOSYSTEMS[advisory % ECOSYSTEMS.length];
+                a.put("dependency", Map.of(
+                        "package", Map.of("ecosystem", ecosystem, "name", "package-" + advisory),
+                        "manifest_path", ecosystem.equals("npm") ? "package-lock.json" : "pom.xml",
+                        "scope", "runtime"));
+                Map<String, Object> adv = new LinkedHashMap<>();
+                adv.put("ghsa_id", "GHSA-" + advisory + "-" + number);
+                adv.put("cve_id", "CVE-2024-" + (10000 + number));
+                adv.put("summary", "Vulnerability " + number + " in package-" + advisory);
+                adv.put("description", padded("Advisory " + advisory + " affects package-" + advisory + ". ", descriptionBytes));
+                adv.put("severity", SEVERITIES[advisory % SEVERITIES.length]);
+                adv.put("cvss", Map.of("score", 4.0 + (advisory % 6), "vector_string", "CVSS:3.1/AV:N/AC:L/PR:N/UI:N/S:U/C:H/I:H/A:H"));
+                adv.put("cwes", List.of(Map.of("cwe_id", "CWE-" + (20 + advisory % 10), "name", "Weakness " + advisory % 10)));
+                a.put("security_advisory", adv);
+            }
+            case SECRET_SCANNING -> {
+                a.put("url", "https://api.github.com/repos/" + owner + "/" + repo + "/secret-scanning/alerts/" + number);
+                a.put("html_url", base + "/security/secret-scanning/" + number);
+                a.put("locations_url", "https://api.github.com/repos/" + owner + "/" + repo + "/secret-scanning/alerts/" + number + "/locations");
+                String type = SECRET_TYPES[number % SECRET_TYPES.length];
+                a.put("secret_type", type);
+                a.put("secret_type_display_name", type.replace('_', ' '));
+                a.put("secret", "ghp_" + String.format("%036x", number));
+                a.put("validity", "active");
+                a.put("publicly_leaked", number % 10 == 0);
+                a.put("push_protection_bypassed", false);
+            }
+        }
+        return a;
+    }
+
+    private static String timestamp(int number, int offsetDays) {
+        return String.format("2024-%02d-%02dT%02d:%02d:00Z",
+                1 + number % 12, 1 + (number + offsetDays) % 28, number % 24, number % 60);
+    }
+
+    private static String padded(String text, int bytes) {
+        if (text.length() >= bytes) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(bytes);
+        while (sb.length() < bytes) {
+            sb.append(text);
+        }
+        return sb.substring(0, bytes);
+    }
+}
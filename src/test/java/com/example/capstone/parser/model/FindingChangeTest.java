@@ -0,0 +1,85 @@
+package com.example.capstone.parser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FindingChangeTest {
+
+    private static Findings finding(String id, Severity severity, AlertState state, String updatedAt) {
+        Findings f = new Findings();
+        f.setId(id);
+        f.setAlertNumber("42");
+        f.setTitle("SQL injection");
+        f.setSeverity(severity);
+        f.setState(state);
+        f.setUpdatedAt(updatedAt);
+        return f;
+    }
+
+    @Test
+    void anExactDuplicateHasNoChanges() {
+        Findings stored = finding("doc-1", Severity.HIGH, AlertState.OPEN, "2024-01-01T00:00:00Z");
+        Findings incoming = finding("new", Severity.HIGH, AlertState.OPEN, "2024-01-01T00:00:00Z");
+
+        assertTrue(FindingChange.between(stored, incoming).isEmpty());
+    }
+
+    @Test
+    void reportsChangedFieldsAsOldToNewOnTheStoredFinding() {
+        Findings stored = finding("doc-1", Severity.HIGH, AlertState.OPEN, "2024-01-01T00:00:00Z");
+        Findings incoming = finding("new", Severity.CRITICAL, AlertState.FIXED, "2024-02-01T00:00:00Z");
+
+        FindingChange change = FindingChange.between(stored, incoming);
+
+        assertEquals("doc-1", change.getFindingId());
+        assertEquals("42", change.getAlertNumber());
+        assertEquals(List.of("severity", "state", "updatedAt"), List.copyOf(change.getChanges().keySet()));
+        assertEquals("HIGH", change.getChanges().get("severity").getFrom());
+        assertEquals("CRITICAL", change.getChanges().get("severity").getTo());
+        assertEquals("OPEN", change.getChanges().get("state").getFrom());
+        assertEquals("FIXED", change.getChanges().get("state").getTo());
+        assertEquals("2024-02-01T00:00:00Z", change.getChanges().get("updatedAt").getTo());
+    }
+
+    @Test
+    void onlyTheFieldsThatDifferAreReported() {
+        Findings stored = finding("doc-1", Severity.HIGH, AlertState.OPEN, "2024-01-01T00:00:00Z");
+        Findings incoming = finding("new", Severity.HIGH, AlertState.SUPPRESSED, "2024-01-01T00:00:00Z");
+
+        FindingChange change = FindingChange.between(stored, incoming);
+
+        assertEquals(List.of("state"), List.copyOf(change.getChanges().keySet()));
+    }
+
+    @Test
+    void aFieldAddedByTheNewAlertHasNoOldValue() {
+        Findings stored = finding("doc-1", null, AlertState.OPEN, null);
+        Findings incoming = finding("new", Severity.LOW, AlertState.OPEN, "2024-02-01T00:00:00Z");
+
+        FindingChange change = FindingChange.between(stored, incoming);
+
+        assertNull(change.getChanges().get("severity").getFrom());
+        assertEquals("LOW", change.getChanges().get("severity").getTo());
+        assertNull(change.getChanges().get("updatedAt").getFrom());
+        assertEquals("2024-02-01T00:00:00Z", change.getChanges().get("updatedAt").getTo());
+    }
+
+    @Test
+    void aFieldTheNewAlertNoLongerCarriesHasNoNewValue() {
+        Findings stored = finding("doc-1", Severity.MEDIUM, AlertState.FIXED, "2024-01-01T00:00:00Z");
+        Findings incoming = finding("new", Severity.MEDIUM, null, null);
+
+        FindingChange change = FindingChange.between(stored, incoming);
+
+        assertEquals(List.of("state", "updatedAt"), List.copyOf(change.getChanges().keySet()));
+        assertEquals("FIXED", change.getChanges().get("state").getFrom());
+        assertNull(change.getChanges().get("state").getTo());
+        assertEquals("2024-01-01T00:00:00Z", change.getChanges().get("updatedAt").getFrom());
+        assertNull(change.getChanges().get("updatedAt").getTo());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.capstone.parser.pipeline;
+
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.service.WriteBatch;
+import com.example.capstone.parser.tool.AlertHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class IngestPipelineTest {
+
+    private IngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new IngestPipeline();
+        ReflectionTestUtils.setField(pipeline, "convertWorkers", 4);
+        // small rings so every stage wraps around and blocks on back-pressure
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 8);
+        ReflectionTestUtils.setField(pipeline, "handoffBatch", 3);
+        ReflectionTestUtils.setField(pipeline, "writeQueueBatches", 1);
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    /**
+     * Emits {@code total} alerts starting at {@code from}; converters sleep at random so they
+     * finish out of order. Findings are recorded in dedup order, writes with their checkpoint.
+     */
+    private static class RecordingStages implements IngestPipeline.Stages {
+        final int from;
+        final int total;
+        final List<Integer> deduped = new CopyOnWriteArrayList<>();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<Integer> checkpoints = new CopyOnWriteArrayList<>();
+        final AtomicInteger quarantined = new AtomicInteger();
+
+        RecordingStages(int from, int total) {
+            this.from = from;
+            this.total = total;
+        }
+
+        @Override
+        public int read(AlertHandler sink) throws Exception {
+            for (int i = from; i < total; i++) {
+                sink.onAlert(i, i);
+            }
+            return total;
+        }
+
+        @Override
+        public Findings convert(int index, Object alert) throws Exception {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            if (index % 10 == 9) {
+                return null;
+            }
+            Findings finding = new Findings();
+            finding.setId(String.valueOf(alert));
+            return finding;
+        }
+
+        @Override
+        public void dedup(Findings finding, WriteBatch batch) {
+            deduped.add(Integer.parseInt(finding.getId()));
+            batch.add(finding);
+        }
+
+        @Override
+        public void write(WriteBatch batch, int nextAlertIndex) throws IOException {
+            batchSizes.add(batch.size());
+            checkpoints.add(nextAlertIndex);
+            quarantined.addAndGet(batch.getQuarantined());
+        }
+    }
+
+    @Test
+    void dedupsInFileOrderAndCheckpointsOnlyWrittenAlerts() throws Exception {
+        RecordingStages stages = new RecordingStages(0, 200);
+
+        assertEquals(200, pipeline.run(0, 7, stages));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            if (i % 10 != 9) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, stages.deduped);
+        assertEquals(20, stages.quarantined.get());
+        assertEquals(expected.size(), stages.batchSizes.stream().mapToInt(Integer::intValue).sum());
+        // checkpoints only move forward and the last one covers the whole file
+        for (int i = 1; i < stages.checkpoints.size(); i++) {
+            assertTrue(stages.checkpoints.get(i) >= stages.checkpoints.get(i - 1));
+        }
+        assertEquals(200, stages.checkpoints.get(stages.checkpoints.size() - 1));
+    }
+
+    @Test
+    void resumesFromACheckpoint() throws Exception {
+        RecordingStages stages = new RecordingStages(150, 200);
+
+        assertEquals(200, pipeline.run(150, 7, stages));
+
+        assertEquals(150, stages.deduped.get(0));
+        assertEquals(45, stages.deduped.size());
+        assertEquals(200, stages.checkpoints.get(stages.checkpoints.size() - 1));
+    }
+
+    @Test
+    void aFailingConverterCancelsTheOtherStages() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad alert");
+        RecordingStages stages = new RecordingStages(0, 100_000) {
+            @Override
+            public Findings convert(int index, Object alert) throws Exception {
+                if (index == 50) {
+                    throw failure;
+                }
+                return super.convert(index, alert);
+            }
+        };
+
+        // the reader is blocked on a full ring when the converter fails; cancellation must free it
+        Exception thrown = assertThrows(Exception.class, () -> pipeline.run(0, 7, stages));
+        assertSame(failure, thrown);
+        assertTrue(stages.checkpoints.isEmpty() || stages.checkpoints.get(stages.checkpoints.size() - 1) <= 50);
+    }
+
+    @Test
+    void aFailingWriteIsRethrown() {
+        IOException failure = new IOException("bulk rejected");
+        RecordingStages stages = new RecordingStages(0, 10_000) {
+            @Override
+            public void write(WriteBatch batch, int nextAlertIndex) throws IOException {
+                throw failure;
+            }
+        };
+
+        Exception thrown = assertThrows(Exception.class, () -> pipeline.run(0, 7, stages));
+        assertSame(failure, thrown);
+        assertTrue(stages.checkpoints.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.capstone.parser.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Timeout(10)
+class RingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(2, new RingBuffer<Integer>("r", 1).capacity());
+        assertEquals(4, new RingBuffer<Integer>("r", 3).capacity());
+        assertEquals(4, new RingBuffer<Integer>("r", 4).capacity());
+        assertEquals(8, new RingBuffer<Integer>("r", 5).capacity());
+    }
+
+    @Test
+    void keepsFifoOrderAcrossWrapAround() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>("r", 4);
+        List<Integer> out = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            ring.putAll(List.of(next, next + 1, next + 2));
+            next += 3;
+            assertEquals(3, ring.drainTo(out, 3));
+        }
+        for (int i = 0; i < next; i++) {
+            assertEquals(i, out.get(i));
+        }
+        assertEquals(30, ring.stats().items());
+        assertEquals(0, ring.stats().size());
+    }
+
+    @Test
+    void blocksTheProducerWhileFull() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>("r", 2);
+        ring.putAll(List.of(0, 1));
+        CountDownLatch putDone = new CountDownLatch(1);
+        Thread producer = Thread.ofPlatform().start(() -> {
+            try {
+                ring.putAll(List.of(2, 3));
+                putDone.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertFalse(putDone.await(100, TimeUnit.MILLISECONDS), "putAll must wait for space");
+
+        List<Integer> out = new ArrayList<>();
+        while (out.size() < 4) {
+            ring.drainTo(out, 4);
+        }
+        producer.join();
+        assertEquals(List.of(0, 1, 2, 3), out);
+        assertEquals(2, ring.stats().highWater());
+    }
+
+    @Test
+    void drainsWhatIsLeftAfterCloseThenReturnsZero() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>("r", 4);
+        ring.putAll(List.of(1, 2, 3));
+        ring.close();
+        List<Integer> out = new ArrayList<>();
+        assertEquals(2, ring.drainTo(out, 2));
+        assertEquals(1, ring.drainTo(out, 2));
+        assertEquals(0, ring.drainTo(out, 2));
+        assertEquals(List.of(1, 2, 3), out);
+        assertThrows(IllegalStateException.class, () -> ring.put(4));
+    }
+
+    @Test
+    void closeReleasesABlockedProducerAndConsumer() throws Exception {
+        RingBuffer<Integer> full = new RingBuffer<>("full", 2);
+        full.putAll(List.of(0, 1));
+        AtomicReference<Throwable> producerError = new AtomicReference<>();
+        Thread producer = Thread.ofPlatform().start(() -> {
+            try {
+                full.put(2);
+            } catch (Throwable t) {
+                producerError.set(t);
+            }
+        });
+
+        RingBuffer<Integer> empty = new RingBuffer<>("empty", 2);
+        AtomicReference<Integer> drained = new AtomicReference<>();
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            try {
+                drained.set(empty.drainTo(new ArrayList<>(), 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread.sleep(50);
+        full.close();
+        empty.close();
+        producer.join();
+        consumer.join();
+        assertInstanceOf(IllegalStateException.class, producerError.get());
+        assertEquals(0, drained.get());
+    }
+
+    @Test
+    void waitsAreInterruptible() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>("r", 2);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            try {
+                ring.drainTo(new ArrayList<>(), 1);
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        Thread.sleep(50);
+        consumer.interrupt();
+        consumer.join();
+        assertInstanceOf(InterruptedException.class, error.get());
+    }
+}
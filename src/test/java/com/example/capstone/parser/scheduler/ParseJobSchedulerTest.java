@@ -0,0 +1,167 @@
+package com.example.capstone.parser.scheduler;
+
+import com.example.capstone.parser.service.DedupLocks;
+import com.example.capstone.parser.service.ParserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the scheduler's dispatch directly through {@code nextJob()}: it is started without any
+ * workers, so jobs stay queued until the test takes them.
+ */
+class ParseJobSchedulerTest {
+
+    private ParserService parserService;
+    private DedupLocks dedupLocks;
+    private ParseJobScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        parserService = mock(ParserService.class);
+        when(parserService.parseOwnerRepoFromPath(anyString())).thenAnswer(inv -> {
+            String[] parts = inv.getArgument(0, String.class).split("/");
+            return new String[]{parts[0], parts[1]};
+        });
+        when(parserService.dedupToolTypes(anyString(), any(), any()))
+                .thenAnswer(inv -> Set.of(inv.getArgument(0, String.class)));
+        when(parserService.acknowledgeSuperseded(anyString(), anyString())).thenReturn(true);
+
+        dedupLocks = new DedupLocks();
+        ReflectionTestUtils.setField(dedupLocks, "enabled", true);
+        ReflectionTestUtils.setField(dedupLocks, "stripeCount", 1024);
+        dedupLocks.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    private ParseJobScheduler start(String tenantWeights, long coalesceWindowMs) {
+        scheduler = new ParseJobScheduler(parserService, dedupLocks);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "virtualThreads", true);
+        ReflectionTestUtils.setField(scheduler, "maxConcurrentJobs", 0);
+        ReflectionTestUtils.setField(scheduler, "quantumBytes", 100L);
+        ReflectionTestUtils.setField(scheduler, "defaultWeight", 1);
+        ReflectionTestUtils.setField(scheduler, "tenantWeightsSpec", tenantWeights);
+        ReflectionTestUtils.setField(scheduler, "maxQueuedJobs", 1000);
+        ReflectionTestUtils.setField(scheduler, "coalesceWindowMs", coalesceWindowMs);
+        scheduler.start();
+        return scheduler;
+    }
+
+    private static ParseJob job(String eventId, long tenantId, String path, String toolType, long sizeBytes) {
+        return new ParseJob(eventId, tenantId, path, toolType, sizeBytes);
+    }
+
+    @Test
+    void dispatchesTenantsInProportionToTheirWeights() throws Exception {
+        start("1=3", 0);
+        for (int i = 0; i < 12; i++) {
+            scheduler.submit(job("a" + i, 1, "org/repo/a" + i, "T" + i, 100));
+            scheduler.submit(job("b" + i, 2, "org/repo/b" + i, "T" + i, 100));
+        }
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ParseJob job = scheduler.nextJob();
+            job.getDedupLease().close();
+            order.add(job.getTenantId());
+        }
+        assertEquals(List.of(1L, 1L, 1L, 2L, 1L, 1L, 1L, 2L), order);
+        assertEquals(16, scheduler.getQueuedJobs());
+    }
+
+    @Test
+    void chargesTheSizeOfEachJob() throws Exception {
+        start("", 0);
+        scheduler.submit(job("big", 1, "org/repo/big", "T1", 300));
+        scheduler.submit(job("big2", 1, "org/repo/big2", "T2", 300));
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(job("small" + i, 2, "org/repo/s" + i, "T" + i, 100));
+        }
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ParseJob job = scheduler.nextJob();
+            job.getDedupLease().close();
+            order.add(job.getEventId());
+        }
+        // the 300-byte job waits for three quanta while the small tenant takes one job per round
+        assertEquals(List.of("small0", "small1", "big", "small2", "small3"), order);
+    }
+
+    @Test
+    void skipsJobsWhosePartitionsAreHeldAndKeepsThemQueued() throws Exception {
+        start("", 0);
+        DedupLocks.Lease held = dedupLocks.tryAcquire(1L, Set.of("SEMGREP"));
+        scheduler.submit(job("blocked", 1, "org/repo/a", "SEMGREP", 100));
+        scheduler.submit(job("free", 1, "org/repo/b", "TRIVY", 100));
+
+        ParseJob first = scheduler.nextJob();
+        assertEquals("free", first.getEventId());
+        assertEquals(1, scheduler.getQueuedJobs());
+        first.getDedupLease().close();
+
+        held.close();
+        assertEquals("blocked", scheduler.nextJob().getEventId());
+    }
+
+    @Test
+    void supersedesAQueuedExportOfTheSameRepoAndTool() throws Exception {
+        start("", 60_000);
+        AtomicReference<Boolean> olderAcknowledged = new AtomicReference<>();
+        ParseJob older = job("e1", 1, "org/repo/one.json", "SEMGREP", 100);
+        older.setOnComplete(olderAcknowledged::set);
+        scheduler.submit(older);
+        scheduler.submit(job("e2", 1, "org/repo/two.json", "SEMGREP", 100));
+
+        verify(parserService).acknowledgeSuperseded("e1", "e2");
+        assertEquals(Boolean.TRUE, olderAcknowledged.get());
+        assertEquals(1, scheduler.getQueuedJobs());
+        assertEquals("e2", scheduler.nextJob().getEventId());
+        assertEquals(1L, scheduler.snapshotStats().get(1L).supersededJobs());
+    }
+
+    @Test
+    void keepsJobsOfOtherReposToolsAndRedeliveries() throws Exception {
+        start("", 60_000);
+        scheduler.submit(job("e1", 1, "org/repo/one.json", "SEMGREP", 100));
+        scheduler.submit(job("e2", 1, "org/other/one.json", "SEMGREP", 100));
+        scheduler.submit(job("e3", 1, "org/repo/one.json", "TRIVY", 100));
+        scheduler.submit(job("e4", 2, "org/repo/one.json", "SEMGREP", 100));
+        // a redelivery of e1 must not acknowledge e1 as superseded by itself
+        scheduler.submit(job("e1", 1, "org/repo/one.json", "SEMGREP", 100));
+
+        verify(parserService, never()).acknowledgeSuperseded(anyString(), anyString());
+        assertEquals(5, scheduler.getQueuedJobs());
+    }
+
+    @Test
+    void doesNotCoalesceWhenTheWindowIsZero() throws Exception {
+        start("", 0);
+        scheduler.submit(job("e1", 1, "org/repo/one.json", "SEMGREP", 100));
+        scheduler.submit(job("e2", 1, "org/repo/two.json", "SEMGREP", 100));
+
+        verify(parserService, never()).acknowledgeSuperseded(anyString(), anyString());
+        assertEquals(2, scheduler.getQueuedJobs());
+        assertNull(scheduler.nextJob().getCoalesceKey());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.model.FindingChange;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DedupIndexTest {
+
+    private static Findings finding(String id, String alertNumber, Severity severity) {
+        Findings f = new Findings();
+        f.setId(id);
+        f.setAlertNumber(alertNumber);
+        f.setSeverity(severity);
+        f.setState(AlertState.OPEN);
+        f.setUpdatedAt("2024-01-01T00:00:00Z");
+        return f;
+    }
+
+    private static DedupIndex index(Findings... existing) {
+        return new DedupIndex(1L, "CODE_SCANNING", List.of(existing), Findings::getAlertNumber);
+    }
+
+    @Test
+    void aKeySeenForTheFirstTimeIsNew() {
+        DedupIndex index = index(finding("doc-1", "1", Severity.HIGH));
+        Findings incoming = finding("fresh", "2", Severity.HIGH);
+
+        DedupIndex.Decision decision = index.decide("2", incoming, FindingChange::between);
+
+        assertEquals(DedupOutcome.NEW, decision.outcome());
+        assertNull(decision.previous());
+        assertEquals("fresh", incoming.getId());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void anExactDuplicateIsUnchangedAndKeepsTheStoredFinding() {
+        Findings stored = finding("doc-1", "1", Severity.HIGH);
+        DedupIndex index = index(stored);
+
+        DedupIndex.Decision decision = index.decide("1", finding("fresh", "1", Severity.HIGH), FindingChange::between);
+
+        assertEquals(DedupOutcome.UNCHANGED, decision.outcome());
+        assertSame(stored, decision.previous());
+        // a later alert is still compared against the original
+        assertSame(stored, index.decide("1", finding("again", "1", Severity.HIGH), FindingChange::between).previous());
+    }
+
+    @Test
+    void aChangedFindingIsUpdatedUnderTheStoredId() {
+        Findings stored = finding("doc-1", "1", Severity.HIGH);
+        DedupIndex index = index(stored);
+        Findings incoming = finding("fresh", "1", Severity.CRITICAL);
+
+        DedupIndex.Decision decision = index.decide("1", incoming, FindingChange::between);
+
+        assertEquals(DedupOutcome.UPDATED, decision.outcome());
+        assertSame(stored, decision.previous());
+        assertEquals("doc-1", incoming.getId());
+        assertEquals("CRITICAL", decision.change().getChanges().get("severity").getTo());
+        // the update is what the next alert for the key is compared against
+        assertSame(incoming, index.decide("1", finding("again", "1", Severity.CRITICAL), FindingChange::between).previous());
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * Two files of one job carry the same alerts, one with a newer severity; whichever file gets
+     * to a key first indexes it, the other sees that finding rather than the pre-job state.
+     */
+    @Test
+    @Timeout(10)
+    void twoFilesRacingOnTheSameKeysIndexEachAlertOnce() throws Exception {
+        int keys = 2_000;
+        DedupIndex index = index();
+        DedupIndex.Decision[][] decisions = new DedupIndex.Decision[2][keys];
+        Findings[][] docs = new Findings[2][keys];
+        CyclicBarrier start = new CyclicBarrier(2);
+        Thread[] files = new Thread[2];
+        for (int file = 0; file < 2; file++) {
+            int f = file;
+            files[f] = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int k = 0; k < keys; k++) {
+                    docs[f][k] = finding("file" + f + "-" + k, String.valueOf(k), f == 0 ? Severity.HIGH : Severity.LOW);
+                    decisions[f][k] = index.decide(String.valueOf(k), docs[f][k], FindingChange::between);
+                }
+            });
+        }
+        for (Thread t : files) {
+            t.join();
+        }
+
+        assertEquals(keys, index.size());
+        for (int k = 0; k < keys; k++) {
+            int winner = decisions[0][k].outcome() == DedupOutcome.NEW ? 0 : 1;
+            int loser = 1 - winner;
+            assertEquals(DedupOutcome.NEW, decisions[winner][k].outcome(), "key " + k);
+            assertEquals(DedupOutcome.UPDATED, decisions[loser][k].outcome(), "key " + k);
+            assertSame(docs[winner][k], decisions[loser][k].previous(), "key " + k);
+            assertEquals(docs[winner][k].getId(), docs[loser][k].getId(), "key " + k);
+        }
+    }
+}
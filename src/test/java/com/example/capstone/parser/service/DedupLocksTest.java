@@ -0,0 +1,127 @@
+package com.example.capstone.parser.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class DedupLocksTest {
+
+    private DedupLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        locks = locks(true);
+    }
+
+    private static DedupLocks locks(boolean enabled) {
+        DedupLocks locks = new DedupLocks();
+        ReflectionTestUtils.setField(locks, "enabled", enabled);
+        ReflectionTestUtils.setField(locks, "stripeCount", 1024);
+        locks.init();
+        return locks;
+    }
+
+    @Test
+    void tryAcquireFailsWhileAPartitionIsHeldAndKeepsNothing() {
+        DedupLocks.Lease semgrep = locks.tryAcquire(1L, Set.of("SEMGREP"));
+        assertNotNull(semgrep);
+
+        assertNull(locks.tryAcquire(1L, List.of("SEMGREP", "TRIVY")));
+        // the TRIVY stripe taken on the way was given back
+        DedupLocks.Lease trivy = locks.tryAcquire(1L, Set.of("TRIVY"));
+        assertNotNull(trivy);
+        assertNotNull(locks.tryAcquire(2L, Set.of("SEMGREP")), "other tenants are separate partitions");
+
+        semgrep.close();
+        trivy.close();
+        assertNotNull(locks.tryAcquire(1L, List.of("SEMGREP", "TRIVY")));
+        assertEquals(1L, locks.snapshot().get("skipped"));
+    }
+
+    @Test
+    void coversOnlyThePartitionsTheLeaseHolds() {
+        DedupLocks.Lease lease = locks.tryAcquire(1L, List.of("SEMGREP", "TRIVY"));
+
+        assertTrue(locks.covers(lease, 1L, Set.of("TRIVY")));
+        assertTrue(locks.covers(lease, 1L, List.of("TRIVY", "SEMGREP")));
+        assertFalse(locks.covers(lease, 1L, List.of("SEMGREP", "CODEQL")));
+        assertFalse(locks.covers(lease, 2L, Set.of("SEMGREP")));
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() {
+        DedupLocks.Lease lease = locks.tryAcquire(1L, Set.of("SEMGREP"));
+        lease.close();
+        lease.close();
+
+        assertNotNull(locks.tryAcquire(1L, Set.of("SEMGREP")));
+        assertNull(locks.tryAcquire(1L, Set.of("SEMGREP")), "a second close must not add a permit");
+    }
+
+    @Test
+    void acquireWaitsForTheHolderAndMayBeReleasedOnAnotherThread() throws Exception {
+        DedupLocks.Lease held = locks.acquire(1L, Set.of("SEMGREP"));
+        AtomicReference<DedupLocks.Lease> taken = new AtomicReference<>();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            try {
+                taken.set(locks.acquire(1L, List.of("TRIVY", "SEMGREP")));
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+
+        Thread.ofPlatform().start(held::close).join();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertTrue(locks.covers(taken.get(), 1L, List.of("SEMGREP", "TRIVY")));
+        assertEquals(1L, locks.snapshot().get("contended"));
+    }
+
+    @Test
+    void anInterruptedAcquireReleasesWhatItTook() throws Exception {
+        DedupLocks.Lease held = locks.acquire(1L, Set.of("SEMGREP"));
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            try {
+                locks.acquire(1L, List.of("TRIVY", "SEMGREP"));
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        while (!Long.valueOf(1).equals(locks.snapshot().get("contended")) || waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        waiter.interrupt();
+        waiter.join();
+
+        assertInstanceOf(InterruptedException.class, error.get());
+        assertNotNull(locks.tryAcquire(1L, Set.of("TRIVY")));
+        held.close();
+    }
+
+    @Test
+    void disabledLocksNeverBlock() throws Exception {
+        DedupLocks disabled = locks(false);
+        DedupLocks.Lease first = disabled.acquire(1L, Set.of("SEMGREP"));
+        assertNotNull(disabled.tryAcquire(1L, Set.of("SEMGREP")));
+        assertTrue(disabled.covers(first, 1L, Set.of("TRIVY")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.capstone.parser.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Budget of 100 bytes without per-job overhead, so the costs in each test are exactly what is admitted.
+ */
+@Timeout(10)
+class MemoryBudgetTest {
+
+    private MemoryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        budget = new MemoryBudget();
+        ReflectionTestUtils.setField(budget, "enabled", true);
+        ReflectionTestUtils.setField(budget, "configuredBudgetBytes", 100L);
+        ReflectionTestUtils.setField(budget, "jobOverheadBytes", 0L);
+        ReflectionTestUtils.setField(budget, "defaultFactor", 2.0);
+        ReflectionTestUtils.setField(budget, "toolFactorsSpec", "sarif=1.0, DEPENDABOT=2.5");
+        budget.init();
+    }
+
+    /**
+     * Admits {@code cost} on another thread, which then holds the admission until the test ends;
+     * the name is put on {@code admitted} once it is in.
+     */
+    private Thread admitLater(String name, long cost, BlockingQueue<String> admitted) {
+        return Thread.ofPlatform().daemon().start(() -> {
+            try {
+                budget.admit(cost);
+                admitted.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void awaitWaiting(int jobs) throws InterruptedException {
+        while ((int) budget.snapshot().get("waitingJobs") != jobs) {
+            Thread.sleep(1);
+        }
+    }
+
+    private long inUse() {
+        return (long) budget.snapshot().get("inUseBytes");
+    }
+
+    @Test
+    void estimatesFromTheToolFactor() {
+        assertEquals(1_000, budget.estimate("SARIF", 1_000));
+        assertEquals(2_500, budget.estimate("dependabot", 1_000));
+        assertEquals(2_000, budget.estimate("CODE_SCANNING", 1_000));
+        assertEquals(2_000, budget.estimate(null, 1_000));
+        assertEquals(0, budget.estimate("SARIF", -1));
+    }
+
+    @Test
+    void aJobWaitsUntilItsEstimateFits() throws Exception {
+        BlockingQueue<String> admitted = new LinkedBlockingQueue<>();
+        MemoryBudget.Admission running = budget.admit(60);
+
+        admitLater("second", 50, admitted);
+        awaitWaiting(1);
+        assertNull(admitted.poll(100, TimeUnit.MILLISECONDS), "60 + 50 exceeds the budget");
+        assertEquals(60, inUse());
+
+        running.close();
+        assertEquals("second", admitted.take());
+        assertEquals(50, inUse());
+        assertEquals(1L, budget.snapshot().get("delayed"));
+    }
+
+    @Test
+    void aWaitingJobIsNotOvertakenBySmallerOnes() throws Exception {
+        BlockingQueue<String> admitted = new LinkedBlockingQueue<>();
+        MemoryBudget.Admission running = budget.admit(80);
+
+        admitLater("large", 50, admitted);
+        awaitWaiting(1);
+        // fits next to the running job, but must not overtake the one already waiting
+        admitLater("small", 10, admitted);
+        awaitWaiting(2);
+        assertNull(admitted.poll(100, TimeUnit.MILLISECONDS));
+
+        running.close();
+        // both fit once the running job is gone; which thread reports first is up to the scheduler
+        assertEquals(Set.of("large", "small"), Set.of(admitted.take(), admitted.take()));
+        assertEquals(60, inUse());
+        assertEquals(0, budget.snapshot().get("waitingJobs"));
+    }
+
+    @Test
+    void aJobLargerThanTheWholeBudgetIsAdmittedAlone() throws Exception {
+        BlockingQueue<String> admitted = new LinkedBlockingQueue<>();
+        MemoryBudget.Admission small = budget.admit(10);
+
+        admitLater("huge", 500, admitted);
+        awaitWaiting(1);
+        assertNull(admitted.poll(100, TimeUnit.MILLISECONDS), "an oversized job waits for the others to finish");
+
+        small.close();
+        assertEquals("huge", admitted.take());
+        assertEquals(500, inUse());
+        assertEquals(1L, budget.snapshot().get("oversized"));
+
+        admitLater("after", 10, admitted);
+        awaitWaiting(1);
+        assertNull(admitted.poll(100, TimeUnit.MILLISECONDS), "nothing runs next to an oversized job");
+    }
+
+    @Test
+    void anOversizedJobRunsRightAwayWhenNothingElseDoes() throws Exception {
+        try (MemoryBudget.Admission huge = budget.admit(500)) {
+            assertEquals(500, inUse());
+        }
+        assertEquals(0, inUse());
+    }
+
+    @Test
+    void closingAnAdmissionTwiceReleasesItOnce() throws Exception {
+        MemoryBudget.Admission first = budget.admit(30);
+        MemoryBudget.Admission second = budget.admit(30);
+
+        first.close();
+        first.close();
+
+        assertEquals(30, inUse());
+        assertEquals(1, budget.snapshot().get("runningJobs"));
+        second.close();
+        assertEquals(0, inUse());
+    }
+
+    @Test
+    void admitsEverythingWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(budget, "enabled", false);
+
+        try (MemoryBudget.Admission a = budget.admit(500); MemoryBudget.Admission b = budget.admit(500)) {
+            assertEquals(0, inUse());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.capstone.parser.service;
+
+import com.example.capstone.parser.model.ParseCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseCheckpointStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private Path checkpoints;
+    private String alertsFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        checkpoints = dir.resolve("checkpoints");
+        Path alerts = Files.writeString(dir.resolve("alerts.json"), "[{\"number\": 1}, {\"number\": 2}]");
+        alertsFile = alerts.toString();
+    }
+
+    private ParseCheckpointStore store(String checkpointDir) {
+        ParseCheckpointStore store = new ParseCheckpointStore(new DefaultApplicationArguments());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "checkpointDir", checkpointDir);
+        store.init();
+        return store;
+    }
+
+    /** What commitBatch does after each flushed batch. */
+    private static void commit(ParseCheckpointStore store, ParseCheckpoint cp, int nextAlertIndex,
+                               List<String> batchNewIds) throws Exception {
+        cp.getNewlyIndexedIds().addAll(batchNewIds);
+        cp.setAlertIndex(nextAlertIndex);
+        cp.setCommittedBatches(cp.getCommittedBatches() + 1);
+        cp.setSucceededRecords(nextAlertIndex);
+        store.save(cp, batchNewIds);
+    }
+
+    private List<String> idsFile(String eventId) throws Exception {
+        return Files.readAllLines(checkpoints.resolve(eventId + ".ids"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void appendsEachBatchsIdsAndKeepsThemOutOfTheJson() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        ParseCheckpoint cp = store.newCheckpoint("e1", alertsFile);
+
+        commit(store, cp, 100, List.of("a", "b"));
+        commit(store, cp, 200, List.of());
+        commit(store, cp, 300, List.of("c"));
+
+        assertEquals(List.of("a", "b", "c"), idsFile("e1"));
+        String json = Files.readString(checkpoints.resolve("e1.json"));
+        assertFalse(json.contains("newlyIndexedIds"), json);
+        assertTrue(json.contains("\"alertIndex\":300"), json);
+        assertFalse(Files.exists(checkpoints.resolve("e1.json.tmp")));
+    }
+
+    @Test
+    void aRedeliveredJobReloadsProgressAndIds() throws Exception {
+        ParseCheckpointStore first = store(checkpoints.toString());
+        ParseCheckpoint cp = first.newCheckpoint("e1", alertsFile);
+        commit(first, cp, 100, List.of("a", "b"));
+        commit(first, cp, 200, List.of("c"));
+
+        // another pod with the same shared directory
+        ParseCheckpoint loaded = store(checkpoints.toString()).load("e1", alertsFile);
+
+        assertNotNull(loaded);
+        assertEquals(200, loaded.getAlertIndex());
+        assertEquals(2, loaded.getCommittedBatches());
+        assertEquals(200, loaded.getSucceededRecords());
+        assertEquals(List.of("a", "b", "c"), loaded.getNewlyIndexedIds());
+    }
+
+    @Test
+    void keepsIdsAppendedByABatchWhoseCheckpointWasNeverSaved() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        ParseCheckpoint cp = store.newCheckpoint("e1", alertsFile);
+        commit(store, cp, 100, List.of("a"));
+        // crash between appending the next batch's ids and moving its checkpoint into place
+        Files.writeString(checkpoints.resolve("e1.ids"), "b\n", StandardOpenOption.APPEND);
+
+        ParseCheckpoint loaded = store.load("e1", alertsFile);
+
+        assertEquals(100, loaded.getAlertIndex());
+        assertEquals(List.of("a", "b"), loaded.getNewlyIndexedIds());
+    }
+
+    @Test
+    void resumesAtTheCheckpointWithoutRewritingRecordedIds() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        ParseCheckpoint cp = store.newCheckpoint("e1", alertsFile);
+        commit(store, cp, 100, List.of("a", "b"));
+
+        ParseCheckpoint resumed = store.load("e1", alertsFile);
+        assertEquals(100, resumed.getAlertIndex());
+        commit(store, resumed, 150, List.of("c"));
+
+        assertEquals(List.of("a", "b", "c"), idsFile("e1"));
+        assertEquals(List.of("a", "b", "c"), store.load("e1", alertsFile).getNewlyIndexedIds());
+        assertEquals(150, store.load("e1", alertsFile).getAlertIndex());
+    }
+
+    @Test
+    void discardsACheckpointWrittenForAnotherVersionOfTheFile() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        commit(store, store.newCheckpoint("e1", alertsFile), 1, List.of("a"));
+        Files.writeString(Path.of(alertsFile), "[{\"number\": 1}, {\"number\": 2}, {\"number\": 3}]");
+
+        assertNull(store.load("e1", alertsFile));
+        assertFalse(Files.exists(checkpoints.resolve("e1.json")));
+        assertFalse(Files.exists(checkpoints.resolve("e1.ids")));
+    }
+
+    @Test
+    void deletesBothFilesOnCompletion() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        commit(store, store.newCheckpoint("e1", alertsFile), 1, List.of("a"));
+        commit(store, store.newCheckpoint("e2", alertsFile), 1, List.of("b"));
+
+        store.delete("e1");
+
+        assertFalse(Files.exists(checkpoints.resolve("e1.json")));
+        assertFalse(Files.exists(checkpoints.resolve("e1.ids")));
+        assertNull(store.load("e1", alertsFile));
+        assertNotNull(store.load("e2", alertsFile));
+    }
+
+    @Test
+    void sanitizesEventIdsIntoFileNames() throws Exception {
+        ParseCheckpointStore store = store(checkpoints.toString());
+        commit(store, store.newCheckpoint("../e1/2", alertsFile), 1, List.of("a"));
+
+        assertTrue(Files.exists(checkpoints.resolve(".._e1_2.json")));
+        assertEquals(1, store.load("../e1/2", alertsFile).getAlertIndex());
+    }
+
+    @Test
+    void isDisabledWithoutADirectory() throws Exception {
+        ParseCheckpointStore store = store("");
+        ParseCheckpoint cp = store.newCheckpoint("e1", alertsFile);
+
+        commit(store, cp, 1, List.of("a"));
+
+        assertNull(store.load("e1", alertsFile));
+        assertFalse(Files.exists(checkpoints));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SarifParserTest {
+
+    /**
+     * Two runs whose rule arrays disagree on what ruleIndex 0 is; the second run keeps one of its
+     * rules in a tool extension and ends with an entry that is not a result object.
+     */
+    private static final String TWO_RUNS = """
+            {
+              "version": "2.1.0",
+              "$schema": "https://json.schemastore.org/sarif-2.1.0.json",
+              "runs": [
+                {
+                  "tool": {"driver": {"name": "CodeQL", "rules": [
+                    {"id": "js/sql-injection",
+                     "shortDescription": {"text": "SQL injection"},
+                     "fullDescription": {"text": "Building SQL from user input."},
+                     "help": {"text": "long markdown"},
+                     "properties": {"security-severity": "9.8", "tags": ["security", "external/cwe/cwe-089"]}},
+                    {"id": "js/unused-variable",
+                     "name": "UnusedVariable",
+                     "defaultConfiguration": {"level": "note"}}
+                  ]}},
+                  "results": [
+                    {"ruleId": "js/sql-injection", "ruleIndex": 0,
+                     "message": {"text": "query built from req.query"},
+                     "locations": [{"physicalLocation": {"artifactLocation": {"uri": "src/db.js"}, "region": {"startLine": 12}}}],
+                     "partialFingerprints": {"primaryLocationLineHash": "abc123:1", "other": "zzz"}},
+                    {"ruleId": "js/unused-variable",
+                     "message": {"text": "x is never used"},
+                     "locations": [{"physicalLocation": {"artifactLocation": {"uri": "src/app.js"}, "region": {"startLine": 3}}}],
+                     "fingerprints": {"stable/v1": "fp-77"}},
+                    {"ruleIndex": 1, "level": "error",
+                     "message": {"text": "y is never used"},
+                     "suppressions": [{"kind": "inSource"}],
+                     "locations": [{"physicalLocation": {"artifactLocation": {"uri": "src/app.js"}, "region": {"startLine": 9}}}]}
+                  ]
+                },
+                {
+                  "tool": {
+                    "driver": {"name": "Semgrep", "rules": [
+                      {"id": "python.flask.debug", "shortDescription": {"text": "Flask debug mode"},
+                       "defaultConfiguration": {"level": "error"}}
+                    ]},
+                    "extensions": [{"name": "custom", "rules": [
+                      {"id": "custom.hardcoded-token", "shortDescription": {"text": "Hard-coded token"},
+                       "properties": {"security-severity": "5.0"}}
+                    ]}]
+                  },
+                  "results": [
+                    {"ruleId": "python.flask.debug", "ruleIndex": 0,
+                     "message": {"text": "debug=True"},
+                     "baselineState": "absent",
+                     "locations": [{"physicalLocation": {"artifactLocation": {"uri": "app.py"}, "region": {"startLine": 40}}}]},
+                    {"ruleId": "custom.hardcoded-token",
+                     "message": {"text": "token literal"},
+                     "locations": [{"physicalLocation": {"artifactLocation": {"uri": "settings.py"}}}]},
+                    "not an object"
+                  ]
+                }
+              ]
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final SarifParser parser = new SarifParser();
+
+    private File write(String json) throws IOException {
+        return Files.writeString(dir.resolve("results.sarif"), json).toFile();
+    }
+
+    private List<Object> readAll(File file, int fromIndex, List<Integer> indexes) throws IOException {
+        List<Object> alerts = new ArrayList<>();
+        int total = parser.readAlerts(file, fromIndex, (index, alert) -> {
+            indexes.add(index);
+            alerts.add(alert);
+        });
+        assertEquals(6, total);
+        return alerts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Findings convert(Object alert) {
+        return parser.convert((Map<String, Object>) alert);
+    }
+
+    @Test
+    void streamsResultsOfEveryRunWithOneIndexAcrossRuns() throws Exception {
+        List<Integer> indexes = new ArrayList<>();
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, indexes);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), indexes);
+        assertEquals("CodeQL", convert(alerts.get(0)).getAdditionalData().get("sarifTool"));
+        assertEquals("Semgrep", convert(alerts.get(3)).getAdditionalData().get("sarifTool"));
+        // a malformed entry is handed on as read for the caller to quarantine
+        assertEquals("not an object", alerts.get(5));
+    }
+
+    @Test
+    void attachesTheRuleOfTheSameRunByIndexOrId() throws Exception {
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, new ArrayList<>());
+
+        Findings byIndexAndId = convert(alerts.get(0));
+        assertEquals("js/sql-injection", byIndexAndId.getRuleId());
+        assertEquals("SQL injection", byIndexAndId.getTitle());
+        assertEquals("Building SQL from user input.", byIndexAndId.getDescription());
+        assertEquals("CWE-089", byIndexAndId.getCwe());
+        assertEquals(List.of("security", "external/cwe/cwe-089"), byIndexAndId.getRule().getTags());
+
+        Findings byIdOnly = convert(alerts.get(1));
+        assertEquals("js/unused-variable", byIdOnly.getRuleId());
+        assertEquals("UnusedVariable", byIdOnly.getTitle());
+        assertEquals("x is never used", byIdOnly.getDescription());
+
+        // ruleIndex only: the id comes from the rule
+        assertEquals("js/unused-variable", convert(alerts.get(2)).getRuleId());
+
+        // ruleIndex 0 of the second run is that run's rule, not CodeQL's
+        Findings secondRun = convert(alerts.get(3));
+        assertEquals("python.flask.debug", secondRun.getRuleId());
+        assertEquals("Flask debug mode", secondRun.getTitle());
+
+        Findings fromExtension = convert(alerts.get(4));
+        assertEquals("Hard-coded token", fromExtension.getTitle());
+        assertEquals("settings.py", fromExtension.getLocation());
+    }
+
+    @Test
+    void dropsTheRuleHelpText() throws Exception {
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, new ArrayList<>());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> rule = (Map<String, Object>) ((Map<String, Object>) alerts.get(0)).get(SarifParser.RULE_KEY);
+        assertNull(rule.get("help"));
+    }
+
+    @Test
+    void derivesAlertNumbersFromFingerprintsThenLocation() throws Exception {
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, new ArrayList<>());
+
+        assertEquals("js/sql-injection@abc123:1", convert(alerts.get(0)).getAlertNumber());
+        assertEquals("js/unused-variable@fp-77", convert(alerts.get(1)).getAlertNumber());
+        assertEquals("js/unused-variable@src/app.js:9", convert(alerts.get(2)).getAlertNumber());
+        assertEquals("custom.hardcoded-token@settings.py:", convert(alerts.get(4)).getAlertNumber());
+        // the key is stable across re-reads of the same log, unlike the document id
+        assertEquals(convert(alerts.get(0)).getAlertNumber(), convert(alerts.get(0)).getAlertNumber());
+    }
+
+    @Test
+    void mapsSecuritySeverityBeforeLevels() throws Exception {
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, new ArrayList<>());
+
+        assertEquals(Severity.CRITICAL, convert(alerts.get(0)).getSeverity());   // 9.8
+        assertEquals(Severity.LOW, convert(alerts.get(1)).getSeverity());        // rule default "note"
+        assertEquals(Severity.HIGH, convert(alerts.get(2)).getSeverity());       // result level "error" wins
+        assertEquals(Severity.HIGH, convert(alerts.get(3)).getSeverity());       // rule default "error"
+        assertEquals(Severity.MEDIUM, convert(alerts.get(4)).getSeverity());     // 5.0
+    }
+
+    @Test
+    void mapsBaselineAndSuppressionsToState() throws Exception {
+        List<Object> alerts = readAll(write(TWO_RUNS), 0, new ArrayList<>());
+
+        assertEquals(AlertState.OPEN, convert(alerts.get(0)).getState());
+        assertEquals(AlertState.SUPPRESSED, convert(alerts.get(2)).getState());
+        assertEquals(AlertState.FIXED, convert(alerts.get(3)).getState());
+    }
+
+    @Test
+    void skipsResultsBeforeFromIndexButStillCountsThem() throws Exception {
+        List<Integer> indexes = new ArrayList<>();
+        List<Object> alerts = readAll(write(TWO_RUNS), 2, indexes);
+
+        assertEquals(List.of(2, 3, 4, 5), indexes);
+        // resuming mid-run keeps that run's rules
+        assertEquals("js/unused-variable", convert(alerts.get(0)).getRuleId());
+        assertEquals("python.flask.debug", convert(alerts.get(1)).getRuleId());
+    }
+
+    @Test
+    void rejectsAFileThatIsNotASarifLog() throws Exception {
+        File file = write("[{\"number\": 1}]");
+
+        assertThrows(IOException.class, () -> parser.readAlerts(file, 0, (index, alert) -> { }));
+    }
+
+    @Test
+    void wrapsCheckedHandlerFailures() throws Exception {
+        File file = write(TWO_RUNS);
+        Exception failure = new Exception("sink closed");
+
+        IOException thrown = assertThrows(IOException.class,
+                () -> parser.readAlerts(file, 0, (index, alert) -> { throw failure; }));
+        assertSame(failure, thrown.getCause());
+    }
+}
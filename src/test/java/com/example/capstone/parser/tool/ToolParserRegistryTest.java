@@ -0,0 +1,81 @@
+package com.example.capstone.parser.tool;
+
+import com.example.capstone.parser.model.AlertState;
+import com.example.capstone.parser.model.Findings;
+import com.example.capstone.parser.model.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ToolParserRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void looksUpRegisteredParsersByToolType() {
+        SarifParser sarif = new SarifParser();
+        CodeScanningParser codeScanning = new CodeScanningParser();
+        ToolParserRegistry registry = new ToolParserRegistry(List.of(sarif, codeScanning));
+
+        assertSame(sarif, registry.get("SARIF"));
+        assertSame(codeScanning, registry.get("CODE_SCANNING"));
+        assertEquals(List.of("SARIF", "CODE_SCANNING"), List.copyOf(registry.getToolTypes()));
+    }
+
+    @Test
+    void rejectsTwoDifferentParsersForOneToolType() {
+        ToolParser impostor = new GithubAlertParser() {
+            @Override
+            public String getToolType() {
+                return "SARIF";
+            }
+
+            @Override
+            protected void fillToolData(Findings f, Map<String, Object> alert) {
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> new ToolParserRegistry(List.of(new SarifParser(), impostor)));
+    }
+
+    @Test
+    void fallsBackToAGenericGithubParserForUnknownToolTypes() throws Exception {
+        ToolParserRegistry registry = new ToolParserRegistry(List.of(new SarifParser()));
+        File file = Files.writeString(dir.resolve("alerts.json"), """
+                [
+                  {"number": 7, "state": "open", "created_at": "2024-01-01T00:00:00Z",
+                   "updated_at": "2024-01-02T00:00:00Z", "html_url": "https://github.com/o/r/alerts/7",
+                   "rule": {"id": "ignored", "severity": "critical"}}
+                ]
+                """).toFile();
+
+        ToolParser parser = registry.get("NEW_SCANNER");
+        assertInstanceOf(UnknownToolParser.class, parser);
+        assertEquals("NEW_SCANNER", parser.getToolType());
+
+        List<Object> alerts = new ArrayList<>();
+        assertEquals(1, parser.readAlerts(file, 0, (index, alert) -> alerts.add(alert)));
+        @SuppressWarnings("unchecked")
+        Findings f = parser.convert((Map<String, Object>) alerts.get(0));
+        assertEquals("NEW_SCANNER", f.getToolType());
+        assertEquals("7", f.getAlertNumber());
+        assertEquals(AlertState.OPEN, f.getState());
+        assertEquals("2024-01-02T00:00:00Z", f.getUpdatedAt());
+        assertEquals("https://github.com/o/r/alerts/7", f.getUrl());
+        assertEquals(Severity.MEDIUM, f.getSeverity());
+        assertEquals("Unknown Alert", f.getTitle());
+    }
+}